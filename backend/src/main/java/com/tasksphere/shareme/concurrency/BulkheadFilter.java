@@ -0,0 +1,101 @@
+package com.tasksphere.shareme.concurrency;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tasksphere.shareme.dto.ErrorResponse;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admits each request through the first bulkhead whose rule matches it and
+ * answers 503 with Retry-After when that bulkhead stays full. With virtual
+ * threads Tomcat no longer limits concurrency, so this is what keeps a
+ * traffic spike from piling onto the connection pool.
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadFilter.class);
+
+    private final List<Rule> rules = new ArrayList<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ObjectMapper objectMapper;
+
+    public BulkheadFilter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Route requests matching the Ant pattern (and method, when not null) through the bulkhead.
+     * Rules are checked in the order they were added.
+     */
+    public BulkheadFilter route(String method, String pattern, Bulkhead bulkhead) {
+        rules.add(new Rule(method, pattern, bulkhead));
+        return this;
+    }
+
+    public List<Bulkhead> getBulkheads() {
+        return rules.stream().map(Rule::bulkhead).distinct().toList();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Bulkhead bulkhead = match(request);
+        if (bulkhead == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            logger.debug("Bulkhead {} full, rejecting {} {}", bulkhead.getName(), request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse("Server is busy, please retry shortly", HttpStatus.SERVICE_UNAVAILABLE.value()));
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private Bulkhead match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Rule rule : rules) {
+            if ((rule.method() == null || rule.method().equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(rule.pattern(), path)) {
+                return rule.bulkhead();
+            }
+        }
+        return null;
+    }
+
+    private record Rule(String method, String pattern, Bulkhead bulkhead) {}
+}
@@ -0,0 +1,67 @@
+package com.tasksphere.shareme.concurrency;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cluster-wide mutual exclusion for background jobs, using MySQL named locks
+ * (GET_LOCK). The lock belongs to one connection, which is held for the whole
+ * job; if the node dies, MySQL releases the lock when the session ends.
+ */
+@Component
+public class DatabaseNamedLock {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseNamedLock.class);
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Run the task unless another node holds the lock. Returns false when skipped.
+     */
+    public boolean runExclusively(String name, Runnable task) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!acquire(connection, name)) {
+                logger.debug("Skipping {}: running on another node", name);
+                return false;
+            }
+            try {
+                task.run();
+                return true;
+            } finally {
+                release(connection, name);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to use named lock " + name, e);
+        }
+    }
+
+    private boolean acquire(Connection connection, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            statement.setString(1, name);
+            try (ResultSet result = statement.executeQuery()) {
+                // 1 when acquired, 0 when held elsewhere, NULL on error
+                return result.next() && result.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void release(Connection connection, String name) {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, name);
+            statement.execute();
+        } catch (SQLException e) {
+            // The pool keeps the physical connection, so the lock lives until it is retired
+            logger.warn("Could not release named lock {}", name, e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.tasksphere.shareme.concurrency;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One token bucket per key (an IP address, an email): each key may burst up to
+ * capacity requests and then gets refillPerMinute more per minute.
+ *
+ * Buckets that have refilled completely carry no state and are dropped when
+ * the map grows past maxKeys, so a scan over many keys cannot exhaust memory.
+ */
+public class TokenBucketLimiter {
+
+    private static final long PRUNE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final String name;
+    private final double capacity;
+    private final double tokensPerNano;
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastPrune = new AtomicLong(System.nanoTime());
+
+    public TokenBucketLimiter(String name, int capacity, int refillPerMinute, int maxKeys) {
+        if (capacity <= 0 || refillPerMinute <= 0) {
+            throw new IllegalArgumentException("Rate limiter " + name + " needs a positive capacity and refill rate");
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Take one token for the key. Returns 0 when allowed, otherwise the number of
+     * seconds until the next token is available.
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        if (buckets.size() > maxKeys) {
+            prune(now);
+        }
+        return buckets.computeIfAbsent(key, k -> new Bucket(capacity, now)).tryAcquire(now);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void prune(long now) {
+        long last = lastPrune.get();
+        if (now - last < PRUNE_INTERVAL_NANOS || !lastPrune.compareAndSet(last, now)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private final class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        synchronized long tryAcquire(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            double waitNanos = (1 - tokens) / tokensPerNano;
+            return Math.max(1, (long) Math.ceil(waitNanos / TimeUnit.SECONDS.toNanos(1)));
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.tasksphere.shareme.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Enables @Async. The executor is Spring Boot's applicationTaskExecutor, which
+ * runs on virtual threads when spring.threads.virtual.enabled=true on Java 21+
+ * and on a bounded platform thread pool otherwise.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @PostConstruct
+    public void logThreadingMode() {
+        int javaVersion = Runtime.version().feature();
+        if (virtualThreadsEnabled && javaVersion < 21) {
+            logger.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; "
+                + "requests are served by the platform thread pool. Run on Java 21+ to use them.", javaVersion);
+        } else {
+            logger.info("Serving requests on {} threads", virtualThreadsEnabled ? "virtual" : "platform");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.tasksphere.shareme.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tasksphere.shareme.concurrency.Bulkhead;
+import com.tasksphere.shareme.concurrency.BulkheadFilter;
+
+/**
+ * Semaphore bulkheads in front of the API. Password hashing and uploads get
+ * their own bulkheads so they cannot starve ordinary requests, and everything
+ * else shares one sized from the JDBC pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.bulkhead.enabled", havingValue = "true")
+public class BulkheadConfig {
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    @Value("${app.bulkhead.api.max-concurrent:0}")
+    private int apiMaxConcurrent;
+
+    @Value("${app.bulkhead.auth.max-concurrent:0}")
+    private int authMaxConcurrent;
+
+    @Value("${app.bulkhead.uploads.max-concurrent:16}")
+    private int uploadsMaxConcurrent;
+
+    @Value("${app.bulkhead.max-wait-ms:2000}")
+    private long maxWaitMillis;
+
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(ObjectMapper objectMapper) {
+        // A request spends part of its time outside the database, so allow some overlap
+        int api = apiMaxConcurrent > 0 ? apiMaxConcurrent : connectionPoolSize * 2;
+        // BCrypt is CPU bound; more concurrent hashes than cores only adds latency
+        int auth = authMaxConcurrent > 0 ? authMaxConcurrent : Runtime.getRuntime().availableProcessors();
+
+        Bulkhead authBulkhead = new Bulkhead("auth", auth, maxWaitMillis);
+        Bulkhead uploadBulkhead = new Bulkhead("uploads", uploadsMaxConcurrent, maxWaitMillis);
+        Bulkhead apiBulkhead = new Bulkhead("api", api, maxWaitMillis);
+
+        BulkheadFilter filter = new BulkheadFilter(objectMapper)
+            .route("POST", "/api/auth/login", authBulkhead)
+            .route("POST", "/api/auth/signup", authBulkhead)
+            .route("POST", "/api/auth/reset", authBulkhead)
+            .route("POST", "/api/tasks/*/attachments/**", uploadBulkhead)
+            .route("PUT", "/api/tasks/attachments/uploads/*", uploadBulkhead)
+            .route("POST", "/api/tasks/attachments/uploads/*/complete", uploadBulkhead)
+            .route(null, "/api/**", apiBulkhead);
+
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        // Before security, so rejected requests cost no token parsing
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,30 @@
+package com.tasksphere.shareme.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.tasksphere.shareme.security.DownloadUrlSigner;
+import com.tasksphere.shareme.security.SignedDownloadFilter;
+import com.tasksphere.shareme.service.AttachmentBlobStore;
+import com.tasksphere.shareme.service.AttachmentContentCache;
+
+/**
+ * Signed file downloads are answered by a servlet filter mapped to /files/*,
+ * ahead of Spring Security and the DispatcherServlet.
+ */
+@Configuration
+public class DownloadConfig {
+
+    @Bean
+    public FilterRegistrationBean<SignedDownloadFilter> signedDownloadFilter(DownloadUrlSigner downloadUrlSigner,
+                                                                             AttachmentBlobStore attachmentBlobStore,
+                                                                             AttachmentContentCache attachmentContentCache) {
+        FilterRegistrationBean<SignedDownloadFilter> registration = new FilterRegistrationBean<>(
+            new SignedDownloadFilter(downloadUrlSigner, attachmentBlobStore, attachmentContentCache));
+        registration.addUrlPatterns(DownloadUrlSigner.PATH_PREFIX + "*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
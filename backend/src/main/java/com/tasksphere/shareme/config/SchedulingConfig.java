@@ -0,0 +1,12 @@
+package com.tasksphere.shareme.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (upload session cleanup and similar housekeeping).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,45 @@
+package com.tasksphere.shareme.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.tasksphere.shareme.monitoring.SqlStatementBudgetFilter;
+import com.tasksphere.shareme.monitoring.SqlStatementCountingInspector;
+
+/**
+ * Wires the per-request SQL statement budget used to detect N+1 queries.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatementBudgetConfig {
+
+    @Value("${app.sql-budget.max-statements:25}")
+    private int maxStatements;
+
+    @Value("${app.sql-budget.sample-rate:0.05}")
+    private double sampleRate;
+
+    @Value("${app.sql-budget.fail-on-exceed:false}")
+    private boolean failOnExceed;
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCountingInspector());
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementBudgetFilter> sqlStatementBudgetFilter() {
+        FilterRegistrationBean<SqlStatementBudgetFilter> registration =
+            new FilterRegistrationBean<>(new SqlStatementBudgetFilter(maxStatements, sampleRate, failOnExceed));
+        registration.addUrlPatterns("/api/*");
+        // Run outermost so statements issued by security filters are counted too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,106 @@
+package com.tasksphere.shareme.config;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.tasksphere.shareme.storage.LocalStorageBackend;
+import com.tasksphere.shareme.storage.S3StorageBackend;
+import com.tasksphere.shareme.storage.StorageBackend;
+
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+/**
+ * Selects the attachment storage backend with app.storage.backend: "local"
+ * (default) keeps files in app.file.upload-dir, "s3" stores them in a bucket
+ * that every application node can reach.
+ */
+@Configuration
+public class StorageConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.backend", havingValue = "local", matchIfMissing = true)
+    public StorageBackend localStorageBackend(@Value("${app.file.upload-dir:uploads}") String uploadDir) {
+        return new LocalStorageBackend(Paths.get(uploadDir));
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "app.storage.backend", havingValue = "s3")
+    static class S3StorageConfig {
+
+        @Value("${app.storage.s3.bucket}")
+        private String bucket;
+
+        @Value("${app.storage.s3.region:us-east-1}")
+        private String region;
+
+        // Set for S3-compatible stores such as MinIO, e.g. http://localhost:9000
+        @Value("${app.storage.s3.endpoint:}")
+        private String endpoint;
+
+        @Value("${app.storage.s3.path-style-access:false}")
+        private boolean pathStyleAccess;
+
+        // Empty uses the default AWS credential chain (environment, profile, instance role)
+        @Value("${app.storage.s3.access-key:}")
+        private String accessKey;
+
+        @Value("${app.storage.s3.secret-key:}")
+        private String secretKey;
+
+        @Value("${app.storage.s3.presign-ttl-minutes:15}")
+        private long presignTtlMinutes;
+
+        @Bean(destroyMethod = "close")
+        public S3Client s3Client() {
+            var builder = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider())
+                .serviceConfiguration(s3Configuration());
+            if (!endpoint.isBlank()) {
+                builder.endpointOverride(URI.create(endpoint));
+            }
+            return builder.build();
+        }
+
+        @Bean(destroyMethod = "close")
+        public S3Presigner s3Presigner() {
+            var builder = S3Presigner.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider())
+                .serviceConfiguration(s3Configuration());
+            if (!endpoint.isBlank()) {
+                builder.endpointOverride(URI.create(endpoint));
+            }
+            return builder.build();
+        }
+
+        @Bean
+        public StorageBackend s3StorageBackend(S3Client s3Client, S3Presigner s3Presigner) {
+            return new S3StorageBackend(s3Client, s3Presigner, bucket, Duration.ofMinutes(presignTtlMinutes));
+        }
+
+        private AwsCredentialsProvider credentialsProvider() {
+            if (accessKey.isBlank()) {
+                return DefaultCredentialsProvider.create();
+            }
+            return StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+        }
+
+        private S3Configuration s3Configuration() {
+            return S3Configuration.builder().pathStyleAccessEnabled(pathStyleAccess).build();
+        }
+    }
+}
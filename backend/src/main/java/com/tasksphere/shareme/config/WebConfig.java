@@ -0,0 +1,26 @@
+package com.tasksphere.shareme.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.tasksphere.shareme.repository.UserRepository;
+import com.tasksphere.shareme.security.CurrentUserArgumentResolver;
+
+/**
+ * Registers the @CurrentUser argument resolver
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver(userRepository));
+    }
+}
@@ -0,0 +1,162 @@
+package com.tasksphere.shareme.controller;
+
+import java.io.IOException;
+import java.net.URI;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.tasksphere.shareme.dto.CreateUploadSessionRequest;
+import com.tasksphere.shareme.dto.TaskAttachmentResponse;
+import com.tasksphere.shareme.dto.UploadSessionResponse;
+import com.tasksphere.shareme.entity.User;
+import com.tasksphere.shareme.exception.ResourceNotFoundException;
+import com.tasksphere.shareme.security.CurrentUser;
+import com.tasksphere.shareme.service.AttachmentUploadSessionService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/tasks")
+@Tag(name = "Resumable Uploads", description = "Chunked, resumable attachment uploads - Create a session, PUT chunks at the current offset, then complete")
+@SecurityRequirement(name = "bearerAuth")
+@CrossOrigin(origins = "http://localhost:3000", exposedHeaders = {"Upload-Offset", "Upload-Length", "Location"})
+public class AttachmentUploadSessionController {
+
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+    private static final String UPLOAD_LENGTH = "Upload-Length";
+
+    @Autowired
+    private AttachmentUploadSessionService uploadSessionService;
+
+    @PostMapping("/{taskId}/attachments/uploads")
+    @Operation(summary = "Start a resumable upload", description = "Validate the file name, type and size and create an upload session")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Upload session created"),
+        @ApiResponse(responseCode = "400", description = "Invalid file name, type or size"),
+        @ApiResponse(responseCode = "404", description = "Task not found"),
+        @ApiResponse(responseCode = "413", description = "Storage quota exceeded")
+    })
+    public ResponseEntity<UploadSessionResponse> createUpload(
+            @Parameter(description = "Task ID") @PathVariable Long taskId,
+            @Valid @RequestBody CreateUploadSessionRequest request,
+            @Parameter(hidden = true) @CurrentUser User user) {
+        try {
+            UploadSessionResponse session = uploadSessionService.createSession(taskId, request, user);
+            return ResponseEntity.created(URI.create(session.getUploadUrl()))
+                .header(UPLOAD_OFFSET, String.valueOf(session.getOffset()))
+                .body(session);
+        } catch (ResourceNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (ResponseStatusException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @RequestMapping(value = "/attachments/uploads/{uploadId}", method = {RequestMethod.HEAD, RequestMethod.GET})
+    @Operation(summary = "Get upload offset", description = "Return how many bytes have been received; resume by sending the next chunk from this offset")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Upload state returned in the body and the Upload-Offset header"),
+        @ApiResponse(responseCode = "404", description = "Upload not found or expired")
+    })
+    public ResponseEntity<UploadSessionResponse> getUpload(
+            @Parameter(description = "Upload session ID") @PathVariable String uploadId,
+            @Parameter(hidden = true) @CurrentUser User user) {
+        try {
+            UploadSessionResponse session = uploadSessionService.getSession(uploadId, user);
+            return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET, String.valueOf(session.getOffset()))
+                .header(UPLOAD_LENGTH, String.valueOf(session.getFileSize()))
+                .header("Cache-Control", "no-store")
+                .body(session);
+        } catch (ResourceNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    @PutMapping(value = "/attachments/uploads/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Upload a chunk", description = "Append raw bytes at Upload-Offset, which must equal the bytes received so far. The chunk is streamed straight into the staged file.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Chunk stored; the new offset is returned"),
+        @ApiResponse(responseCode = "404", description = "Upload not found or expired"),
+        @ApiResponse(responseCode = "409", description = "Offset does not match, or another chunk is in progress"),
+        @ApiResponse(responseCode = "410", description = "Upload has expired"),
+        @ApiResponse(responseCode = "413", description = "Chunk extends past the declared file size"),
+        @ApiResponse(responseCode = "421", description = "Upload is staged on another node")
+    })
+    public ResponseEntity<UploadSessionResponse> uploadChunk(
+            @Parameter(description = "Upload session ID") @PathVariable String uploadId,
+            @Parameter(description = "Byte offset of this chunk") @RequestHeader(UPLOAD_OFFSET) long offset,
+            HttpServletRequest request,
+            @Parameter(hidden = true) @CurrentUser User user) throws IOException {
+        try {
+            UploadSessionResponse session = uploadSessionService.appendChunk(uploadId, offset, request.getInputStream(), user);
+            return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET, String.valueOf(session.getOffset()))
+                .body(session);
+        } catch (ResourceNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    @PostMapping("/attachments/uploads/{uploadId}/complete")
+    @Operation(summary = "Complete an upload", description = "Verify the size and checksum of the uploaded file and attach it to the task")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "File attached to the task"),
+        @ApiResponse(responseCode = "404", description = "Upload not found or expired"),
+        @ApiResponse(responseCode = "409", description = "Upload is not complete yet"),
+        @ApiResponse(responseCode = "410", description = "Upload has expired"),
+        @ApiResponse(responseCode = "421", description = "Upload is staged on another node"),
+        @ApiResponse(responseCode = "422", description = "Checksum does not match; the upload is discarded")
+    })
+    public ResponseEntity<TaskAttachmentResponse> completeUpload(
+            @Parameter(description = "Upload session ID") @PathVariable String uploadId,
+            @Parameter(hidden = true) @CurrentUser User user) {
+        try {
+            TaskAttachmentResponse attachment = uploadSessionService.completeSession(uploadId, user);
+            return ResponseEntity.status(HttpStatus.CREATED).body(attachment);
+        } catch (ResourceNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/attachments/uploads/{uploadId}")
+    @Operation(summary = "Cancel an upload", description = "Abort an upload session and delete the data received so far")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Upload cancelled"),
+        @ApiResponse(responseCode = "404", description = "Upload not found or expired"),
+        @ApiResponse(responseCode = "421", description = "Upload is staged on another node")
+    })
+    public ResponseEntity<Void> cancelUpload(
+            @Parameter(description = "Upload session ID") @PathVariable String uploadId,
+            @Parameter(hidden = true) @CurrentUser User user) {
+        try {
+            uploadSessionService.cancelSession(uploadId, user);
+            return ResponseEntity.noContent().build();
+        } catch (ResourceNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+}
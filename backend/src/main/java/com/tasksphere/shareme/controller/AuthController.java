@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -13,17 +14,22 @@ import com.tasksphere.shareme.dto.AuthResponse;
 import com.tasksphere.shareme.dto.ErrorResponse;
 import com.tasksphere.shareme.dto.ForgotPasswordRequest;
 import com.tasksphere.shareme.dto.LoginRequest;
+import com.tasksphere.shareme.dto.RefreshTokenRequest;
 import com.tasksphere.shareme.dto.ResetPasswordRequest;
 import com.tasksphere.shareme.dto.SignupRequest;
 import com.tasksphere.shareme.dto.UserInfo;
+import com.tasksphere.shareme.security.AuthenticatedUser;
+import com.tasksphere.shareme.security.CurrentUser;
 import com.tasksphere.shareme.service.AuthService;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -55,14 +61,82 @@ public class AuthController {
                 content = @Content(schema = @Schema(implementation = AuthResponse.class))),
         @ApiResponse(responseCode = "401", description = "Invalid credentials",
                 content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input",
+                content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "429", description = "Too many attempts for this address or email",
+                content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "503", description = "Password hashing is saturated",
+                content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest httpRequest) {
+        // The client behind a trusted proxy, see server.forward-headers-strategy
+        AuthResponse response = authService.login(request, httpRequest.getRemoteAddr());
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh tokens",
+               description = "Exchange a refresh token for a new access token and a new refresh token. "
+                   + "Each refresh token works once; presenting a used one ends the session, unless it is "
+                   + "a retry within a few seconds while its successor is still unused.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Tokens refreshed",
+                content = @Content(schema = @Schema(implementation = AuthResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Invalid, expired, revoked or reused refresh token",
+                content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "400", description = "Invalid input",
                 content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        AuthResponse response = authService.login(request);
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        AuthResponse response = authService.refresh(request);
         return ResponseEntity.ok(response);
     }
     
+    @PostMapping("/logout")
+    @Operation(summary = "Log out",
+               description = "Revoke the access token of this request on every node. "
+                   + "Pass the refresh token to end its session as well.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Logged out"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<Void> logout(@Parameter(hidden = true) @CurrentUser AuthenticatedUser caller,
+                                       @RequestBody(required = false) RefreshTokenRequest request) {
+        authService.logout(caller, request);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @PostMapping("/logout-all")
+    @Operation(summary = "Log out everywhere", description = "Revoke every access and refresh token of the current user")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "All sessions ended"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<Void> logoutAll(@Parameter(hidden = true) @CurrentUser AuthenticatedUser caller) {
+        authService.revokeAllSessions(caller.id());
+        return ResponseEntity.noContent().build();
+    }
+    
+    @PostMapping("/users/{userId}/revoke-sessions")
+    @Operation(summary = "Revoke a user's sessions", description = "Admin only: end every session of a compromised account")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "All sessions of the user ended"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Admin role required",
+                content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "User not found",
+                content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<Void> revokeUserSessions(@Parameter(hidden = true) @CurrentUser AuthenticatedUser caller,
+                                                   @PathVariable Long userId) {
+        authService.revokeUserSessions(caller, userId);
+        return ResponseEntity.noContent().build();
+    }
+    
     @GetMapping("/me")
     @Operation(summary = "Get current user", description = "Get current authenticated user information")
     @ApiResponses(value = {
@@ -18,7 +18,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<ErrorResponse> handleResponseStatusException(ResponseStatusException ex) {
         ErrorResponse error = new ErrorResponse(ex.getReason(), ex.getStatusCode().value());
-        return ResponseEntity.status(ex.getStatusCode()).body(error);
+        return ResponseEntity.status(ex.getStatusCode()).headers(ex.getHeaders()).body(error);
     }
     
     @ExceptionHandler(MethodArgumentNotValidException.class)
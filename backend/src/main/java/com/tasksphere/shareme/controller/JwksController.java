@@ -0,0 +1,45 @@
+package com.tasksphere.shareme.controller;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.tasksphere.shareme.security.JwtKeyManager;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@Tag(name = "Authentication", description = "Authentication and user management APIs - Register, login, password reset, and user profile management")
+public class JwksController {
+    
+    @Autowired
+    private JwtKeyManager keyManager;
+    
+    @GetMapping("/.well-known/jwks.json")
+    @Operation(summary = "JSON Web Key Set",
+               description = "Public keys that verify access tokens, matched by the token's kid header. "
+                   + "New keys appear here before they sign anything.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Current verification keys"),
+        @ApiResponse(responseCode = "404", description = "Tokens are signed with a shared secret (HS256)")
+    })
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        if (!keyManager.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No public signing keys");
+        }
+        // Shorter than the publish delay, so consumers see a new key before it signs
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+            .body(keyManager.jwks());
+    }
+}
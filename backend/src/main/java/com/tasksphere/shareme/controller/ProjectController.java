@@ -1,5 +1,6 @@
 package com.tasksphere.shareme.controller;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -14,14 +15,16 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.tasksphere.shareme.dto.CreateProjectRequest;
 import com.tasksphere.shareme.dto.ErrorResponse;
 import com.tasksphere.shareme.dto.ProjectResponse;
-import com.tasksphere.shareme.security.JwtTokenProvider;
+import com.tasksphere.shareme.security.AuthenticatedUser;
+import com.tasksphere.shareme.security.CurrentUser;
+import com.tasksphere.shareme.service.AttachmentArchiveService;
 import com.tasksphere.shareme.service.ProjectService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -32,6 +35,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -45,7 +49,7 @@ public class ProjectController {
     private ProjectService projectService;
 
     @Autowired
-    private JwtTokenProvider jwtTokenProvider;
+    private AttachmentArchiveService attachmentArchiveService;
 
     @GetMapping
     @Operation(summary = "Get User Projects", description = "Retrieve all projects belonging to the authenticated user with complete project details")
@@ -57,11 +61,10 @@ public class ProjectController {
                 content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<List<ProjectResponse>> getUserProjects(
-            @Parameter(description = "JWT Bearer token for authentication", required = true, example = "Bearer eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
-            @RequestHeader("Authorization") String token) {
+            @Parameter(hidden = true)
+            @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7); // Remove "Bearer " prefix
-            Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
+            Long userId = currentUser.id();
 
             List<ProjectResponse> projects = projectService.getUserProjects(userId);
             return ResponseEntity.ok(projects);
@@ -85,11 +88,10 @@ public class ProjectController {
     public ResponseEntity<ProjectResponse> createProject(
             @Parameter(description = "Project creation details", required = true)
             @Valid @RequestBody CreateProjectRequest request,
-            @Parameter(description = "JWT Bearer token for authentication", required = true, example = "Bearer eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
-            @RequestHeader("Authorization") String token) {
+            @Parameter(hidden = true)
+            @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7); // Remove "Bearer " prefix
-            Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
+            Long userId = currentUser.id();
 
             ProjectResponse project = projectService.createProject(request, userId);
             return ResponseEntity.status(HttpStatus.CREATED).body(project);
@@ -115,11 +117,10 @@ public class ProjectController {
     public ResponseEntity<ProjectResponse> getProject(
             @Parameter(description = "Project ID to retrieve", required = true, example = "1")
             @PathVariable Long id,
-            @Parameter(description = "JWT Bearer token for authentication", required = true, example = "Bearer eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
-            @RequestHeader("Authorization") String token) {
+            @Parameter(hidden = true)
+            @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7); // Remove "Bearer " prefix
-            Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
+            Long userId = currentUser.id();
 
             ProjectResponse project = projectService.getProjectById(id, userId);
             return ResponseEntity.ok(project);
@@ -154,11 +155,10 @@ public class ProjectController {
             @PathVariable Long id,
             @Parameter(description = "Updated project details", required = true)
             @Valid @RequestBody CreateProjectRequest request,
-            @Parameter(description = "JWT Bearer token for authentication", required = true, example = "Bearer eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
-            @RequestHeader("Authorization") String token) {
+            @Parameter(hidden = true)
+            @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7); // Remove "Bearer " prefix
-            Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
+            Long userId = currentUser.id();
 
             ProjectResponse project = projectService.updateProject(id, request, userId);
             return ResponseEntity.ok(project);
@@ -188,11 +188,10 @@ public class ProjectController {
     public ResponseEntity<Void> deleteProject(
             @Parameter(description = "Project ID to delete", required = true, example = "1")
             @PathVariable Long id,
-            @Parameter(description = "JWT Bearer token for authentication", required = true, example = "Bearer eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
-            @RequestHeader("Authorization") String token) {
+            @Parameter(hidden = true)
+            @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7); // Remove "Bearer " prefix
-            Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
+            Long userId = currentUser.id();
 
             projectService.deleteProject(id, userId);
             return ResponseEntity.noContent().build();
@@ -206,6 +205,40 @@ public class ProjectController {
         }
     }
 
+    @GetMapping("/{id}/attachments/archive")
+    @Operation(summary = "Download All Project Attachments", description = "Stream all attachments of a project as a ZIP archive built on the fly, with one folder per task. Already-compressed formats are stored without recompression.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "ZIP archive streamed"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Access denied to this project",
+                content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Project not found",
+                content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing JWT token",
+                content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public void downloadProjectArchive(
+            @Parameter(description = "Project ID whose attachments to download", required = true, example = "1")
+            @PathVariable Long id,
+            @Parameter(hidden = true)
+            @CurrentUser AuthenticatedUser currentUser,
+            HttpServletResponse response) throws IOException {
+        try {
+            Long userId = currentUser.id();
+
+            projectService.getAccessibleProject(id, userId);
+        } catch (RuntimeException e) {
+            if ("Project not found".equals(e.getMessage())) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+            } else if ("Access denied".equals(e.getMessage())) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, e.getMessage());
+            }
+            throw e;
+        }
+
+        TaskAttachmentController.writeArchiveHeaders(response, "project-" + id + "-attachments.zip");
+        attachmentArchiveService.writeProjectArchive(id, response.getOutputStream());
+    }
+
     @GetMapping("/stats")
     @Operation(summary = "Get User Statistics", description = "Retrieve comprehensive statistics about user's projects and tasks")
     @ApiResponses(value = {
@@ -216,11 +249,10 @@ public class ProjectController {
                 content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<Map<String, Object>> getUserStats(
-            @Parameter(description = "JWT Bearer token for authentication", required = true, example = "Bearer eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
-            @RequestHeader("Authorization") String token) {
+            @Parameter(hidden = true)
+            @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7); // Remove "Bearer " prefix
-            Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
+            Long userId = currentUser.id();
 
             Map<String, Object> stats = new HashMap<>();
             stats.put("totalProjects", projectService.getProjectCount(userId));
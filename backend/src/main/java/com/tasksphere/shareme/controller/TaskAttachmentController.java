@@ -1,15 +1,17 @@
 package com.tasksphere.shareme.controller;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,10 +21,19 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.tasksphere.shareme.dto.SignedUrlResponse;
 import com.tasksphere.shareme.dto.TaskAttachmentResponse;
+import com.tasksphere.shareme.entity.TaskAttachment;
 import com.tasksphere.shareme.entity.User;
+import com.tasksphere.shareme.exception.ResourceNotFoundException;
+import com.tasksphere.shareme.security.CurrentUser;
+import com.tasksphere.shareme.service.AttachmentArchiveService;
+import com.tasksphere.shareme.service.AttachmentContentCache;
+import com.tasksphere.shareme.service.AttachmentContentCache.CachedContent;
 import com.tasksphere.shareme.service.TaskAttachmentService;
+import com.tasksphere.shareme.util.RangeResponseWriter;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -30,6 +41,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -41,21 +54,26 @@ public class TaskAttachmentController {
     @Autowired
     private TaskAttachmentService taskAttachmentService;
 
+    @Autowired
+    private AttachmentArchiveService attachmentArchiveService;
+
     @PostMapping("/{taskId}/attachments")
     @Operation(summary = "Upload files to a task", description = "Upload one or more files as attachments to a task")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Files uploaded successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid file or request"),
         @ApiResponse(responseCode = "404", description = "Task not found"),
-        @ApiResponse(responseCode = "413", description = "File too large")
+        @ApiResponse(responseCode = "413", description = "File too large or storage quota exceeded")
     })
     public ResponseEntity<List<TaskAttachmentResponse>> uploadFiles(
             @Parameter(description = "Task ID") @PathVariable Long taskId,
             @Parameter(description = "Files to upload") @RequestParam("files") List<MultipartFile> files,
-            @AuthenticationPrincipal User user) {
+            @Parameter(hidden = true) @CurrentUser User user) {
         try {
             List<TaskAttachmentResponse> responses = taskAttachmentService.uploadFiles(taskId, files, user);
             return ResponseEntity.status(HttpStatus.CREATED).body(responses);
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -67,12 +85,12 @@ public class TaskAttachmentController {
         @ApiResponse(responseCode = "201", description = "File uploaded successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid file or request"),
         @ApiResponse(responseCode = "404", description = "Task not found"),
-        @ApiResponse(responseCode = "413", description = "File too large")
+        @ApiResponse(responseCode = "413", description = "File too large or storage quota exceeded")
     })
     public ResponseEntity<TaskAttachmentResponse> uploadSingleFile(
             @Parameter(description = "Task ID") @PathVariable Long taskId,
             @Parameter(description = "File to upload") @RequestParam("file") MultipartFile file,
-            @AuthenticationPrincipal User user) {
+            @Parameter(hidden = true) @CurrentUser User user) {
         try {
             // Create a task to get the task object, then upload the file
             // This is a simplified approach - in a real app you'd fetch the task first
@@ -84,6 +102,8 @@ public class TaskAttachmentController {
             } else {
                 return ResponseEntity.badRequest().build();
             }
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -105,29 +125,130 @@ public class TaskAttachmentController {
         }
     }
 
+    @GetMapping("/{taskId}/attachments/archive")
+    @Operation(summary = "Download all task attachments", description = "Stream all attachments of a task as a ZIP archive built on the fly. Already-compressed formats are stored without recompression.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "ZIP archive streamed"),
+        @ApiResponse(responseCode = "404", description = "Task not found")
+    })
+    public void downloadTaskArchive(
+            @Parameter(description = "Task ID") @PathVariable Long taskId,
+            HttpServletResponse response) throws IOException {
+        try {
+            attachmentArchiveService.requireTask(taskId);
+        } catch (ResourceNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+
+        writeArchiveHeaders(response, "task-" + taskId + "-attachments.zip");
+        attachmentArchiveService.writeTaskArchive(taskId, response.getOutputStream());
+    }
+
+    /**
+     * Archives are generated per request, so no length is known up front and nothing is cached
+     */
+    static void writeArchiveHeaders(HttpServletResponse response, String filename) {
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(filename).build().toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+    }
+
     @GetMapping("/attachments/{attachmentId}/download")
-    @Operation(summary = "Download attachment", description = "Download a specific attachment file")
+    @Operation(summary = "Download attachment", description = "Download a specific attachment file. Supports Range and If-Range requests for partial downloads and seeking, and conditional requests; files are immutable and cacheable for a year.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "File downloaded successfully"),
+        @ApiResponse(responseCode = "206", description = "Requested byte ranges returned"),
+        @ApiResponse(responseCode = "302", description = "Redirect to the object store when files are stored there"),
+        @ApiResponse(responseCode = "304", description = "Cached copy is still valid (If-None-Match / If-Modified-Since)"),
         @ApiResponse(responseCode = "404", description = "Attachment not found"),
+        @ApiResponse(responseCode = "416", description = "Requested range not satisfiable"),
         @ApiResponse(responseCode = "500", description = "Error downloading file")
     })
-    public ResponseEntity<Resource> downloadAttachment(
+    public void downloadAttachment(
+            @Parameter(description = "Attachment ID") @PathVariable Long attachmentId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        TaskAttachment attachment;
+        Path file;
+        try {
+            attachment = taskAttachmentService.getAttachment(attachmentId);
+            Optional<URI> directUrl = taskAttachmentService.getDirectDownloadUrl(attachment);
+            if (directUrl.isPresent()) {
+                // The object store serves the bytes (and ranges) itself
+                response.sendRedirect(directUrl.get().toString());
+                return;
+            }
+            file = taskAttachmentService.getStoredFile(attachment);
+        } catch (ResourceNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+
+        String etag = taskAttachmentService.getEntityTag(attachment);
+        Optional<CachedContent> cached = taskAttachmentService.getCachedContent(attachment, file);
+        if (cached.isPresent()) {
+            RangeResponseWriter.write(request, response, cached.get().content(), cached.get().lastModified(),
+                attachment.getContentType(), attachment.getOriginalFilename(), etag);
+            return;
+        }
+        RangeResponseWriter.write(request, response, file, attachment.getContentType(),
+            attachment.getOriginalFilename(), etag);
+    }
+
+    @GetMapping("/attachments/cache/stats")
+    @Operation(summary = "Get download cache statistics", description = "Admin only: hit rate, entry count and memory use of the in-memory cache for small, frequently downloaded attachments")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully"),
+        @ApiResponse(responseCode = "403", description = "Admin role required")
+    })
+    public ResponseEntity<AttachmentContentCache.CacheStats> getContentCacheStats(
+            @Parameter(hidden = true) @CurrentUser User user) {
+        return ResponseEntity.ok(taskAttachmentService.getContentCacheStats(user));
+    }
+
+    @GetMapping("/attachments/{attachmentId}/download-url")
+    @Operation(summary = "Get signed download URL", description = "Get a short-lived signed URL that downloads the attachment without an Authorization header. Responses from it are cacheable and skip the database.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Signed URL created"),
+        @ApiResponse(responseCode = "404", description = "Attachment not found or not yet available for signed download")
+    })
+    public ResponseEntity<SignedUrlResponse> getSignedDownloadUrl(
             @Parameter(description = "Attachment ID") @PathVariable Long attachmentId) {
         try {
-            Resource resource = taskAttachmentService.downloadFile(attachmentId);
-            
-            // Try to determine file's content type
-            String contentType = "application/octet-stream";
-            
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, 
-                           "attachment; filename=\"" + resource.getFilename() + "\"")
-                    .body(resource);
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
+            TaskAttachment attachment = taskAttachmentService.getAttachment(attachmentId);
+            return ResponseEntity.ok(taskAttachmentService.getSignedDownloadUrl(attachment));
+        } catch (ResourceNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    @GetMapping("/attachments/{attachmentId}/thumbnail")
+    @Operation(summary = "Get attachment thumbnail", description = "Get the PNG thumbnail of an image attachment. Thumbnails are generated in the background after upload.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Thumbnail returned"),
+        @ApiResponse(responseCode = "302", description = "Redirect to the object store when files are stored there"),
+        @ApiResponse(responseCode = "404", description = "Attachment not found or thumbnail not generated yet")
+    })
+    public void getAttachmentThumbnail(
+            @Parameter(description = "Attachment ID") @PathVariable Long attachmentId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        TaskAttachment attachment;
+        Path thumbnail;
+        try {
+            attachment = taskAttachmentService.getAttachment(attachmentId);
+            Optional<URI> directUrl = taskAttachmentService.getDirectThumbnailUrl(attachment);
+            if (directUrl.isPresent()) {
+                response.sendRedirect(directUrl.get().toString());
+                return;
+            }
+            thumbnail = taskAttachmentService.getThumbnailFile(attachment);
+        } catch (ResourceNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
         }
+
+        RangeResponseWriter.write(request, response, thumbnail, "image/png",
+            "thumbnail-" + attachment.getId() + ".png", "\"" + attachment.getContentHash() + "-thumb\"");
     }
 
     @DeleteMapping("/attachments/{attachmentId}")
@@ -139,7 +260,7 @@ public class TaskAttachmentController {
     })
     public ResponseEntity<Void> deleteAttachment(
             @Parameter(description = "Attachment ID") @PathVariable Long attachmentId,
-            @AuthenticationPrincipal User user) {
+            @Parameter(hidden = true) @CurrentUser User user) {
         try {
             taskAttachmentService.deleteAttachment(attachmentId, user);
             return ResponseEntity.noContent().build();
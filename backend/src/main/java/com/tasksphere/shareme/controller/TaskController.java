@@ -16,7 +16,6 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -25,7 +24,8 @@ import com.tasksphere.shareme.dto.ErrorResponse;
 import com.tasksphere.shareme.dto.TaskRequest;
 import com.tasksphere.shareme.dto.TaskResponse;
 import com.tasksphere.shareme.dto.TaskSearchRequest;
-import com.tasksphere.shareme.security.JwtTokenProvider;
+import com.tasksphere.shareme.security.AuthenticatedUser;
+import com.tasksphere.shareme.security.CurrentUser;
 import com.tasksphere.shareme.service.TaskService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -49,9 +49,6 @@ public class TaskController {
     @Autowired
     private TaskService taskService;
     
-    @Autowired
-    private JwtTokenProvider jwtTokenProvider;
-    
     @GetMapping
     @Operation(summary = "Get Tasks with Search and Filtering", 
               description = "Retrieve tasks accessible by the user with advanced search, filtering, and pagination capabilities")
@@ -94,12 +91,11 @@ public class TaskController {
             @Parameter(description = "Page size", example = "20")
             @RequestParam(defaultValue = "20") int size,
             
-            @Parameter(description = "JWT Bearer token for authentication", required = true)
-            @RequestHeader("Authorization") String token) {
+            @Parameter(hidden = true)
+            @CurrentUser AuthenticatedUser currentUser) {
         
         try {
-            String jwt = token.substring(7); // Remove "Bearer " prefix
-            Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
+            Long userId = currentUser.id();
             
             TaskSearchRequest searchRequest = new TaskSearchRequest(
                 query, status, priority, projectId, assigneeId, creatorId,
@@ -132,12 +128,11 @@ public class TaskController {
             @Parameter(description = "Task ID to retrieve", required = true, example = "1")
             @PathVariable Long id,
             
-            @Parameter(description = "JWT Bearer token for authentication", required = true)
-            @RequestHeader("Authorization") String token) {
+            @Parameter(hidden = true)
+            @CurrentUser AuthenticatedUser currentUser) {
         
         try {
-            String jwt = token.substring(7); // Remove "Bearer " prefix
-            Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
+            Long userId = currentUser.id();
             
             TaskResponse task = taskService.getTaskById(id, userId);
             return ResponseEntity.ok(task);
@@ -167,12 +162,11 @@ public class TaskController {
             @Parameter(description = "Task creation data", required = true)
             @Valid @RequestBody TaskRequest taskRequest,
             
-            @Parameter(description = "JWT Bearer token for authentication", required = true)
-            @RequestHeader("Authorization") String token) {
+            @Parameter(hidden = true)
+            @CurrentUser AuthenticatedUser currentUser) {
         
         try {
-            String jwt = token.substring(7); // Remove "Bearer " prefix
-            Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
+            Long userId = currentUser.id();
             
             TaskResponse createdTask = taskService.createTask(taskRequest, userId);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdTask);
@@ -205,12 +199,11 @@ public class TaskController {
             @Parameter(description = "Updated task data", required = true)
             @Valid @RequestBody TaskRequest taskRequest,
             
-            @Parameter(description = "JWT Bearer token for authentication", required = true)
-            @RequestHeader("Authorization") String token) {
+            @Parameter(hidden = true)
+            @CurrentUser AuthenticatedUser currentUser) {
         
         try {
-            String jwt = token.substring(7); // Remove "Bearer " prefix
-            Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
+            Long userId = currentUser.id();
             
             TaskResponse updatedTask = taskService.updateTask(id, taskRequest, userId);
             return ResponseEntity.ok(updatedTask);
@@ -243,12 +236,11 @@ public class TaskController {
             @Parameter(description = "New task status", required = true)
             @RequestBody Map<String, String> statusUpdate,
             
-            @Parameter(description = "JWT Bearer token for authentication", required = true)
-            @RequestHeader("Authorization") String token) {
+            @Parameter(hidden = true)
+            @CurrentUser AuthenticatedUser currentUser) {
         
         try {
-            String jwt = token.substring(7); // Remove "Bearer " prefix
-            Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
+            Long userId = currentUser.id();
             
             String status = statusUpdate.get("status");
             if (status == null || status.trim().isEmpty()) {
@@ -294,12 +286,11 @@ public class TaskController {
             @Parameter(description = "Task ID to delete", required = true, example = "1")
             @PathVariable Long id,
             
-            @Parameter(description = "JWT Bearer token for authentication", required = true)
-            @RequestHeader("Authorization") String token) {
+            @Parameter(hidden = true)
+            @CurrentUser AuthenticatedUser currentUser) {
         
         try {
-            String jwt = token.substring(7); // Remove "Bearer " prefix
-            Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
+            Long userId = currentUser.id();
             
             taskService.deleteTask(id, userId);
             return ResponseEntity.noContent().build();
@@ -319,12 +310,11 @@ public class TaskController {
                 content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<Map<String, Object>> getTaskStats(
-            @Parameter(description = "JWT Bearer token for authentication", required = true)
-            @RequestHeader("Authorization") String token) {
+            @Parameter(hidden = true)
+            @CurrentUser AuthenticatedUser currentUser) {
         
         try {
-            String jwt = token.substring(7); // Remove "Bearer " prefix
-            Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
+            Long userId = currentUser.id();
             
             // Get quick stats for dashboard
             TaskSearchRequest allTasks = new TaskSearchRequest();
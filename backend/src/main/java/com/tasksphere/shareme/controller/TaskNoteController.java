@@ -5,6 +5,7 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,11 +13,16 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.tasksphere.shareme.dto.NoteSearchResponse;
 import com.tasksphere.shareme.dto.TaskNoteRequest;
 import com.tasksphere.shareme.dto.TaskNoteResponse;
 import com.tasksphere.shareme.dto.ErrorResponse;
+import com.tasksphere.shareme.security.AuthenticatedUser;
+import com.tasksphere.shareme.security.CurrentUser;
 import com.tasksphere.shareme.service.TaskNoteService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -27,7 +33,6 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -57,13 +62,13 @@ public class TaskNoteController {
     public ResponseEntity<TaskNoteResponse> getTaskNote(
             @Parameter(description = "Task ID to retrieve the note for", required = true, example = "1") 
             @PathVariable Long taskId,
-            HttpServletRequest request) {
+            @Parameter(hidden = true) @CurrentUser(required = false) AuthenticatedUser currentUser) {
         
-        Long userId = (Long) request.getAttribute("userId");
+        Long userId = currentUser != null ? currentUser.id() : null;
         logger.info("Getting task note for user {} and task {}", userId, taskId);
         
         if (userId == null) {
-            logger.error("User ID is null in request attributes");
+            logger.error("No authenticated user for task note request");
             return ResponseEntity.status(401).build();
         }
         
@@ -96,9 +101,9 @@ public class TaskNoteController {
     @PostMapping
     public ResponseEntity<TaskNoteResponse> saveTaskNote(
             @Valid @RequestBody TaskNoteRequest request,
-            HttpServletRequest httpRequest) {
+            @Parameter(hidden = true) @CurrentUser(required = false) AuthenticatedUser currentUser) {
         
-        Long userId = (Long) httpRequest.getAttribute("userId");
+        Long userId = currentUser != null ? currentUser.id() : null;
         
         // For testing purposes, use a default user ID if not authenticated
         if (userId == null) {
@@ -128,9 +133,9 @@ public class TaskNoteController {
     @DeleteMapping("/task/{taskId}")
     public ResponseEntity<Void> deleteTaskNote(
             @Parameter(description = "Task ID") @PathVariable Long taskId,
-            HttpServletRequest request) {
+            @Parameter(hidden = true) @CurrentUser(required = false) AuthenticatedUser currentUser) {
         
-        Long userId = (Long) request.getAttribute("userId");
+        Long userId = currentUser != null ? currentUser.id() : null;
         logger.info("Deleting task note for user {} and task {}", userId, taskId);
         
         taskNoteService.deleteTaskNote(userId, taskId);
@@ -144,8 +149,8 @@ public class TaskNoteController {
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @GetMapping
-    public ResponseEntity<List<TaskNoteResponse>> getUserTaskNotes(HttpServletRequest request) {
-        Long userId = (Long) request.getAttribute("userId");
+    public ResponseEntity<List<TaskNoteResponse>> getUserTaskNotes(@Parameter(hidden = true) @CurrentUser(required = false) AuthenticatedUser currentUser) {
+        Long userId = currentUser != null ? currentUser.id() : null;
         
         // For testing purposes, use a default user ID if not authenticated
         if (userId == null) {
@@ -168,9 +173,9 @@ public class TaskNoteController {
     @GetMapping("/tag/{tag}")
     public ResponseEntity<List<TaskNoteResponse>> getTaskNotesByTag(
             @Parameter(description = "Reminder tag") @PathVariable String tag,
-            HttpServletRequest request) {
+            @Parameter(hidden = true) @CurrentUser(required = false) AuthenticatedUser currentUser) {
         
-        Long userId = (Long) request.getAttribute("userId");
+        Long userId = currentUser != null ? currentUser.id() : null;
         logger.info("Getting task notes for user {} with tag {}", userId, tag);
         
         List<TaskNoteResponse> notes = taskNoteService.getUserTaskNotesByTag(userId, tag);
@@ -184,8 +189,8 @@ public class TaskNoteController {
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @GetMapping("/tags")
-    public ResponseEntity<List<String>> getUserTags(HttpServletRequest request) {
-        Long userId = (Long) request.getAttribute("userId");
+    public ResponseEntity<List<String>> getUserTags(@Parameter(hidden = true) @CurrentUser(required = false) AuthenticatedUser currentUser) {
+        Long userId = currentUser != null ? currentUser.id() : null;
         
         // For testing purposes, use a default user ID if not authenticated
         if (userId == null) {
@@ -199,6 +204,40 @@ public class TaskNoteController {
         return ResponseEntity.ok(tags);
     }
     
+    @Operation(summary = "Search personal task notes", 
+               description = "Find notes whose name or content contains a word starting with each query word, "
+                   + "best matches first, with the number of matching notes per reminder tag")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Search completed successfully",
+                content = @Content(schema = @Schema(implementation = NoteSearchResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Missing query",
+                content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<NoteSearchResponse> searchTaskNotes(
+            @Parameter(description = "Words or word prefixes, all of which must match", required = true, example = "meet")
+            @RequestParam String q,
+            @Parameter(description = "Only return notes with this reminder tag")
+            @RequestParam(required = false) String tag,
+            @Parameter(description = "Maximum number of notes returned (1-200)")
+            @RequestParam(defaultValue = "50") int limit,
+            @Parameter(hidden = true) @CurrentUser(required = false) AuthenticatedUser currentUser) {
+        
+        Long userId = currentUser != null ? currentUser.id() : null;
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        if (q.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query must not be blank");
+        }
+        
+        logger.info("Searching task notes for user {}", userId);
+        
+        NoteSearchResponse response = taskNoteService.searchTaskNotes(userId, q, tag, Math.max(1, Math.min(limit, 200)));
+        return ResponseEntity.ok(response);
+    }
+    
     @Operation(summary = "Check if task has note", 
                description = "Check if the current user has a personal note for a specific task")
     @ApiResponses(value = {
@@ -208,9 +247,9 @@ public class TaskNoteController {
     @GetMapping("/task/{taskId}/exists")
     public ResponseEntity<Boolean> hasTaskNote(
             @Parameter(description = "Task ID") @PathVariable Long taskId,
-            HttpServletRequest request) {
+            @Parameter(hidden = true) @CurrentUser(required = false) AuthenticatedUser currentUser) {
         
-        Long userId = (Long) request.getAttribute("userId");
+        Long userId = currentUser != null ? currentUser.id() : null;
         logger.debug("Checking if user {} has note for task {}", userId, taskId);
         
         boolean hasNote = taskNoteService.hasTaskNote(userId, taskId);
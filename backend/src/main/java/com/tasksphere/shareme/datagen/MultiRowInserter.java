@@ -0,0 +1,86 @@
+package com.tasksphere.shareme.datagen;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffers rows and writes them as multi-row INSERT statements
+ * ({@code INSERT ... VALUES (...), (...), ...}), which MySQL ingests far
+ * faster than one statement per row.
+ */
+final class MultiRowInserter {
+
+    private final Connection connection;
+    private final String insertPrefix;
+    private final String rowPlaceholder;
+    private final int columnCount;
+    private final int rowsPerStatement;
+    private final List<Object> values = new ArrayList<>();
+    private PreparedStatement fullBatchStatement;
+    private long rowsWritten;
+
+    MultiRowInserter(Connection connection, String table, String[] columns, int rowsPerStatement) {
+        this.connection = connection;
+        this.insertPrefix = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ";
+        this.rowPlaceholder = "(" + "?, ".repeat(columns.length - 1) + "?)";
+        this.columnCount = columns.length;
+        this.rowsPerStatement = rowsPerStatement;
+    }
+
+    void addRow(Object... row) throws SQLException {
+        if (row.length != columnCount) {
+            throw new IllegalArgumentException("Expected " + columnCount + " values but got " + row.length);
+        }
+        for (Object value : row) {
+            values.add(value);
+        }
+        if (values.size() == columnCount * rowsPerStatement) {
+            if (fullBatchStatement == null) {
+                fullBatchStatement = connection.prepareStatement(sql(rowsPerStatement));
+            }
+            execute(fullBatchStatement);
+        }
+    }
+
+    /**
+     * Write any buffered rows and release statements
+     */
+    long finish() throws SQLException {
+        try {
+            if (!values.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(sql(values.size() / columnCount))) {
+                    execute(statement);
+                }
+            }
+        } finally {
+            if (fullBatchStatement != null) {
+                fullBatchStatement.close();
+            }
+        }
+        return rowsWritten;
+    }
+
+    private void execute(PreparedStatement statement) throws SQLException {
+        for (int i = 0; i < values.size(); i++) {
+            statement.setObject(i + 1, values.get(i));
+        }
+        statement.executeUpdate();
+        rowsWritten += values.size() / columnCount;
+        values.clear();
+    }
+
+    private String sql(int rows) {
+        StringBuilder sql = new StringBuilder(insertPrefix.length() + rows * (rowPlaceholder.length() + 2));
+        sql.append(insertPrefix);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(rowPlaceholder);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,31 @@
+package com.tasksphere.shareme.datagen;
+
+import java.util.SplittableRandom;
+
+/**
+ * Samples ranks 0..n-1 from a bounded power-law (Zipf-like) distribution
+ * using the inverse CDF of the continuous approximation, so no per-item
+ * table is needed even for millions of items. Rank 0 is the most popular.
+ */
+final class PowerLawSampler {
+
+    private final int n;
+    private final double exponent;
+    private final double scale;
+
+    PowerLawSampler(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Sampler needs at least one item");
+        }
+        this.n = n;
+        // Exponent 1 has a different closed form; nudge it to keep a single code path
+        this.exponent = Math.abs(exponent - 1.0) < 1e-9 ? 1.0 + 1e-6 : exponent;
+        this.scale = Math.pow(n + 1, 1.0 - this.exponent) - 1.0;
+    }
+
+    int sample(SplittableRandom random) {
+        double x = Math.pow(scale * random.nextDouble() + 1.0, 1.0 / (1.0 - exponent));
+        int rank = (int) x - 1;
+        return Math.min(Math.max(rank, 0), n - 1);
+    }
+}
@@ -0,0 +1,547 @@
+package com.tasksphere.shareme.datagen;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tasksphere.shareme.service.AttachmentBlobStore;
+import com.tasksphere.shareme.service.AttachmentUsageService;
+import com.tasksphere.shareme.util.FileChecksums;
+
+/**
+ * Fills the database with a large, skewed, reproducible dataset so
+ * production-scale slowness can be reproduced locally.
+ *
+ * Every row is derived from the seed and its own index (or its chunk index),
+ * never from shared mutable state, so chunks run in parallel and the same
+ * seed always produces the same data. New ids start after the current
+ * MAX(id) of each table, which keeps existing rows untouched.
+ *
+ * Run with the "datagen" profile, see application-datagen.properties.
+ */
+@Component
+@ConditionalOnProperty(name = "app.datagen.enabled", havingValue = "true")
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final long SPAN_SECONDS = 2L * 365 * 24 * 3600;
+
+    // Salts keep the random streams of different entities independent
+    private static final long SALT_USERS = 1;
+    private static final long SALT_PROJECTS = 2;
+    private static final long SALT_PROJECT_SHAPE = 3;
+    private static final long SALT_TASKS = 4;
+    private static final long SALT_TASK_PROJECT = 5;
+    private static final long SALT_NOTES = 6;
+    private static final long SALT_ATTACHMENTS = 7;
+
+    private static final String[] FIRST_NAMES = {
+        "Alex", "Sam", "Jordan", "Taylor", "Morgan", "Casey", "Riley", "Jamie", "Avery", "Quinn",
+        "Priya", "Wei", "Fatima", "Mateo", "Sofia", "Yuki", "Omar", "Elena", "Kwame", "Ingrid"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Smith", "Garcia", "Chen", "Patel", "Kim", "Nguyen", "Okafor", "Silva", "Novak", "Larsen",
+        "Haddad", "Rossi", "Tanaka", "Kowalski", "Murphy", "Ivanova", "Mensah", "Lopez", "Singh", "Berg"
+    };
+
+    private static final String[] TASK_STATUSES = {"TODO", "IN_PROGRESS", "COMPLETED", "CANCELLED"};
+    private static final double[] TASK_STATUS_WEIGHTS = {0.35, 0.25, 0.35, 0.05};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "URGENT"};
+    private static final double[] PRIORITY_WEIGHTS = {0.25, 0.45, 0.22, 0.08};
+    private static final String[] PROJECT_STATUSES = {"ACTIVE", "COMPLETED", "ON_HOLD", "ARCHIVED"};
+    private static final double[] PROJECT_STATUS_WEIGHTS = {0.6, 0.2, 0.1, 0.1};
+
+    private static final String[][] FILE_TYPES = {
+        {"pdf", "application/pdf"},
+        {"png", "image/png"},
+        {"jpg", "image/jpeg"},
+        {"docx", "application/vnd.openxmlformats-officedocument.wordprocessingml.document"},
+        {"xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"},
+        {"txt", "text/plain"},
+        {"zip", "application/zip"}
+    };
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private AttachmentUsageService attachmentUsageService;
+
+    @Autowired
+    private AttachmentBlobStore attachmentBlobStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.datagen.seed:42}")
+    private long seed;
+
+    @Value("${app.datagen.users:20000}")
+    private int userCount;
+
+    @Value("${app.datagen.projects:50000}")
+    private int projectCount;
+
+    @Value("${app.datagen.tasks:2000000}")
+    private int taskCount;
+
+    @Value("${app.datagen.notes:500000}")
+    private int noteCount;
+
+    @Value("${app.datagen.attachments:200000}")
+    private int attachmentCount;
+
+    @Value("${app.datagen.max-members-per-project:40}")
+    private int maxMembersPerProject;
+
+    @Value("${app.datagen.skew:1.2}")
+    private double skew;
+
+    @Value("${app.datagen.rows-per-statement:500}")
+    private int rowsPerStatement;
+
+    @Value("${app.datagen.chunk-rows:10000}")
+    private int chunkRows;
+
+    @Value("${app.datagen.threads:4}")
+    private int threads;
+
+    @Value("${app.datagen.write-files:true}")
+    private boolean writeFiles;
+
+    @Value("${app.datagen.max-attachment-bytes:1048576}")
+    private int maxAttachmentBytes;
+
+    @Value("${app.datagen.password:password123}")
+    private String password;
+
+    @Value("${app.datagen.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    private long userBase;
+    private long projectBase;
+    private long taskBase;
+    private long noteBase;
+    private long attachmentBase;
+    private String passwordHash;
+    private TransactionTemplate transactionTemplate;
+    private PowerLawSampler userSampler;
+    private PowerLawSampler projectSampler;
+    private PowerLawSampler taskSampler;
+    private PowerLawSampler memberCountSampler;
+    private PowerLawSampler tagSampler;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (userCount <= 0 || projectCount <= 0 || taskCount <= 0) {
+            throw new IllegalStateException("app.datagen.users, projects and tasks must be positive");
+        }
+
+        userBase = maxId("users");
+        projectBase = maxId("projects");
+        taskBase = maxId("tasks");
+        noteBase = maxId("task_notes");
+        attachmentBase = maxId("task_attachments");
+        // One hash for everyone: BCrypt per row would dominate the run time
+        passwordHash = passwordEncoder.encode(password);
+
+        userSampler = new PowerLawSampler(userCount, skew);
+        projectSampler = new PowerLawSampler(projectCount, skew);
+        taskSampler = new PowerLawSampler(taskCount, skew);
+        memberCountSampler = new PowerLawSampler(Math.max(1, maxMembersPerProject), skew);
+        tagSampler = new PowerLawSampler(TextGenerator.TAGS.length, skew);
+
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        logger.info("Generating dataset with seed {}: {} users, {} projects, {} tasks, {} notes, {} attachments on {} threads",
+            seed, userCount, projectCount, taskCount, noteCount, attachmentCount, threads);
+
+        long started = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            runStage(executor, "users", userCount, this::insertUsers);
+            runStage(executor, "projects", projectCount, this::insertProjects);
+            runStage(executor, "tasks", taskCount, this::insertTasks);
+            runStage(executor, "task_notes", noteCount, this::insertNotes);
+            runStage(executor, "task_attachments", attachmentCount, this::insertAttachments);
+        } finally {
+            executor.shutdownNow();
+        }
+        // The bulk inserts bypass the usage counters
+        if (attachmentCount > 0) {
+            attachmentUsageService.rebuild();
+        }
+        logger.info("Dataset generated in {} s", (System.nanoTime() - started) / 1_000_000_000L);
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        long write(Connection connection, int from, int to) throws SQLException, IOException;
+    }
+
+    /**
+     * Split [0, total) into chunks and write each one in its own transaction
+     */
+    private void runStage(ExecutorService executor, String name, int total, ChunkWriter writer) throws Exception {
+        if (total <= 0) {
+            return;
+        }
+        long started = System.nanoTime();
+        AtomicLong rows = new AtomicLong();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < total; from += chunkRows) {
+            int chunkFrom = from;
+            int chunkTo = Math.min(total, from + chunkRows);
+            futures.add(executor.submit(() -> {
+                rows.addAndGet(writeChunk(writer, chunkFrom, chunkTo));
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = Math.max(1e-9, (System.nanoTime() - started) / 1e9);
+        logger.info("Inserted {} rows for {} in {} s ({} rows/s)",
+            rows.get(), name, String.format("%.1f", seconds), Math.round(rows.get() / seconds));
+    }
+
+    private long writeChunk(ChunkWriter writer, int from, int to) throws SQLException, IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                // Every id is computed up front, so skip per-row constraint checks for speed
+                statement.execute("SET foreign_key_checks = 0, unique_checks = 0");
+            }
+            try {
+                long written = writer.write(connection, from, to);
+                connection.commit();
+                return written;
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                // The connection goes back to the pool, so restore the session state
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET foreign_key_checks = 1, unique_checks = 1");
+                }
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private long insertUsers(Connection connection, int from, int to) throws SQLException {
+        SplittableRandom random = random(SALT_USERS, from);
+        MultiRowInserter users = new MultiRowInserter(connection, "users",
+            new String[] {"id", "first_name", "last_name", "email", "password_hash", "role", "created_at"},
+            rowsPerStatement);
+        for (int i = from; i < to; i++) {
+            long id = userBase + 1 + i;
+            users.addRow(id,
+                FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                "datagen." + id + "@example.com",
+                passwordHash,
+                random.nextInt(50) == 0 ? "ADMIN" : "MEMBER",
+                timestamp(random));
+        }
+        return users.finish();
+    }
+
+    private long insertProjects(Connection connection, int from, int to) throws SQLException {
+        SplittableRandom random = random(SALT_PROJECTS, from);
+        MultiRowInserter projects = new MultiRowInserter(connection, "projects",
+            new String[] {"id", "name", "description", "status", "owner_id", "created_at", "updated_at", "deadline"},
+            rowsPerStatement);
+        MultiRowInserter members = new MultiRowInserter(connection, "project_members",
+            new String[] {"project_id", "user_id"}, rowsPerStatement);
+        for (int p = from; p < to; p++) {
+            long id = projectBase + 1 + p;
+            LocalDateTime createdAt = dateTime(random);
+            projects.addRow(id,
+                capitalize(TextGenerator.words(random, 2 + random.nextInt(3))),
+                TextGenerator.words(random, TextGenerator.logNormalLength(random, 40, 400)),
+                pick(random, PROJECT_STATUSES, PROJECT_STATUS_WEIGHTS),
+                projectOwner(p),
+                Timestamp.valueOf(createdAt),
+                Timestamp.valueOf(createdAt.plusDays(random.nextInt(120))),
+                random.nextInt(3) == 0 ? null : Timestamp.valueOf(createdAt.plusDays(30 + random.nextInt(300))));
+            for (long member : projectMembers(p)) {
+                members.addRow(id, member);
+            }
+        }
+        return projects.finish() + members.finish();
+    }
+
+    private long insertTasks(Connection connection, int from, int to) throws SQLException {
+        SplittableRandom random = random(SALT_TASKS, from);
+        MultiRowInserter tasks = new MultiRowInserter(connection, "tasks",
+            new String[] {"id", "title", "description", "status", "priority", "project_id", "assignee_id",
+                "creator_id", "created_at", "updated_at", "due_date"},
+            rowsPerStatement);
+        for (int t = from; t < to; t++) {
+            int project = taskProject(t);
+            Long assignee = random.nextInt(10) == 0 ? null : projectParticipant(project, random);
+            LocalDateTime createdAt = dateTime(random);
+            tasks.addRow(taskBase + 1 + t,
+                capitalize(TextGenerator.words(random, 3 + random.nextInt(6))),
+                TextGenerator.words(random, TextGenerator.logNormalLength(random, 60, 2000)),
+                pick(random, TASK_STATUSES, TASK_STATUS_WEIGHTS),
+                pick(random, PRIORITIES, PRIORITY_WEIGHTS),
+                projectBase + 1 + project,
+                assignee,
+                projectOwner(project),
+                Timestamp.valueOf(createdAt),
+                Timestamp.valueOf(createdAt.plusHours(random.nextInt(24 * 60))),
+                random.nextInt(4) == 0 ? null : Timestamp.valueOf(createdAt.plusDays(1 + random.nextInt(90))));
+        }
+        return tasks.finish();
+    }
+
+    private long insertNotes(Connection connection, int from, int to) throws SQLException {
+        SplittableRandom random = random(SALT_NOTES, from);
+        MultiRowInserter notes = new MultiRowInserter(connection, "task_notes",
+            new String[] {"id", "user_id", "task_id", "note_name", "note_content", "created_at", "updated_at"},
+            rowsPerStatement);
+        MultiRowInserter tags = new MultiRowInserter(connection, "task_note_tags",
+            new String[] {"task_note_id", "tag"}, rowsPerStatement);
+        for (int n = from; n < to; n++) {
+            long id = noteBase + 1 + n;
+            Long taskId = null;
+            long userId;
+            if (random.nextInt(5) == 0) {
+                // Standalone note
+                userId = userBase + 1 + userSampler.sample(random);
+            } else {
+                int task = taskSampler.sample(random);
+                taskId = taskBase + 1 + task;
+                userId = projectParticipant(taskProject(task), random);
+            }
+            LocalDateTime createdAt = dateTime(random);
+            notes.addRow(id, userId, taskId,
+                capitalize(TextGenerator.words(random, 2 + random.nextInt(4))),
+                TextGenerator.words(random, TextGenerator.logNormalLength(random, 80, 3000)),
+                Timestamp.valueOf(createdAt),
+                Timestamp.valueOf(createdAt.plusMinutes(random.nextInt(60 * 24 * 30))));
+
+            Set<String> noteTags = new LinkedHashSet<>();
+            int tagCount = random.nextInt(5);
+            for (int i = 0; i < tagCount; i++) {
+                noteTags.add(TextGenerator.TAGS[tagSampler.sample(random)]);
+            }
+            for (String tag : noteTags) {
+                tags.addRow(id, tag);
+            }
+        }
+        return notes.finish() + tags.finish();
+    }
+
+    private record GeneratedBlob(String contentHash, Path stagedPath, long size) {}
+
+    /**
+     * Attachments are content-addressed like real uploads: each file is generated into
+     * staging, hashed, and stored through AttachmentBlobStore, which writes the sharded
+     * blob and its attachment_blobs row. The blob references commit in their own
+     * transaction before the chunk; if the chunk then fails, the reconciler repairs
+     * the counts.
+     */
+    private long insertAttachments(Connection connection, int from, int to) throws SQLException, IOException {
+        SplittableRandom random = random(SALT_ATTACHMENTS, from);
+        MultiRowInserter attachments = new MultiRowInserter(connection, "task_attachments",
+            new String[] {"id", "task_id", "original_filename", "stored_filename", "file_path", "file_size",
+                "content_type", "content_hash", "uploaded_by", "uploaded_at"},
+            rowsPerStatement);
+        byte[] buffer = new byte[8192];
+        List<Object[]> rows = new ArrayList<>();
+        List<GeneratedBlob> blobs = new ArrayList<>();
+        try {
+            for (int a = from; a < to; a++) {
+                int task = taskSampler.sample(random);
+                String[] type = FILE_TYPES[random.nextInt(FILE_TYPES.length)];
+                // Median around 64 KB with a long tail, capped by max-attachment-bytes
+                int size = (int) Math.min(maxAttachmentBytes,
+                    Math.max(1L, Math.round(65536 * Math.exp(1.5 * TextGenerator.gaussian(random)))));
+                Path stagedPath = writeFiles ? attachmentBlobStore.newStagingPath() : null;
+                String contentHash = generateContent(stagedPath, size, random.nextLong(), buffer);
+                if (stagedPath != null) {
+                    blobs.add(new GeneratedBlob(contentHash, stagedPath, size));
+                }
+                rows.add(new Object[] {attachmentBase + 1 + a,
+                    taskBase + 1 + task,
+                    TextGenerator.words(random, 1 + random.nextInt(3)).replace(' ', '-') + "." + type[0],
+                    contentHash,
+                    attachmentBlobStore.blobLocation(contentHash),
+                    (long) size,
+                    type[1],
+                    contentHash,
+                    projectParticipant(taskProject(task), random),
+                    timestamp(random)});
+            }
+            // Blob rows are locked in hash order, as uploads do
+            blobs.sort(Comparator.comparing(GeneratedBlob::contentHash));
+            transactionTemplate.executeWithoutResult(status -> blobs.forEach(blob ->
+                attachmentBlobStore.addReference(blob.contentHash(), blob.stagedPath(), blob.size())));
+        } finally {
+            for (GeneratedBlob blob : blobs) {
+                Files.deleteIfExists(blob.stagedPath());
+            }
+        }
+        for (Object[] row : rows) {
+            attachments.addRow(row);
+        }
+        return attachments.finish();
+    }
+
+    /**
+     * Generate the pseudo-random content, writing it to the path unless it is null,
+     * and return its hex SHA-256
+     */
+    private static String generateContent(Path path, int size, long contentSeed, byte[] buffer) throws IOException {
+        SplittableRandom content = new SplittableRandom(contentSeed);
+        MessageDigest digest = FileChecksums.newSha256();
+        try (OutputStream out = path != null ? Files.newOutputStream(path) : OutputStream.nullOutputStream()) {
+            int remaining = size;
+            while (remaining > 0) {
+                int length = Math.min(remaining, buffer.length);
+                for (int i = 0; i < length; i++) {
+                    buffer[i] = (byte) content.nextInt(256);
+                }
+                digest.update(buffer, 0, length);
+                out.write(buffer, 0, length);
+                remaining -= length;
+            }
+        }
+        return FileChecksums.toHex(digest.digest());
+    }
+
+    /**
+     * Project of a task, derived from the task index alone so any stage can recompute it
+     */
+    private int taskProject(int task) {
+        return projectSampler.sample(new SplittableRandom(mix(seed, SALT_TASK_PROJECT, task)));
+    }
+
+    private long projectOwner(int project) {
+        SplittableRandom random = new SplittableRandom(mix(seed, SALT_PROJECT_SHAPE, project));
+        return userBase + 1 + userSampler.sample(random);
+    }
+
+    /**
+     * Members of a project, excluding the owner. Recomputed on demand instead of kept in memory.
+     */
+    private List<Long> projectMembers(int project) {
+        SplittableRandom random = new SplittableRandom(mix(seed, SALT_PROJECT_SHAPE, project));
+        long owner = userBase + 1 + userSampler.sample(random);
+        int wanted = memberCountSampler.sample(random);
+        Set<Long> members = new LinkedHashSet<>();
+        for (int i = 0; i < wanted * 2 && members.size() < wanted; i++) {
+            long member = userBase + 1 + userSampler.sample(random);
+            if (member != owner) {
+                members.add(member);
+            }
+        }
+        return new ArrayList<>(members);
+    }
+
+    /**
+     * The owner or one of the members of a project
+     */
+    private long projectParticipant(int project, SplittableRandom random) {
+        List<Long> members = projectMembers(project);
+        int pick = random.nextInt(members.size() + 1);
+        return pick == members.size() ? projectOwner(project) : members.get(pick);
+    }
+
+    private long maxId(String table) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private SplittableRandom random(long salt, int chunkStart) {
+        return new SplittableRandom(mix(seed, salt, chunkStart));
+    }
+
+    /**
+     * SplitMix64 finalizer over the inputs, giving well-spread independent seeds
+     */
+    private static long mix(long seed, long salt, long index) {
+        long z = seed * 0x9E3779B97F4A7C15L + salt * 0xBF58476D1CE4E5B9L + index;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static LocalDateTime dateTime(SplittableRandom random) {
+        return EPOCH.plusSeconds(random.nextLong(SPAN_SECONDS));
+    }
+
+    private static Timestamp timestamp(SplittableRandom random) {
+        return Timestamp.valueOf(dateTime(random));
+    }
+
+    private static String pick(SplittableRandom random, String[] values, double[] weights) {
+        double r = random.nextDouble();
+        for (int i = 0; i < values.length - 1; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return values[i];
+            }
+        }
+        return values[values.length - 1];
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+}
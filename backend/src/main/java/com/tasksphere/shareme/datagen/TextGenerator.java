@@ -0,0 +1,53 @@
+package com.tasksphere.shareme.datagen;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic filler text with a long-tailed length distribution.
+ */
+final class TextGenerator {
+
+    static final String[] WORDS = {
+        "design", "review", "deploy", "database", "migration", "frontend", "backend", "release",
+        "customer", "invoice", "report", "dashboard", "payment", "search", "mobile", "notification",
+        "security", "performance", "onboarding", "analytics", "integration", "checkout", "profile",
+        "settings", "export", "import", "schedule", "calendar", "reminder", "upload", "download",
+        "permission", "audit", "latency", "cache", "index", "query", "refactor", "documentation",
+        "testing", "regression", "hotfix", "rollout", "feedback", "metrics", "alerting", "backup",
+        "storage", "billing", "pricing", "localization", "accessibility", "layout", "sprint"
+    };
+
+    static final String[] TAGS = {
+        "urgent", "follow-up", "blocked", "idea", "meeting", "review", "bug", "question",
+        "research", "personal", "later", "waiting", "customer", "design", "ops", "release"
+    };
+
+    private TextGenerator() {}
+
+    static String words(SplittableRandom random, int count) {
+        StringBuilder builder = new StringBuilder(count * 8);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append(i % 15 == 0 ? ". " : " ");
+            }
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Word count drawn from a log-normal distribution, capped at maxWords
+     */
+    static int logNormalLength(SplittableRandom random, double medianWords, int maxWords) {
+        double gaussian = gaussian(random);
+        int length = (int) Math.round(medianWords * Math.exp(gaussian));
+        return Math.min(Math.max(length, 1), maxWords);
+    }
+
+    static double gaussian(SplittableRandom random) {
+        // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+}
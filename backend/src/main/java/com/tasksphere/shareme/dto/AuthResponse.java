@@ -3,13 +3,15 @@ package com.tasksphere.shareme.dto;
 public class AuthResponse {
     
     private String accessToken;
+    private String refreshToken;
     private UserInfo user;
     
     // Constructors
     public AuthResponse() {}
     
-    public AuthResponse(String accessToken, UserInfo user) {
+    public AuthResponse(String accessToken, String refreshToken, UserInfo user) {
         this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
         this.user = user;
     }
     
@@ -22,6 +24,14 @@ public class AuthResponse {
         this.accessToken = accessToken;
     }
     
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+    
     public UserInfo getUser() {
         return user;
     }
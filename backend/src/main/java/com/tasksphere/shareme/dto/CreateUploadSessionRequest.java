@@ -0,0 +1,67 @@
+package com.tasksphere.shareme.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+@Schema(description = "Request object for starting a resumable attachment upload")
+public class CreateUploadSessionRequest {
+    
+    @NotBlank(message = "Filename is required")
+    @Size(max = 500, message = "Filename cannot exceed 500 characters")
+    @Schema(description = "Original filename", example = "demo_recording.mp4", required = true)
+    private String originalFilename;
+    
+    @NotNull(message = "File size is required")
+    @Positive(message = "File size must be positive")
+    @Schema(description = "Total file size in bytes", example = "52428800", required = true)
+    private Long fileSize;
+    
+    @Size(max = 255, message = "Content type cannot exceed 255 characters")
+    @Schema(description = "MIME content type", example = "video/mp4")
+    private String contentType;
+    
+    @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "SHA-256 must be 64 hex characters")
+    @Schema(description = "Optional SHA-256 of the whole file, verified when the upload is completed",
+            example = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+    private String sha256;
+    
+    // Constructors
+    public CreateUploadSessionRequest() {}
+    
+    // Getters and Setters
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+    
+    public void setOriginalFilename(String originalFilename) {
+        this.originalFilename = originalFilename;
+    }
+    
+    public Long getFileSize() {
+        return fileSize;
+    }
+    
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+    
+    public String getSha256() {
+        return sha256;
+    }
+    
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+}
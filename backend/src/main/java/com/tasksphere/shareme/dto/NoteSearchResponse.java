@@ -0,0 +1,46 @@
+package com.tasksphere.shareme.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class NoteSearchResponse {
+    
+    private List<TaskNoteResponse> notes;
+    private int totalMatches;
+    // Tag -> number of matching notes carrying it, before any tag filter
+    private Map<String, Integer> tagCounts;
+    
+    // Constructors
+    public NoteSearchResponse() {}
+    
+    public NoteSearchResponse(List<TaskNoteResponse> notes, int totalMatches, Map<String, Integer> tagCounts) {
+        this.notes = notes;
+        this.totalMatches = totalMatches;
+        this.tagCounts = tagCounts;
+    }
+    
+    // Getters and Setters
+    public List<TaskNoteResponse> getNotes() {
+        return notes;
+    }
+    
+    public void setNotes(List<TaskNoteResponse> notes) {
+        this.notes = notes;
+    }
+    
+    public int getTotalMatches() {
+        return totalMatches;
+    }
+    
+    public void setTotalMatches(int totalMatches) {
+        this.totalMatches = totalMatches;
+    }
+    
+    public Map<String, Integer> getTagCounts() {
+        return tagCounts;
+    }
+    
+    public void setTagCounts(Map<String, Integer> tagCounts) {
+        this.tagCounts = tagCounts;
+    }
+}
@@ -0,0 +1,40 @@
+package com.tasksphere.shareme.dto;
+
+import java.time.Instant;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Short-lived signed URL for downloading a file without an Authorization header")
+public class SignedUrlResponse {
+    
+    @Schema(description = "Signed download URL", example = "/files/9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08?exp=1705400000&name=report.pdf&type=application%2Fpdf&sig=3q2-7w")
+    private String url;
+    
+    @Schema(description = "When the URL stops working", example = "2024-01-16T10:30:00Z")
+    private Instant expiresAt;
+    
+    // Constructors
+    public SignedUrlResponse() {}
+    
+    public SignedUrlResponse(String url, Instant expiresAt) {
+        this.url = url;
+        this.expiresAt = expiresAt;
+    }
+    
+    // Getters and Setters
+    public String getUrl() {
+        return url;
+    }
+    
+    public void setUrl(String url) {
+        this.url = url;
+    }
+    
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -28,6 +28,10 @@ public class TaskAttachmentResponse {
     @Schema(description = "Download URL for the file", example = "/api/tasks/1/attachments/1/download")
     private String downloadUrl;
     
+    @Schema(description = "Signed thumbnail URL for image attachments, null until the thumbnail has been generated",
+            example = "/files/9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08/thumbnail?exp=1705400000&name=thumbnail-1.png&type=image%2Fpng&sig=3q2-7w")
+    private String thumbnailUrl;
+    
     // Constructors
     public TaskAttachmentResponse() {}
     
@@ -98,4 +102,12 @@ public class TaskAttachmentResponse {
     public void setDownloadUrl(String downloadUrl) {
         this.downloadUrl = downloadUrl;
     }
+    
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+    
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
 }
\ No newline at end of file
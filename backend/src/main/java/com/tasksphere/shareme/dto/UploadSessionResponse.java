@@ -0,0 +1,101 @@
+package com.tasksphere.shareme.dto;
+
+import java.time.LocalDateTime;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "State of a resumable attachment upload")
+public class UploadSessionResponse {
+    
+    @Schema(description = "Upload session ID", example = "3f2c1b8e-4d5a-4c1e-9b7a-2f6d8e0c1a3b")
+    private String uploadId;
+    
+    @Schema(description = "Task the file will be attached to", example = "1")
+    private Long taskId;
+    
+    @Schema(description = "Original filename", example = "demo_recording.mp4")
+    private String originalFilename;
+    
+    @Schema(description = "Total file size in bytes", example = "52428800")
+    private Long fileSize;
+    
+    @Schema(description = "Bytes received so far; the next chunk must start here", example = "8388608")
+    private Long offset;
+    
+    @Schema(description = "When the session expires if no more chunks arrive", example = "2024-01-16T10:30:00")
+    private LocalDateTime expiresAt;
+    
+    @Schema(description = "URL to PUT chunks to", example = "/api/tasks/attachments/uploads/3f2c1b8e-4d5a-4c1e-9b7a-2f6d8e0c1a3b")
+    private String uploadUrl;
+    
+    // Constructors
+    public UploadSessionResponse() {}
+    
+    public UploadSessionResponse(String uploadId, Long taskId, String originalFilename, Long fileSize,
+                                 Long offset, LocalDateTime expiresAt, String uploadUrl) {
+        this.uploadId = uploadId;
+        this.taskId = taskId;
+        this.originalFilename = originalFilename;
+        this.fileSize = fileSize;
+        this.offset = offset;
+        this.expiresAt = expiresAt;
+        this.uploadUrl = uploadUrl;
+    }
+    
+    // Getters and Setters
+    public String getUploadId() {
+        return uploadId;
+    }
+    
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+    
+    public Long getTaskId() {
+        return taskId;
+    }
+    
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+    
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+    
+    public void setOriginalFilename(String originalFilename) {
+        this.originalFilename = originalFilename;
+    }
+    
+    public Long getFileSize() {
+        return fileSize;
+    }
+    
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+    
+    public Long getOffset() {
+        return offset;
+    }
+    
+    public void setOffset(Long offset) {
+        this.offset = offset;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    
+    public String getUploadUrl() {
+        return uploadUrl;
+    }
+    
+    public void setUploadUrl(String uploadUrl) {
+        this.uploadUrl = uploadUrl;
+    }
+}
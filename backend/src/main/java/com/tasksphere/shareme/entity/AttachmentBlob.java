@@ -0,0 +1,77 @@
+package com.tasksphere.shareme.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * A stored file shared by every attachment with the same content.
+ * Rows are written with native upserts (see AttachmentBlobRepository).
+ */
+@Entity
+@Table(name = "attachment_blobs")
+public class AttachmentBlob {
+    
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    
+    @Column(name = "storage_path", nullable = false, length = 1000)
+    private String storagePath;
+    
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+    
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public AttachmentBlob() {}
+    
+    // Getters and Setters
+    public String getContentHash() {
+        return contentHash;
+    }
+    
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+    
+    public String getStoragePath() {
+        return storagePath;
+    }
+    
+    public void setStoragePath(String storagePath) {
+        this.storagePath = storagePath;
+    }
+    
+    public Long getFileSize() {
+        return fileSize;
+    }
+    
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+    
+    public Integer getRefCount() {
+        return refCount;
+    }
+    
+    public void setRefCount(Integer refCount) {
+        this.refCount = refCount;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,150 @@
+package com.tasksphere.shareme.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "attachment_upload_sessions")
+public class AttachmentUploadSession {
+    
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+    
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "original_filename", nullable = false, length = 500)
+    private String originalFilename;
+    
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+    
+    @Column(name = "total_size", nullable = false)
+    private Long totalSize;
+    
+    @Column(name = "received_bytes", nullable = false)
+    private Long receivedBytes = 0L;
+    
+    @Column(name = "expected_sha256", length = 64)
+    private String expectedSha256;
+    
+    @Column(name = "staging_path", nullable = false, length = 1000)
+    private String stagingPath;
+    
+    @Column(name = "node_id")
+    private String nodeId;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // Constructors
+    public AttachmentUploadSession() {}
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public Long getTaskId() {
+        return taskId;
+    }
+    
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+    
+    public void setOriginalFilename(String originalFilename) {
+        this.originalFilename = originalFilename;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+    
+    public Long getTotalSize() {
+        return totalSize;
+    }
+    
+    public void setTotalSize(Long totalSize) {
+        this.totalSize = totalSize;
+    }
+    
+    public Long getReceivedBytes() {
+        return receivedBytes;
+    }
+    
+    public void setReceivedBytes(Long receivedBytes) {
+        this.receivedBytes = receivedBytes;
+    }
+    
+    public String getExpectedSha256() {
+        return expectedSha256;
+    }
+    
+    public void setExpectedSha256(String expectedSha256) {
+        this.expectedSha256 = expectedSha256;
+    }
+    
+    public String getStagingPath() {
+        return stagingPath;
+    }
+    
+    public void setStagingPath(String stagingPath) {
+        this.stagingPath = stagingPath;
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
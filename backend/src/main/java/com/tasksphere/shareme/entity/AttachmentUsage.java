@@ -0,0 +1,101 @@
+package com.tasksphere.shareme.entity;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * Running attachment count and size of one task, project or uploader.
+ * Rows are written with native upserts (see AttachmentUsageRepository).
+ */
+@Entity
+@Table(name = "attachment_usage")
+@IdClass(AttachmentUsage.UsageKey.class)
+public class AttachmentUsage {
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope_type", length = 10)
+    private Scope scopeType;
+    
+    @Id
+    @Column(name = "scope_id")
+    private Long scopeId;
+    
+    @Column(name = "file_count", nullable = false)
+    private Long fileCount;
+    
+    @Column(name = "total_bytes", nullable = false)
+    private Long totalBytes;
+    
+    // Constructors
+    public AttachmentUsage() {}
+    
+    // Getters and Setters
+    public Scope getScopeType() {
+        return scopeType;
+    }
+    
+    public void setScopeType(Scope scopeType) {
+        this.scopeType = scopeType;
+    }
+    
+    public Long getScopeId() {
+        return scopeId;
+    }
+    
+    public void setScopeId(Long scopeId) {
+        this.scopeId = scopeId;
+    }
+    
+    public Long getFileCount() {
+        return fileCount;
+    }
+    
+    public void setFileCount(Long fileCount) {
+        this.fileCount = fileCount;
+    }
+    
+    public Long getTotalBytes() {
+        return totalBytes;
+    }
+    
+    public void setTotalBytes(Long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+    
+    public enum Scope {
+        TASK, PROJECT, USER
+    }
+    
+    public static class UsageKey implements Serializable {
+        private Scope scopeType;
+        private Long scopeId;
+        
+        public UsageKey() {}
+        
+        public UsageKey(Scope scopeType, Long scopeId) {
+            this.scopeType = scopeType;
+            this.scopeId = scopeId;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof UsageKey other)) return false;
+            return scopeType == other.scopeType && Objects.equals(scopeId, other.scopeId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(scopeType, scopeId);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.tasksphere.shareme.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+/**
+ * A key pair for signing access tokens, shared by all nodes through the database.
+ * The public key is X.509 and the private key encrypted PKCS#8, both Base64.
+ */
+@Entity
+@Table(name = "jwt_signing_keys")
+public class JwtSigningKey {
+    
+    @Id
+    @Column(name = "kid", length = 36)
+    private String kid;
+    
+    @Column(name = "algorithm", nullable = false, length = 10)
+    private String algorithm;
+    
+    @Column(name = "public_key", nullable = false, columnDefinition = "TEXT")
+    private String publicKey;
+    
+    @Column(name = "private_key", nullable = false, columnDefinition = "TEXT")
+    private String privateKey;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Signs new tokens from this time, once every node has had a chance to learn the key
+    @Column(name = "active_from", nullable = false)
+    private LocalDateTime activeFrom;
+    
+    // Null while this is the newest key; set when a successor takes over
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public JwtSigningKey() {}
+    
+    public JwtSigningKey(String kid, String algorithm, String publicKey, String privateKey, LocalDateTime activeFrom) {
+        this.kid = kid;
+        this.algorithm = algorithm;
+        this.publicKey = publicKey;
+        this.privateKey = privateKey;
+        this.activeFrom = activeFrom;
+    }
+    
+    // Getters and Setters
+    public String getKid() {
+        return kid;
+    }
+    
+    public void setKid(String kid) {
+        this.kid = kid;
+    }
+    
+    public String getAlgorithm() {
+        return algorithm;
+    }
+    
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+    
+    public String getPublicKey() {
+        return publicKey;
+    }
+    
+    public void setPublicKey(String publicKey) {
+        this.publicKey = publicKey;
+    }
+    
+    public String getPrivateKey() {
+        return privateKey;
+    }
+    
+    public void setPrivateKey(String privateKey) {
+        this.privateKey = privateKey;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getActiveFrom() {
+        return activeFrom;
+    }
+    
+    public void setActiveFrom(LocalDateTime activeFrom) {
+        this.activeFrom = activeFrom;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
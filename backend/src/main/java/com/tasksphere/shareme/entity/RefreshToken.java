@@ -0,0 +1,149 @@
+package com.tasksphere.shareme.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    // Shared by every token rotated from the same login
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+    
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // Rotation slides expiresAt forward, but never past this
+    @Column(name = "session_expires_at", nullable = false)
+    private LocalDateTime sessionExpiresAt;
+    
+    // Set when the token was exchanged for its successor
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+    
+    // The token issued when this one was used
+    @Column(name = "replaced_by_id")
+    private Long replacedById;
+    
+    @Column(name = "revoked", nullable = false)
+    private Boolean revoked = false;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public RefreshToken() {}
+    
+    public RefreshToken(User user, String familyId, String tokenHash, LocalDateTime expiresAt,
+                        LocalDateTime sessionExpiresAt) {
+        this.user = user;
+        this.familyId = familyId;
+        this.tokenHash = tokenHash;
+        this.expiresAt = expiresAt;
+        this.sessionExpiresAt = sessionExpiresAt;
+        this.revoked = false;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public User getUser() {
+        return user;
+    }
+    
+    public void setUser(User user) {
+        this.user = user;
+    }
+    
+    public String getFamilyId() {
+        return familyId;
+    }
+    
+    public void setFamilyId(String familyId) {
+        this.familyId = familyId;
+    }
+    
+    public String getTokenHash() {
+        return tokenHash;
+    }
+    
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    
+    public LocalDateTime getSessionExpiresAt() {
+        return sessionExpiresAt;
+    }
+    
+    public void setSessionExpiresAt(LocalDateTime sessionExpiresAt) {
+        this.sessionExpiresAt = sessionExpiresAt;
+    }
+    
+    public LocalDateTime getUsedAt() {
+        return usedAt;
+    }
+    
+    public void setUsedAt(LocalDateTime usedAt) {
+        this.usedAt = usedAt;
+    }
+    
+    public Long getReplacedById() {
+        return replacedById;
+    }
+    
+    public void setReplacedById(Long replacedById) {
+        this.replacedById = replacedById;
+    }
+    
+    public Boolean getRevoked() {
+        return revoked;
+    }
+    
+    public void setRevoked(Boolean revoked) {
+        this.revoked = revoked;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public boolean isExpired() {
+        return LocalDateTime.now().isAfter(this.expiresAt);
+    }
+}
@@ -39,6 +39,12 @@ public class TaskAttachment {
     @Column(name = "content_type", nullable = false)
     private String contentType;
     
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    
+    @Column(name = "has_thumbnail", nullable = false)
+    private Boolean hasThumbnail = false;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "uploaded_by", nullable = false)
     private User uploadedBy;
@@ -118,6 +124,22 @@ public class TaskAttachment {
         this.contentType = contentType;
     }
     
+    public String getContentHash() {
+        return contentHash;
+    }
+    
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+    
+    public Boolean getHasThumbnail() {
+        return hasThumbnail;
+    }
+    
+    public void setHasThumbnail(Boolean hasThumbnail) {
+        this.hasThumbnail = hasThumbnail;
+    }
+    
     public User getUploadedBy() {
         return uploadedBy;
     }
@@ -0,0 +1,55 @@
+package com.tasksphere.shareme.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Every access token of the user issued at or before revokedBefore is revoked.
+ * Rows are written with native upserts (see UserSessionWatermarkRepository).
+ */
+@Entity
+@Table(name = "user_session_watermarks")
+public class UserSessionWatermark {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "revoked_before", nullable = false)
+    private LocalDateTime revokedBefore;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public UserSessionWatermark() {}
+    
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public LocalDateTime getRevokedBefore() {
+        return revokedBefore;
+    }
+    
+    public void setRevokedBefore(LocalDateTime revokedBefore) {
+        this.revokedBefore = revokedBefore;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,11 @@
+package com.tasksphere.shareme.exception;
+
+public class SqlBudgetExceededException extends RuntimeException {
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+    
+    public SqlBudgetExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,143 @@
+package com.tasksphere.shareme.monitoring;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-thread SQL statement counter used to catch N+1 query patterns.
+ *
+ * A tracker is bound to the current thread for the duration of a sampled
+ * HTTP request (see {@link SqlStatementBudgetFilter}) or explicitly by an
+ * integration test via {@link #begin} / {@link #end}. Threads without a
+ * tracker pay only for a single ThreadLocal lookup per statement.
+ */
+public final class SqlStatementBudget {
+
+    private static final ThreadLocal<Tracker> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementBudget() {}
+
+    /**
+     * Start tracking statements on the current thread
+     */
+    public static Tracker begin(String label, int maxStatements, boolean captureStatements) {
+        Tracker tracker = new Tracker(label, maxStatements, captureStatements);
+        CURRENT.set(tracker);
+        return tracker;
+    }
+
+    /**
+     * Stop tracking and return the tracker that was active, if any
+     */
+    public static Tracker end() {
+        Tracker tracker = CURRENT.get();
+        CURRENT.remove();
+        return tracker;
+    }
+
+    /**
+     * Record a statement against the current tracker, if one is active
+     */
+    static void record(String sql) {
+        Tracker tracker = CURRENT.get();
+        if (tracker != null) {
+            tracker.record(sql);
+        }
+    }
+
+    public static final class Tracker {
+
+        // Keep enough statements to show the offending pattern without unbounded growth
+        private static final int MAX_CAPTURED_STATEMENTS = 500;
+
+        private final String label;
+        private final int maxStatements;
+        private final boolean captureStatements;
+        private final List<String> statements;
+        private int count;
+        private Throwable exceededAt;
+
+        private Tracker(String label, int maxStatements, boolean captureStatements) {
+            this.label = label;
+            this.maxStatements = maxStatements;
+            this.captureStatements = captureStatements;
+            this.statements = captureStatements ? new ArrayList<>() : Collections.emptyList();
+        }
+
+        private void record(String sql) {
+            count++;
+            if (captureStatements && statements.size() < MAX_CAPTURED_STATEMENTS) {
+                statements.add(sql);
+            }
+            if (count == maxStatements + 1) {
+                // Capture the call site of the first statement over budget
+                exceededAt = new Throwable("SQL statement budget of " + maxStatements + " exceeded at " + label);
+            }
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public int getMaxStatements() {
+            return maxStatements;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public boolean isExceeded() {
+            return count > maxStatements;
+        }
+
+        public List<String> getStatements() {
+            return Collections.unmodifiableList(statements);
+        }
+
+        public Throwable getExceededAt() {
+            return exceededAt;
+        }
+
+        /**
+         * Group identical statements so repeated ones (the usual N+1 signature) stand out
+         */
+        public Map<String, Integer> getRepeatedStatements() {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (String sql : statements) {
+                counts.merge(sql, 1, Integer::sum);
+            }
+            counts.values().removeIf(c -> c < 2);
+            return counts;
+        }
+
+        /**
+         * Human readable report listing every captured statement in execution order
+         */
+        public String describe() {
+            StringBuilder report = new StringBuilder();
+            report.append(label).append(" executed ").append(count)
+                  .append(" SQL statements (budget ").append(maxStatements).append(")");
+
+            Map<String, Integer> repeated = getRepeatedStatements();
+            if (!repeated.isEmpty()) {
+                report.append("\nRepeated statements:");
+                repeated.forEach((sql, times) -> report.append("\n  ").append(times).append("x ").append(sql));
+            }
+
+            if (!statements.isEmpty()) {
+                report.append("\nStatements:");
+                for (int i = 0; i < statements.size(); i++) {
+                    report.append("\n  ").append(i + 1).append(". ").append(statements.get(i));
+                }
+                if (count > statements.size()) {
+                    report.append("\n  ... ").append(count - statements.size()).append(" more");
+                }
+            }
+            return report.toString();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.tasksphere.shareme.monitoring;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.tasksphere.shareme.exception.SqlBudgetExceededException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts SQL statements for a sample of HTTP requests and reports requests
+ * that exceed the configured budget. Unsampled requests are not tracked at all.
+ *
+ * With fail-on-exceed (tests only) every response is buffered until the count
+ * is known, so an over-budget request fails instead of returning its body.
+ */
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementBudgetFilter.class);
+
+    private final int maxStatements;
+    private final double sampleRate;
+    private final boolean failOnExceed;
+
+    public SqlStatementBudgetFilter(int maxStatements, double sampleRate, boolean failOnExceed) {
+        this.maxStatements = maxStatements;
+        this.sampleRate = sampleRate;
+        this.failOnExceed = failOnExceed;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        // Fail-on-exceed is meant for integration tests, so every request is tracked
+        if (!failOnExceed && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Hold the body back when failing, so the error is raised before anything is committed
+        ContentCachingResponseWrapper buffered = failOnExceed ? new ContentCachingResponseWrapper(response) : null;
+        String endpoint = request.getMethod() + " " + request.getRequestURI();
+        SqlStatementBudget.begin(endpoint, maxStatements, true);
+        SqlStatementBudget.Tracker tracker;
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            tracker = SqlStatementBudget.end();
+        }
+
+        if (tracker != null && tracker.isExceeded()) {
+            if (failOnExceed) {
+                buffered.resetBuffer();
+                throw new SqlBudgetExceededException(tracker.describe());
+            }
+            logger.warn(tracker.describe(), tracker.getExceededAt());
+        }
+        if (buffered != null) {
+            buffered.copyBodyToResponse();
+        }
+    }
+}
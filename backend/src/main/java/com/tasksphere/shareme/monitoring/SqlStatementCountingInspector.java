@@ -0,0 +1,16 @@
+package com.tasksphere.shareme.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate hook that reports every prepared statement to {@link SqlStatementBudget}.
+ * The SQL is returned unchanged.
+ */
+public class SqlStatementCountingInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementBudget.record(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,73 @@
+package com.tasksphere.shareme.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.tasksphere.shareme.entity.AttachmentBlob;
+
+@Repository
+public interface AttachmentBlobRepository extends JpaRepository<AttachmentBlob, String> {
+    
+    /**
+     * Insert the blob with one reference or add a reference to the existing row.
+     * MySQL reports 1 affected row for an insert and 2 for an update.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO attachment_blobs (content_hash, storage_path, file_size, ref_count, created_at) "
+        + "VALUES (:contentHash, :storagePath, :fileSize, 1, NOW()) "
+        + "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1", nativeQuery = true)
+    int addReference(@Param("contentHash") String contentHash, @Param("storagePath") String storagePath,
+                     @Param("fileSize") long fileSize);
+    
+    @Modifying
+    @Query(value = "UPDATE attachment_blobs SET ref_count = ref_count - 1 WHERE content_hash = :contentHash",
+        nativeQuery = true)
+    int removeReference(@Param("contentHash") String contentHash);
+    
+    @Modifying
+    @Query(value = "DELETE FROM attachment_blobs WHERE content_hash = :contentHash AND ref_count <= 0",
+        nativeQuery = true)
+    int deleteIfUnreferenced(@Param("contentHash") String contentHash);
+    
+    /**
+     * Lock the row, or the gap where it would be, so no upload can re-create the blob meanwhile
+     */
+    @Query(value = "SELECT content_hash FROM attachment_blobs WHERE content_hash = :contentHash FOR UPDATE",
+        nativeQuery = true)
+    List<String> lockByContentHash(@Param("contentHash") String contentHash);
+    
+    @Query(value = "SELECT storage_path FROM attachment_blobs WHERE content_hash = :contentHash", nativeQuery = true)
+    String findStoragePath(@Param("contentHash") String contentHash);
+    
+    @Query(value = "SELECT storage_path FROM attachment_blobs WHERE content_hash = :contentHash FOR UPDATE",
+        nativeQuery = true)
+    List<String> lockStoragePath(@Param("contentHash") String contentHash);
+    
+    @Modifying
+    @Query(value = "UPDATE attachment_blobs SET storage_path = :storagePath WHERE content_hash = :contentHash",
+        nativeQuery = true)
+    int updateStoragePath(@Param("contentHash") String contentHash, @Param("storagePath") String storagePath);
+    
+    /**
+     * Keyset page of blobs in hash order, for background jobs that walk the whole table
+     */
+    @Query(value = "SELECT * FROM attachment_blobs WHERE content_hash > :afterHash ORDER BY content_hash LIMIT :limit",
+        nativeQuery = true)
+    List<AttachmentBlob> findBatchAfter(@Param("afterHash") String afterHash, @Param("limit") int limit);
+    
+    @Modifying
+    @Query(value = "UPDATE attachment_blobs SET ref_count = :refCount WHERE content_hash = :contentHash",
+        nativeQuery = true)
+    int setReferenceCount(@Param("contentHash") String contentHash, @Param("refCount") long refCount);
+    
+    boolean existsByStoragePath(String storagePath);
+    
+    @Query("SELECT b.storagePath FROM AttachmentBlob b WHERE b.storagePath IN :storagePaths")
+    List<String> findStoragePathsIn(@Param("storagePaths") Collection<String> storagePaths);
+}
@@ -0,0 +1,42 @@
+package com.tasksphere.shareme.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tasksphere.shareme.entity.AttachmentUploadSession;
+
+@Repository
+public interface AttachmentUploadSessionRepository extends JpaRepository<AttachmentUploadSession, String> {
+    
+    /**
+     * Keyset page of expired sessions, in id order
+     */
+    List<AttachmentUploadSession> findByExpiresAtBeforeAndIdGreaterThanOrderByIdAsc(LocalDateTime now, String afterId,
+                                                                                  Pageable pageable);
+    
+    /**
+     * Record received bytes and the new expiry. Returns 0 when the session is gone.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AttachmentUploadSession s SET s.receivedBytes = :receivedBytes, s.expiresAt = :expiresAt "
+        + "WHERE s.id = :id")
+    int recordProgress(@Param("id") String id, @Param("receivedBytes") Long receivedBytes,
+                       @Param("expiresAt") LocalDateTime expiresAt);
+    
+    /**
+     * Delete the session unless a chunk extended it since it was read
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AttachmentUploadSession s WHERE s.id = :id AND s.expiresAt < :now")
+    int deleteIfExpired(@Param("id") String id, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,91 @@
+package com.tasksphere.shareme.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.tasksphere.shareme.entity.AttachmentUsage;
+
+@Repository
+public interface AttachmentUsageRepository extends JpaRepository<AttachmentUsage, AttachmentUsage.UsageKey> {
+    
+    /**
+     * Add (or with negative deltas, subtract) files and bytes, creating the row on first use.
+     * The row stays locked until the transaction ends.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO attachment_usage (scope_type, scope_id, file_count, total_bytes) "
+        + "VALUES (:scopeType, :scopeId, :files, :bytes) "
+        + "ON DUPLICATE KEY UPDATE file_count = file_count + :files, total_bytes = total_bytes + :bytes",
+        nativeQuery = true)
+    int addUsage(@Param("scopeType") String scopeType, @Param("scopeId") Long scopeId,
+                 @Param("files") long files, @Param("bytes") long bytes);
+    
+    @Query(value = "SELECT total_bytes FROM attachment_usage WHERE scope_type = :scopeType AND scope_id = :scopeId",
+        nativeQuery = true)
+    Long findTotalBytes(@Param("scopeType") String scopeType, @Param("scopeId") Long scopeId);
+    
+    /**
+     * Take a task's attachments off its uploaders' counters; run before the rows are deleted
+     */
+    @Modifying
+    @Query(value = "UPDATE attachment_usage u JOIN ("
+        + "SELECT uploaded_by, COUNT(*) AS files, SUM(file_size) AS bytes FROM task_attachments "
+        + "WHERE task_id = :taskId GROUP BY uploaded_by) a ON u.scope_type = 'USER' AND u.scope_id = a.uploaded_by "
+        + "SET u.file_count = u.file_count - a.files, u.total_bytes = u.total_bytes - a.bytes", nativeQuery = true)
+    int subtractTaskFromUsers(@Param("taskId") Long taskId);
+    
+    /**
+     * Take a task's counters off its project's counters
+     */
+    @Modifying
+    @Query(value = "UPDATE attachment_usage p JOIN attachment_usage t ON t.scope_type = 'TASK' AND t.scope_id = :taskId "
+        + "SET p.file_count = p.file_count - t.file_count, p.total_bytes = p.total_bytes - t.total_bytes "
+        + "WHERE p.scope_type = 'PROJECT' AND p.scope_id = :projectId", nativeQuery = true)
+    int subtractTaskFromProject(@Param("taskId") Long taskId, @Param("projectId") Long projectId);
+    
+    /**
+     * Take a project's attachments off its uploaders' counters; run before the rows are deleted
+     */
+    @Modifying
+    @Query(value = "UPDATE attachment_usage u JOIN ("
+        + "SELECT ta.uploaded_by, COUNT(*) AS files, SUM(ta.file_size) AS bytes FROM task_attachments ta "
+        + "JOIN tasks t ON t.id = ta.task_id WHERE t.project_id = :projectId GROUP BY ta.uploaded_by) a "
+        + "ON u.scope_type = 'USER' AND u.scope_id = a.uploaded_by "
+        + "SET u.file_count = u.file_count - a.files, u.total_bytes = u.total_bytes - a.bytes", nativeQuery = true)
+    int subtractProjectFromUsers(@Param("projectId") Long projectId);
+    
+    @Modifying
+    @Query(value = "DELETE u FROM attachment_usage u JOIN tasks t ON u.scope_type = 'TASK' AND u.scope_id = t.id "
+        + "WHERE t.project_id = :projectId", nativeQuery = true)
+    int deleteProjectTasks(@Param("projectId") Long projectId);
+    
+    @Modifying
+    @Query(value = "DELETE FROM attachment_usage WHERE scope_type = :scopeType AND scope_id = :scopeId",
+        nativeQuery = true)
+    int deleteScope(@Param("scopeType") String scopeType, @Param("scopeId") Long scopeId);
+    
+    @Modifying
+    @Query(value = "DELETE FROM attachment_usage", nativeQuery = true)
+    int deleteAllUsage();
+    
+    @Modifying
+    @Query(value = "INSERT INTO attachment_usage (scope_type, scope_id, file_count, total_bytes) "
+        + "SELECT 'TASK', task_id, COUNT(*), SUM(file_size) FROM task_attachments GROUP BY task_id",
+        nativeQuery = true)
+    int insertTaskUsageFromAttachments();
+    
+    @Modifying
+    @Query(value = "INSERT INTO attachment_usage (scope_type, scope_id, file_count, total_bytes) "
+        + "SELECT 'PROJECT', t.project_id, COUNT(*), SUM(ta.file_size) FROM task_attachments ta "
+        + "JOIN tasks t ON t.id = ta.task_id GROUP BY t.project_id", nativeQuery = true)
+    int insertProjectUsageFromAttachments();
+    
+    @Modifying
+    @Query(value = "INSERT INTO attachment_usage (scope_type, scope_id, file_count, total_bytes) "
+        + "SELECT 'USER', uploaded_by, COUNT(*), SUM(file_size) FROM task_attachments GROUP BY uploaded_by",
+        nativeQuery = true)
+    int insertUserUsageFromAttachments();
+}
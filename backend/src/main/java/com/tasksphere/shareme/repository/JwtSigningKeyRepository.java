@@ -0,0 +1,35 @@
+package com.tasksphere.shareme.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tasksphere.shareme.entity.JwtSigningKey;
+
+@Repository
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, String> {
+    
+    /**
+     * Keys that still verify tokens, newest first
+     */
+    @Query("SELECT k FROM JwtSigningKey k WHERE k.expiresAt IS NULL OR k.expiresAt > :now ORDER BY k.activeFrom DESC")
+    List<JwtSigningKey> findUnexpired(LocalDateTime now);
+    
+    /**
+     * Start the clock on every key other than the new one
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE JwtSigningKey k SET k.expiresAt = :expiresAt WHERE k.expiresAt IS NULL AND k.kid <> :newKid")
+    int expireAllExcept(String newKid, LocalDateTime expiresAt);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM JwtSigningKey k WHERE k.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -14,9 +15,19 @@ public interface PasswordResetRepository extends JpaRepository<PasswordReset, Lo
     
     Optional<PasswordReset> findByTokenHashAndUsedFalse(String tokenHash);
     
+    /**
+     * Delete up to limit expired tokens in a transaction of its own, so row locks stay short
+     */
     @Modifying
-    @Query("DELETE FROM PasswordReset pr WHERE pr.expiresAt < :now")
-    void deleteExpiredTokens(LocalDateTime now);
+    @Transactional
+    @Query(value = "DELETE FROM password_resets WHERE expires_at < :now ORDER BY expires_at LIMIT :limit",
+           nativeQuery = true)
+    int deleteExpiredBatch(LocalDateTime now, int limit);
+    
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM password_resets WHERE used = TRUE ORDER BY id LIMIT :limit", nativeQuery = true)
+    int deleteUsedBatch(int limit);
     
     @Modifying
     @Query("UPDATE PasswordReset pr SET pr.used = true WHERE pr.tokenHash = :tokenHash")
@@ -0,0 +1,37 @@
+package com.tasksphere.shareme.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tasksphere.shareme.entity.RevokedToken;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    
+    /**
+     * Revoking a token twice keeps the first row
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO revoked_tokens (jti, user_id, expires_at, revoked_at) "
+        + "VALUES (:jti, :userId, :expiresAt, :revokedAt)", nativeQuery = true)
+    int insertIgnore(@Param("jti") String jti, @Param("userId") Long userId,
+                     @Param("expiresAt") LocalDateTime expiresAt, @Param("revokedAt") LocalDateTime revokedAt);
+    
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+    
+    List<RevokedToken> findByRevokedAtAfter(LocalDateTime since);
+    
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM revoked_tokens WHERE expires_at < :now ORDER BY expires_at LIMIT :limit",
+           nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
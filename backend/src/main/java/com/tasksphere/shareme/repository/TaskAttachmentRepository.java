@@ -1,26 +1,72 @@
 package com.tasksphere.shareme.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.tasksphere.shareme.entity.TaskAttachment;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface TaskAttachmentRepository extends JpaRepository<TaskAttachment, Long> {
     
     List<TaskAttachment> findByTaskIdOrderByUploadedAtDesc(Long taskId);
     
-    @Query("SELECT COUNT(ta) FROM TaskAttachment ta WHERE ta.task.id = :taskId")
-    Long countByTaskId(@Param("taskId") Long taskId);
+    List<TaskAttachment> findByUploadedById(Long userId);
     
-    @Query("SELECT SUM(ta.fileSize) FROM TaskAttachment ta WHERE ta.task.id = :taskId")
-    Long getTotalFileSizeByTaskId(@Param("taskId") Long taskId);
+    @Modifying
+    @Transactional
+    @Query("UPDATE TaskAttachment ta SET ta.hasThumbnail = true WHERE ta.contentHash = :contentHash")
+    int markThumbnailAvailable(@Param("contentHash") String contentHash);
     
-    List<TaskAttachment> findByUploadedById(Long userId);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ta FROM TaskAttachment ta WHERE ta.id = :id")
+    Optional<TaskAttachment> lockById(@Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE TaskAttachment ta SET ta.filePath = :filePath WHERE ta.contentHash = :contentHash")
+    int updateFilePathByContentHash(@Param("contentHash") String contentHash, @Param("filePath") String filePath);
+    
+    /**
+     * Number of rows per content hash, for the hashes that have any
+     */
+    @Query("SELECT ta.contentHash, COUNT(ta) FROM TaskAttachment ta WHERE ta.contentHash IN :contentHashes "
+        + "GROUP BY ta.contentHash")
+    List<Object[]> countByContentHashes(@Param("contentHashes") Collection<String> contentHashes);
+    
+    long countByContentHash(String contentHash);
+    
+    boolean existsByFilePath(String filePath);
+    
+    @Query("SELECT ta.filePath FROM TaskAttachment ta WHERE ta.filePath IN :filePaths")
+    List<String> findFilePathsIn(@Param("filePaths") Collection<String> filePaths);
+    
+    List<TaskAttachment> findByTaskIdAndIdGreaterThanOrderByIdAsc(Long taskId, Long afterId, Pageable pageable);
+    
+    /**
+     * Keyset page of a project's attachments, with their tasks
+     */
+    @Query("SELECT ta FROM TaskAttachment ta JOIN FETCH ta.task t WHERE t.project.id = :projectId AND ta.id > :afterId "
+        + "ORDER BY ta.id")
+    List<TaskAttachment> findProjectAttachmentsAfter(@Param("projectId") Long projectId, @Param("afterId") Long afterId,
+                                                     Pageable pageable);
+    
+    /**
+     * Attachments stored before content addressing, in id order
+     */
+    List<TaskAttachment> findByContentHashIsNullAndIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+    
+    boolean existsByContentHashIsNull();
     
     @Query("SELECT ta FROM TaskAttachment ta WHERE ta.task.id = :taskId AND ta.uploadedBy.id = :userId")
     List<TaskAttachment> findByTaskIdAndUploadedById(@Param("taskId") Long taskId, @Param("userId") Long userId);
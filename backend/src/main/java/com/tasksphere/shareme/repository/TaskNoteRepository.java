@@ -1,5 +1,6 @@
 package com.tasksphere.shareme.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,6 +41,25 @@ public interface TaskNoteRepository extends JpaRepository<TaskNote, Long> {
     @Query("SELECT DISTINCT tag FROM TaskNote tn JOIN tn.reminderTags tag WHERE tn.user.id = :userId ORDER BY tag")
     List<String> findDistinctTagsByUserId(@Param("userId") Long userId);
     
+    /**
+     * Every note of a user with its tags in one query, for building the search index
+     */
+    @Query("SELECT DISTINCT tn FROM TaskNote tn LEFT JOIN FETCH tn.reminderTags WHERE tn.user.id = :userId")
+    List<TaskNote> findByUserIdWithTags(@Param("userId") Long userId);
+    
+    /**
+     * Notes with their task and tags, for rendering search results
+     */
+    @Query("SELECT DISTINCT tn FROM TaskNote tn LEFT JOIN FETCH tn.task LEFT JOIN FETCH tn.reminderTags WHERE tn.id IN :ids")
+    List<TaskNote> findWithTaskAndTagsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Note count and highest note id of a user in one row, answered from idx_task_notes_user_updated.
+     * A search index built from a different count or highest id is stale.
+     */
+    @Query("SELECT COUNT(tn), MAX(tn.id) FROM TaskNote tn WHERE tn.user.id = :userId")
+    List<Object[]> findIndexSignature(@Param("userId") Long userId);
+    
     /**
      * Check if a user has a note for a specific task
      */
@@ -0,0 +1,33 @@
+package com.tasksphere.shareme.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tasksphere.shareme.entity.UserSessionWatermark;
+
+@Repository
+public interface UserSessionWatermarkRepository extends JpaRepository<UserSessionWatermark, Long> {
+    
+    /**
+     * Raise a user's watermark; it never moves back
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_session_watermarks (user_id, revoked_before, updated_at) "
+        + "VALUES (:userId, :revokedBefore, :updatedAt) "
+        + "ON DUPLICATE KEY UPDATE revoked_before = GREATEST(revoked_before, VALUES(revoked_before)), "
+        + "updated_at = VALUES(updated_at)", nativeQuery = true)
+    int raise(@Param("userId") Long userId, @Param("revokedBefore") LocalDateTime revokedBefore,
+              @Param("updatedAt") LocalDateTime updatedAt);
+    
+    List<UserSessionWatermark> findByRevokedBeforeAfter(LocalDateTime cutoff);
+    
+    List<UserSessionWatermark> findByUpdatedAtAfter(LocalDateTime since);
+}
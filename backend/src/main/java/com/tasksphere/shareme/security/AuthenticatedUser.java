@@ -0,0 +1,19 @@
+package com.tasksphere.shareme.security;
+
+import java.security.Principal;
+
+/**
+ * The caller of an authenticated request, as read from the access token.
+ * Set once by JwtAuthenticationFilter; inject it with @CurrentUser.
+ * tokenId is the token's jti (null for tokens issued before revocation existed);
+ * issuedAtMillis is epoch milliseconds and expiresAt epoch seconds.
+ */
+public record AuthenticatedUser(Long id, String email, String role, String tokenId, long issuedAtMillis,
+                                long expiresAt)
+        implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,89 @@
+package com.tasksphere.shareme.security;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt at a cost picked for this machine: at startup the encoder times a
+ * few hashes and takes the highest cost whose hash stays within the target
+ * time. The cost is part of every BCrypt hash ("$2a$12$..."), so hashes made
+ * at a lower cost are recognised and can be redone on the next login.
+ *
+ * Hashes are only ever upgraded. Nodes calibrate independently, and a node
+ * that picked a lower cost would otherwise downgrade, on every login it
+ * serves, what a faster node had just upgraded.
+ */
+public class CalibratedPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalibratedPasswordEncoder.class);
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$.{53}$");
+    private static final int PROBE_COST = 8;
+    private static final int PROBE_ROUNDS = 3;
+
+    private final int strength;
+
+    public CalibratedPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * An encoder whose hashes take at most targetMs here, between minCost and maxCost
+     */
+    public static CalibratedPasswordEncoder calibrate(long targetMs, int minCost, int maxCost) {
+        long probeNanos = timeHash(PROBE_COST);
+        // Each cost step doubles the work
+        int cost = PROBE_COST;
+        double estimatedMs = probeNanos / 1_000_000.0;
+        while (cost < maxCost && estimatedMs * 2 <= targetMs) {
+            cost++;
+            estimatedMs *= 2;
+        }
+        cost = Math.max(minCost, cost);
+        logger.info("BCrypt cost calibrated to {} (about {} ms per hash, target {} ms)",
+            cost, Math.round(probeNanos / 1_000_000.0 * (1L << (cost - PROBE_COST))), targetMs);
+        return new CalibratedPasswordEncoder(cost);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * The cost a BCrypt hash was made with, or -1 when it is not a BCrypt hash
+     */
+    public static int costOf(String hash) {
+        if (hash == null) {
+            return -1;
+        }
+        Matcher matcher = BCRYPT_HASH.matcher(hash);
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    /**
+     * Whether a hash was made at a lower cost than this encoder's
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int cost = costOf(encodedPassword);
+        return cost != -1 && cost < strength;
+    }
+
+    private static long timeHash(int cost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(cost);
+        // The first round warms up the JIT and is not counted
+        probe.encode("calibration");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < PROBE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
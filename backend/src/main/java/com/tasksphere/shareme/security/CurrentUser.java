@@ -0,0 +1,21 @@
+package com.tasksphere.shareme.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injects the authenticated caller into a controller method parameter, either as
+ * an AuthenticatedUser or as a User entity reference (loaded lazily). Answers 401
+ * when nobody is authenticated, unless required is false, in which case the
+ * parameter is null.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+
+    boolean required() default true;
+}
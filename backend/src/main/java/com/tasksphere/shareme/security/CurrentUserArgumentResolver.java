@@ -0,0 +1,54 @@
+package com.tasksphere.shareme.security;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.tasksphere.shareme.entity.User;
+import com.tasksphere.shareme.repository.UserRepository;
+
+/**
+ * Resolves @CurrentUser parameters from the principal JwtAuthenticationFilter
+ * put in the security context, so controllers never read the token themselves.
+ */
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final UserRepository userRepository;
+
+    public CurrentUserArgumentResolver(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public boolean supportsParameter(@NonNull MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+            && (type == AuthenticatedUser.class || type == User.class);
+    }
+
+    @Override
+    public Object resolveArgument(@NonNull MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  @NonNull NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        AuthenticatedUser principal = authentication != null
+                && authentication.getPrincipal() instanceof AuthenticatedUser user ? user : null;
+        if (principal == null) {
+            if (parameter.getParameterAnnotation(CurrentUser.class).required()) {
+                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required");
+            }
+            return null;
+        }
+        if (parameter.getParameterType() == User.class) {
+            // A proxy: no query unless something beyond the id is read
+            return userRepository.getReferenceById(principal.id());
+        }
+        return principal;
+    }
+}
@@ -0,0 +1,100 @@
+package com.tasksphere.shareme.security;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Short-lived HMAC-signed URLs under /files/ for stored blobs and thumbnails.
+ * The URL carries everything needed to serve the file (hash, filename, type,
+ * expiry), so it can be checked without a database lookup or a JWT.
+ *
+ * Expiry is rounded up to the next TTL boundary, so URLs handed out within one
+ * window are identical and browsers can cache them.
+ */
+@Component
+public class DownloadUrlSigner {
+
+    public static final String PATH_PREFIX = "/files/";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    // Empty derives a key from the JWT secret
+    @Value("${app.download.signing-secret:}")
+    private String signingSecret;
+
+    @Value("${app.jwt.secret}")
+    private String jwtSecret;
+
+    @Value("${app.download.url-ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private SecretKeySpec key;
+
+    /**
+     * A signed URL and when it stops working
+     */
+    public record SignedUrl(String url, Instant expiresAt) {}
+
+    @PostConstruct
+    public void initialize() {
+        byte[] material = signingSecret.isBlank()
+            // A separate key, so a download signature can never pass as a JWT signature or vice versa
+            ? hmac(new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), ALGORITHM), "download-urls")
+            : signingSecret.getBytes(StandardCharsets.UTF_8);
+        key = new SecretKeySpec(material, ALGORITHM);
+    }
+
+    /**
+     * Sign a URL for a stored file. The path is relative to /files/, e.g. the content hash.
+     */
+    public SignedUrl sign(String path, String filename, String contentType) {
+        long now = Instant.now().getEpochSecond();
+        long expires = (now / ttlSeconds + 2) * ttlSeconds;
+        String fullPath = PATH_PREFIX + path;
+        String signature = signature(fullPath, expires, filename, contentType);
+        String url = fullPath
+            + "?exp=" + expires
+            + "&name=" + URLEncoder.encode(filename, StandardCharsets.UTF_8)
+            + "&type=" + URLEncoder.encode(contentType, StandardCharsets.UTF_8)
+            + "&sig=" + signature;
+        return new SignedUrl(url, Instant.ofEpochSecond(expires));
+    }
+
+    /**
+     * Check a signature in constant time. Expired URLs never verify.
+     */
+    public boolean verify(String fullPath, long expires, String filename, String contentType, String signature) {
+        if (expires < Instant.now().getEpochSecond() || signature == null) {
+            return false;
+        }
+        byte[] expected = signature(fullPath, expires, filename, contentType).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String signature(String fullPath, long expires, String filename, String contentType) {
+        String payload = fullPath + "\n" + expires + "\n" + filename + "\n" + contentType;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hmac(key, payload));
+    }
+
+    private static byte[] hmac(SecretKeySpec key, String payload) {
+        try {
+            // Mac instances are not thread-safe, and creating one is cheap next to serving a file
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.tasksphere.shareme.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.SecureRandom;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.tasksphere.shareme.concurrency.DatabaseNamedLock;
+import com.tasksphere.shareme.entity.JwtSigningKey;
+import com.tasksphere.shareme.repository.JwtSigningKeyRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * RSA key pairs for access tokens, shared by all nodes through jwt_signing_keys.
+ *
+ * Every node keeps the unexpired keys in memory and reloads them every minute.
+ * A rotation publishes the new key publish-delay ahead of signing with it, so
+ * every node and every JWKS consumer knows it before the first token arrives;
+ * the old key keeps verifying until the tokens it signed have expired.
+ */
+@Component
+public class JwtKeyManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyManager.class);
+
+    public static final String ALGORITHM = "RS256";
+    private static final String LOCK_NAME = "tasksphere.jwt-key-rotation";
+    private static final int RSA_KEY_BITS = 2048;
+    private static final int GCM_IV_BYTES = 12;
+    private static final long UNKNOWN_KID_RELOAD_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    @Autowired
+    private JwtSigningKeyRepository jwtSigningKeyRepository;
+
+    @Autowired
+    private DatabaseNamedLock databaseNamedLock;
+
+    @Value("${app.jwt.signing-algorithm:RS256}")
+    private String signingAlgorithm;
+
+    // Empty derives the key that encrypts private keys at rest from the JWT secret
+    @Value("${app.jwt.keys.encryption-secret:}")
+    private String encryptionSecret;
+
+    @Value("${app.jwt.secret}")
+    private String jwtSecret;
+
+    @Value("${app.jwt.keys.rotation-days:30}")
+    private long rotationDays;
+
+    @Value("${app.jwt.keys.publish-delay-minutes:10}")
+    private long publishDelayMinutes;
+
+    @Value("${app.jwt.access-token-minutes}")
+    private int accessTokenMinutes;
+
+    private SecretKeySpec encryptionKey;
+    private volatile KeySet keys = new KeySet(List.of(), Map.of());
+    private final AtomicLong lastUnknownKidReload = new AtomicLong(System.nanoTime() - UNKNOWN_KID_RELOAD_INTERVAL_NANOS);
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    /**
+     * A key that may sign from activeFrom
+     */
+    public record Signer(String kid, PrivateKey privateKey, LocalDateTime activeFrom) {}
+
+    // Signers newest first; verification keys by kid
+    private record KeySet(List<Signer> signers, Map<String, RSAPublicKey> verificationKeys) {}
+
+    @PostConstruct
+    public void initialize() {
+        if (!isEnabled()) {
+            return;
+        }
+        String secret = encryptionSecret.isBlank() ? jwtSecret : encryptionSecret;
+        encryptionKey = new SecretKeySpec(hmac(secret.getBytes(StandardCharsets.UTF_8), "jwt-signing-keys"), "AES");
+        reload();
+        if (keys.signers().isEmpty()) {
+            // First start: sign right away. Nodes starting together may each add a key, which is harmless.
+            createKey(LocalDateTime.now());
+            reload();
+        }
+    }
+
+    public boolean isEnabled() {
+        return ALGORITHM.equalsIgnoreCase(signingAlgorithm);
+    }
+
+    /**
+     * The newest key whose active_from has passed
+     */
+    public Signer currentSigner() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Signer signer : keys.signers()) {
+            if (!signer.activeFrom().isAfter(now)) {
+                return signer;
+            }
+        }
+        throw new IllegalStateException("No active JWT signing key");
+    }
+
+    /**
+     * The public key for a kid. An unknown kid triggers a reload, at most every few
+     * seconds, in case another node rotated since the last one.
+     */
+    public Optional<RSAPublicKey> verificationKey(String kid) {
+        if (kid == null) {
+            return Optional.empty();
+        }
+        RSAPublicKey key = keys.verificationKeys().get(kid);
+        if (key == null && reloadForUnknownKid()) {
+            key = keys.verificationKeys().get(kid);
+        }
+        return Optional.ofNullable(key);
+    }
+
+    /**
+     * Every unexpired public key as a JSON Web Key Set
+     */
+    public Map<String, Object> jwks() {
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        keys.verificationKeys().forEach((kid, key) -> {
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "RSA");
+            jwk.put("use", "sig");
+            jwk.put("alg", ALGORITHM);
+            jwk.put("kid", kid);
+            jwk.put("n", encoder.encodeToString(unsigned(key.getModulus().toByteArray())));
+            jwk.put("e", encoder.encodeToString(unsigned(key.getPublicExponent().toByteArray())));
+            jwks.add(jwk);
+        });
+        return Map.of("keys", jwks);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.keys.reload-ms:60000}", initialDelayString = "${app.jwt.keys.reload-ms:60000}")
+    public void scheduledReload() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            logger.warn("Could not reload JWT signing keys; keeping the current ones", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.keys.rotation-check-ms:3600000}",
+               initialDelayString = "${app.jwt.keys.rotation-check-ms:3600000}")
+    public void scheduledRotation() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            databaseNamedLock.runExclusively(LOCK_NAME, this::rotateIfDue);
+        } catch (RuntimeException e) {
+            logger.error("JWT key rotation failed", e);
+        }
+    }
+
+    /**
+     * Add a successor once the newest key is rotation-days old, and drop keys that expired
+     */
+    public void rotateIfDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<JwtSigningKey> unexpired = jwtSigningKeyRepository.findUnexpired(now);
+        LocalDateTime activeFrom = now.plusMinutes(publishDelayMinutes);
+        if (unexpired.isEmpty() || !unexpired.get(0).getActiveFrom().plusDays(rotationDays).isAfter(activeFrom)) {
+            rotate();
+        }
+        int deleted = jwtSigningKeyRepository.deleteExpired(now);
+        if (deleted > 0) {
+            logger.info("Removed {} expired JWT signing keys", deleted);
+        }
+        reload();
+    }
+
+    /**
+     * Add a key that signs after the publish delay. Older keys verify until the
+     * last token they sign before then has expired.
+     */
+    public void rotate() {
+        LocalDateTime activeFrom = LocalDateTime.now().plusMinutes(publishDelayMinutes);
+        String kid = createKey(activeFrom);
+        // A minute of leeway for clocks between nodes
+        jwtSigningKeyRepository.expireAllExcept(kid, activeFrom.plusMinutes(accessTokenMinutes + 1));
+        logger.info("Rotated JWT signing key; {} signs from {}", kid, activeFrom);
+        reload();
+    }
+
+    private void reload() {
+        List<Signer> signers = new ArrayList<>();
+        Map<String, RSAPublicKey> verificationKeys = new LinkedHashMap<>();
+        for (JwtSigningKey key : jwtSigningKeyRepository.findUnexpired(LocalDateTime.now())) {
+            if (!ALGORITHM.equals(key.getAlgorithm())) {
+                continue;
+            }
+            try {
+                verificationKeys.put(key.getKid(), decodePublicKey(key.getPublicKey()));
+                signers.add(new Signer(key.getKid(), decryptPrivateKey(key.getKid(), key.getPrivateKey()),
+                    key.getActiveFrom()));
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                logger.error("Skipping unreadable JWT signing key {}; is app.jwt.keys.encryption-secret the same "
+                    + "on every node?", key.getKid(), e);
+            }
+        }
+        keys = new KeySet(List.copyOf(signers), verificationKeys);
+    }
+
+    private boolean reloadForUnknownKid() {
+        long now = System.nanoTime();
+        long last = lastUnknownKidReload.get();
+        if (now - last < UNKNOWN_KID_RELOAD_INTERVAL_NANOS || !lastUnknownKidReload.compareAndSet(last, now)) {
+            return false;
+        }
+        reload();
+        return true;
+    }
+
+    private String createKey(LocalDateTime activeFrom) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(RSA_KEY_BITS, secureRandom);
+            KeyPair pair = generator.generateKeyPair();
+            String kid = UUID.randomUUID().toString();
+            String publicKey = Base64.getEncoder().encodeToString(pair.getPublic().getEncoded());
+            String privateKey = encryptPrivateKey(kid, pair.getPrivate().getEncoded());
+            jwtSigningKeyRepository.save(new JwtSigningKey(kid, ALGORITHM, publicKey, privateKey, activeFrom));
+            return kid;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not generate a JWT signing key", e);
+        }
+    }
+
+    private String encryptPrivateKey(String kid, byte[] pkcs8) throws GeneralSecurityException {
+        byte[] iv = new byte[GCM_IV_BYTES];
+        secureRandom.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(128, iv));
+        // Bound to the kid, so a private key cannot be swapped into another row
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        byte[] encrypted = cipher.doFinal(pkcs8);
+        return Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + encrypted.length)
+            .put(iv).put(encrypted).array());
+    }
+
+    private PrivateKey decryptPrivateKey(String kid, String stored) throws GeneralSecurityException {
+        byte[] data = Base64.getDecoder().decode(stored);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(128, data, 0, GCM_IV_BYTES));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        byte[] pkcs8 = cipher.doFinal(data, GCM_IV_BYTES, data.length - GCM_IV_BYTES);
+        return KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(pkcs8));
+    }
+
+    private static RSAPublicKey decodePublicKey(String stored) throws GeneralSecurityException {
+        byte[] x509 = Base64.getDecoder().decode(stored);
+        return (RSAPublicKey) KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(x509));
+    }
+
+    /**
+     * BigInteger bytes without the sign byte, as JWK requires
+     */
+    private static byte[] unsigned(byte[] bytes) {
+        if (bytes.length > 1 && bytes[0] == 0) {
+            byte[] trimmed = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 1, trimmed, 0, trimmed.length);
+            return trimmed;
+        }
+        return bytes;
+    }
+
+    private static byte[] hmac(byte[] key, String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
@@ -2,69 +2,176 @@ package com.tasksphere.shareme.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
+/**
+ * Issues and verifies access tokens. With RS256 (the default) tokens are signed
+ * with the current key of JwtKeyManager and carry its kid, so anyone holding the
+ * published JWKS can verify them. HS256 tokens signed with the shared secret are
+ * rejected unless app.jwt.accept-hs256 is turned on for a rolling upgrade.
+ */
 @Component
 public class JwtTokenProvider {
     
+    private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
+    
+    private static final String ISSUED_AT_MILLIS = "iat_ms";
+    
+    @Autowired
+    private JwtKeyManager keyManager;
+    
+    @Autowired
+    private TokenRevocationManager revocationManager;
+    
     @Value("${app.jwt.secret}")
     private String jwtSecret;
     
+    @Value("${app.jwt.signing-algorithm:RS256}")
+    private String signingAlgorithm;
+    
+    @Value("${app.jwt.accept-hs256:false}")
+    private boolean acceptHs256;
+    
     @Value("${app.jwt.access-token-minutes}")
     private int accessTokenMinutes;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${app.jwt.verified-cache.max-entries:10000}")
+    private int verifiedCacheMaxEntries;
+    
+    // Built once; all are immutable or thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private VerifiedTokenCache verifiedTokens;
+    
+    @PostConstruct
+    public void initialize() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return verificationKey(header);
+                    }
+                })
+                .build();
+        verifiedTokens = new VerifiedTokenCache(verifiedCacheMaxEntries);
+        if (usesKeyPairs() && acceptHs256) {
+            logger.warn("app.jwt.accept-hs256 is on: tokens signed with the shared secret are still accepted. "
+                    + "Turn it off once every node signs with RS256.");
+        }
     }
     
     public String generateAccessToken(Long userId, String email, String firstName, String lastName, String role) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + accessTokenMinutes * 60 * 1000L);
         
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(email)
                 .claim("uid", userId)
                 .claim("name", firstName + " " + lastName)
                 .claim("role", role)
+                // iat has second precision; revocation watermarks need the exact instant
+                .claim(ISSUED_AT_MILLIS, now.getTime())
                 .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setExpiration(expiryDate);
+        if (!usesKeyPairs()) {
+            return builder.signWith(signingKey, SignatureAlgorithm.HS256).compact();
+        }
+        JwtKeyManager.Signer signer = keyManager.currentSigner();
+        return builder
+                .setHeaderParam(JwsHeader.KEY_ID, signer.kid())
+                .signWith(signer.privateKey(), SignatureAlgorithm.RS256)
                 .compact();
     }
     
+    /**
+     * The key a token claims to be signed with. The parser then checks that the
+     * key type matches the token's algorithm, so an HS256 token can never be
+     * verified with a public key.
+     */
+    private Key verificationKey(JwsHeader<?> header) {
+        if (SignatureAlgorithm.HS256.getValue().equals(header.getAlgorithm())) {
+            if (!usesKeyPairs() || acceptHs256) {
+                return signingKey;
+            }
+            throw new UnsupportedJwtException("HS256 tokens are no longer accepted");
+        }
+        if (!usesKeyPairs()) {
+            throw new UnsupportedJwtException("Only HS256 tokens are accepted");
+        }
+        return keyManager.verificationKey(header.getKeyId())
+                .orElseThrow(() -> new UnsupportedJwtException("Unknown signing key " + header.getKeyId()));
+    }
+    
+    private boolean usesKeyPairs() {
+        return JwtKeyManager.ALGORITHM.equalsIgnoreCase(signingAlgorithm);
+    }
+    
+    /**
+     * Verify the token and read the caller from it in a single parse.
+     * Tokens seen before are answered from the verified-token cache until they expire.
+     * Empty when the token is malformed, badly signed, expired or revoked.
+     */
+    public Optional<AuthenticatedUser> parseAccessToken(String token) {
+        Optional<AuthenticatedUser> user = verifiedTokens.get(token);
+        if (user.isEmpty()) {
+            user = verify(token);
+        }
+        // Checked on cache hits too, so a revocation takes effect on the next request
+        return user.filter(caller -> !revocationManager.isRevoked(caller));
+    }
+    
+    private Optional<AuthenticatedUser> verify(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Long userId = claims.get("uid", Long.class);
+            if (userId == null || claims.getSubject() == null) {
+                return Optional.empty();
+            }
+            Long issuedAtMillis = claims.get(ISSUED_AT_MILLIS, Long.class);
+            if (issuedAtMillis == null) {
+                // Older tokens: the start of their second, so a watermark in that second still revokes them
+                issuedAtMillis = claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0;
+            }
+            long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() / 1000 : 0;
+            AuthenticatedUser user = new AuthenticatedUser(userId, claims.getSubject(), claims.get("role", String.class),
+                    claims.getId(), issuedAtMillis, expiresAt);
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(token, user, claims.getExpiration().getTime());
+            }
+            return Optional.of(user);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+    
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        
-        return claims.getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
     
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        
-        return claims.get("uid", Long.class);
+        return parser.parseClaimsJws(token).getBody().get("uid", Long.class);
     }
     
     public boolean validateToken(String authToken) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
+            parser.parseClaimsJws(authToken);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,159 @@
+package com.tasksphere.shareme.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory copy of the revoked tokens and session watermarks, answering
+ * "is this token revoked?" without locks or allocation.
+ *
+ * Revoked token ids sit in an exact map behind a Bloom filter: nearly every
+ * token is not revoked, and the filter says so after a few bit probes without
+ * touching the map. The filter cannot forget, so it is rebuilt, at twice the
+ * size when needed, whenever expired ids are pruned or it fills up.
+ */
+public class RevocationList {
+
+    private static final int DEFAULT_EXPECTED_ENTRIES = 10_000;
+
+    // jti -> exp in epoch seconds, so expired ids can be pruned
+    private final ConcurrentHashMap<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    // userId -> tokens issued at or before this epoch millisecond are revoked
+    private final ConcurrentHashMap<Long, Long> watermarks = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter = new BloomFilter(DEFAULT_EXPECTED_ENTRIES);
+    private final AtomicInteger filterRebuilds = new AtomicInteger();
+
+    public boolean isRevoked(AuthenticatedUser user) {
+        Long watermark = watermarks.get(user.id());
+        if (watermark != null && user.issuedAtMillis() <= watermark) {
+            return true;
+        }
+        String tokenId = user.tokenId();
+        return tokenId != null && filter.mightContain(tokenId) && revokedTokens.containsKey(tokenId);
+    }
+
+    public void revokeToken(String tokenId, long expiresAtSeconds) {
+        // Map first: a reader that sees the filter bit also finds the entry
+        if (revokedTokens.put(tokenId, expiresAtSeconds) == null) {
+            BloomFilter current = filter;
+            current.add(tokenId);
+            if (current.isFull()) {
+                rebuildFilter();
+            }
+        }
+    }
+
+    public void raiseWatermark(Long userId, long revokedBeforeMillis) {
+        watermarks.merge(userId, revokedBeforeMillis, Math::max);
+    }
+
+    /**
+     * Drop token ids past their exp and watermarks older than any live token
+     */
+    public void prune(long nowMillis, long maxTokenLifetimeMillis) {
+        boolean removed = revokedTokens.values().removeIf(exp -> exp * 1000 < nowMillis);
+        watermarks.values().removeIf(watermark -> watermark + maxTokenLifetimeMillis < nowMillis);
+        if (removed) {
+            rebuildFilter();
+        }
+    }
+
+    public int revokedTokenCount() {
+        return revokedTokens.size();
+    }
+
+    public int watermarkCount() {
+        return watermarks.size();
+    }
+
+    /**
+     * Number of times the filter has been rebuilt, for tests
+     */
+    int filterRebuilds() {
+        return filterRebuilds.get();
+    }
+
+    private synchronized void rebuildFilter() {
+        // Room for as many new ids again, so growth rebuilds stay logarithmic in the list size
+        BloomFilter rebuilt = new BloomFilter(Math.max(DEFAULT_EXPECTED_ENTRIES, revokedTokens.size() * 2));
+        revokedTokens.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+        // A revocation racing with the first pass may have gone into the old filter only; a second pass catches it.
+        // Those ids are already counted, so the second pass must not count them again.
+        revokedTokens.keySet().forEach(rebuilt::set);
+        filterRebuilds.incrementAndGet();
+    }
+
+    /**
+     * Fixed-size Bloom filter for about 1% false positives at its expected size
+     */
+    static final class BloomFilter {
+
+        private static final int HASHES = 7;
+
+        private final AtomicLongArray bits;
+        private final int bitCount;
+        private final int expectedEntries;
+        private final AtomicInteger added = new AtomicInteger();
+
+        BloomFilter(int expectedEntries) {
+            this.expectedEntries = expectedEntries;
+            // m = -n ln(0.01) / ln(2)^2, about 9.6 bits per entry
+            long wanted = (long) Math.ceil(expectedEntries * 9.6);
+            this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, wanted));
+            this.bits = new AtomicLongArray((bitCount + 63) / 64);
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= HASHES; i++) {
+                int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+                if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void add(String key) {
+            set(key);
+            added.incrementAndGet();
+        }
+
+        /**
+         * Set the key's bits without counting it towards the expected size
+         */
+        void set(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= HASHES; i++) {
+                int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+                long mask = 1L << bit;
+                bits.getAndUpdate(bit >>> 6, word -> word | mask);
+            }
+        }
+
+        boolean isFull() {
+            return added.get() > expectedEntries;
+        }
+
+        /**
+         * 64-bit mix of the key's chars (FNV-1a followed by a finalizer), giving two independent 32-bit hashes
+         */
+        private static long hash(String key) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                hash ^= key.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
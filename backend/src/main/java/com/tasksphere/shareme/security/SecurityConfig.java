@@ -3,13 +3,12 @@ package com.tasksphere.shareme.security;
 import java.util.Arrays;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -23,9 +22,25 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
     
+    // 0 calibrates the cost at startup to the target time
+    @Value("${app.auth.bcrypt.cost:0}")
+    private int bcryptCost;
+    
+    @Value("${app.auth.bcrypt.target-ms:250}")
+    private long bcryptTargetMs;
+    
+    @Value("${app.auth.bcrypt.min-cost:10}")
+    private int bcryptMinCost;
+    
+    @Value("${app.auth.bcrypt.max-cost:14}")
+    private int bcryptMaxCost;
+    
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public CalibratedPasswordEncoder passwordEncoder() {
+        if (bcryptCost > 0) {
+            return new CalibratedPasswordEncoder(bcryptCost);
+        }
+        return CalibratedPasswordEncoder.calibrate(bcryptTargetMs, bcryptMinCost, bcryptMaxCost);
     }
     
     @Bean
@@ -36,6 +51,7 @@ public class SecurityConfig {
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/task-notes/**").permitAll() // Temporarily allow unauthenticated access for testing
+                .requestMatchers("/.well-known/jwks.json").permitAll()
                 .requestMatchers("/v3/api-docs/**").permitAll()
                 .requestMatchers("/swagger-ui/**").permitAll()
                 .requestMatchers("/swagger-ui.html").permitAll()
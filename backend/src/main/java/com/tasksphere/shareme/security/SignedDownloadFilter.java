@@ -0,0 +1,110 @@
+package com.tasksphere.shareme.security;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.tasksphere.shareme.service.AttachmentBlobStore;
+import com.tasksphere.shareme.service.AttachmentContentCache;
+import com.tasksphere.shareme.service.AttachmentContentCache.CachedContent;
+import com.tasksphere.shareme.util.RangeResponseWriter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves signed /files/ URLs (see DownloadUrlSigner) straight from storage.
+ * It runs ahead of Spring Security and never continues the chain: the
+ * signature is the authorization, and the hash in the path locates the file
+ * without touching the database.
+ */
+public class SignedDownloadFilter extends OncePerRequestFilter {
+
+    private static final Pattern FILE_PATH = Pattern.compile("/files/([0-9a-f]{64})(/thumbnail)?");
+
+    private final DownloadUrlSigner downloadUrlSigner;
+    private final AttachmentBlobStore attachmentBlobStore;
+    private final AttachmentContentCache attachmentContentCache;
+
+    public SignedDownloadFilter(DownloadUrlSigner downloadUrlSigner, AttachmentBlobStore attachmentBlobStore,
+                                AttachmentContentCache attachmentContentCache) {
+        this.downloadUrlSigner = downloadUrlSigner;
+        this.attachmentBlobStore = attachmentBlobStore;
+        this.attachmentContentCache = attachmentContentCache;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            response.setHeader(HttpHeaders.ALLOW, "GET, HEAD");
+            response.setStatus(HttpStatus.METHOD_NOT_ALLOWED.value());
+            return;
+        }
+
+        // Statuses are set directly: an error dispatch would go through Spring Security
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Matcher matcher = FILE_PATH.matcher(path);
+        if (!matcher.matches()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        String filename = request.getParameter("name");
+        String contentType = request.getParameter("type");
+        long expires;
+        try {
+            expires = Long.parseLong(request.getParameter("exp"));
+        } catch (NumberFormatException e) {
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+        if (filename == null || contentType == null
+                || !downloadUrlSigner.verify(path, expires, filename, contentType, request.getParameter("sig"))) {
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+
+        String contentHash = matcher.group(1);
+        boolean thumbnail = matcher.group(2) != null;
+        Optional<String> location = thumbnail
+            ? attachmentBlobStore.findThumbnail(contentHash)
+            : attachmentBlobStore.locateBlob(contentHash);
+        if (location.isEmpty()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        Optional<URI> directUrl = attachmentBlobStore.downloadUrl(location.get(), filename, contentType);
+        if (directUrl.isPresent()) {
+            response.sendRedirect(directUrl.get().toString());
+            return;
+        }
+        Optional<Path> file = attachmentBlobStore.localFile(location.get()).filter(Files::isReadable);
+        if (file.isEmpty()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        String etag = thumbnail ? "\"" + contentHash + "-thumb\"" : "\"" + contentHash + "\"";
+        Optional<CachedContent> cached = thumbnail
+            ? Optional.empty()
+            : attachmentContentCache.get(contentHash, file.get());
+        if (cached.isPresent()) {
+            RangeResponseWriter.write(request, response, cached.get().content(), cached.get().lastModified(),
+                contentType, filename, etag);
+            return;
+        }
+        RangeResponseWriter.write(request, response, file.get(), contentType, filename, etag);
+    }
+}
@@ -0,0 +1,125 @@
+package com.tasksphere.shareme.security;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.tasksphere.shareme.entity.RevokedToken;
+import com.tasksphere.shareme.entity.UserSessionWatermark;
+import com.tasksphere.shareme.repository.RevokedTokenRepository;
+import com.tasksphere.shareme.repository.UserSessionWatermarkRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Revokes access tokens one by one (logout) or all tokens of a user issued up
+ * to now (logout everywhere, password reset, compromised account).
+ *
+ * Revocations are written to the database and applied to this node's
+ * RevocationList at once; other nodes pick them up on their next sync, a few
+ * seconds later. Each sync fetches only rows changed since the previous one,
+ * looking back a little further to allow for clock differences between nodes.
+ */
+@Component
+public class TokenRevocationManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationManager.class);
+
+    private static final long SYNC_OVERLAP_SECONDS = 30;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private UserSessionWatermarkRepository watermarkRepository;
+
+    @Value("${app.jwt.access-token-minutes:15}")
+    private int accessTokenMinutes;
+
+    private final RevocationList revocationList = new RevocationList();
+    private volatile LocalDateTime lastSync;
+
+    @PostConstruct
+    public void initialize() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(startedAt)) {
+            apply(token);
+        }
+        for (UserSessionWatermark watermark : watermarkRepository.findByRevokedBeforeAfter(
+                startedAt.minusMinutes(accessTokenMinutes + 1))) {
+            apply(watermark);
+        }
+        lastSync = startedAt;
+        logger.info("Loaded {} revoked tokens and {} session watermarks",
+            revocationList.revokedTokenCount(), revocationList.watermarkCount());
+    }
+
+    public boolean isRevoked(AuthenticatedUser user) {
+        return revocationList.isRevoked(user);
+    }
+
+    /**
+     * Revoke one access token until it expires
+     */
+    public void revokeToken(AuthenticatedUser user) {
+        if (user.tokenId() == null) {
+            // Issued before tokens carried a jti; only a watermark can revoke it
+            revokeAllSessions(user.id());
+            return;
+        }
+        revokedTokenRepository.insertIgnore(user.tokenId(), user.id(), toLocal(user.expiresAt()), LocalDateTime.now());
+        revocationList.revokeToken(user.tokenId(), user.expiresAt());
+    }
+
+    /**
+     * Revoke every access token of the user issued up to now, to the millisecond,
+     * so a login right after it keeps working
+     */
+    public void revokeAllSessions(Long userId) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        watermarkRepository.raise(userId, now, now);
+        revocationList.raiseWatermark(userId, toEpochMilli(now));
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.sync-ms:5000}", initialDelayString = "${app.jwt.revocation.sync-ms:5000}")
+    public void sync() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = lastSync.minusSeconds(SYNC_OVERLAP_SECONDS);
+        try {
+            revokedTokenRepository.findByRevokedAtAfter(since).forEach(this::apply);
+            watermarkRepository.findByUpdatedAtAfter(since).forEach(this::apply);
+            lastSync = startedAt;
+        } catch (RuntimeException e) {
+            logger.warn("Token revocation sync failed; retrying from {}", since, e);
+        }
+        revocationList.prune(System.currentTimeMillis(), (accessTokenMinutes * 60L + 60) * 1000);
+    }
+
+    private void apply(RevokedToken token) {
+        revocationList.revokeToken(token.getJti(), toEpochSecond(token.getExpiresAt()));
+    }
+
+    private void apply(UserSessionWatermark watermark) {
+        revocationList.raiseWatermark(watermark.getUserId(), toEpochMilli(watermark.getRevokedBefore()));
+    }
+
+    private static long toEpochSecond(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocal(long epochSecond) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,89 @@
+package com.tasksphere.shareme.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Access tokens whose signature has already been verified, so a session's
+ * later requests cost a hash lookup instead of a full parse and HMAC check.
+ *
+ * Keys are SHA-256 digests, so raw bearer tokens are never kept in memory.
+ * Entries expire at the token's own exp. They are never dropped on revocation:
+ * JwtTokenProvider checks the revocation list on cache hits too. Reads are lock-free;
+ * when the cache is full, expired entries are swept at most once a second and
+ * new tokens are simply not cached until there is room again.
+ */
+public class VerifiedTokenCache {
+
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+
+    private record Entry(AuthenticatedUser user, long expiresAtMillis) {}
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final AtomicLong lastSweep = new AtomicLong();
+
+    /**
+     * @param maxEntries upper bound on cached tokens; 0 disables the cache
+     */
+    public VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Optional<AuthenticatedUser> get(String token) {
+        if (maxEntries <= 0) {
+            return Optional.empty();
+        }
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.user());
+    }
+
+    public void put(String token, AuthenticatedUser user, long expiresAtMillis) {
+        long now = System.currentTimeMillis();
+        if (maxEntries <= 0 || expiresAtMillis <= now) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            sweepExpired(now);
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(digest(token), new Entry(user, expiresAtMillis));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void sweepExpired(long now) {
+        long last = lastSweep.get();
+        // One thread sweeps per interval; the others carry on without caching
+        if (now - last < SWEEP_INTERVAL_MILLIS || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        entries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.tasksphere.shareme.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.FileTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.tasksphere.shareme.entity.Task;
+import com.tasksphere.shareme.entity.TaskAttachment;
+import com.tasksphere.shareme.exception.ResourceNotFoundException;
+import com.tasksphere.shareme.repository.TaskAttachmentRepository;
+import com.tasksphere.shareme.repository.TaskRepository;
+
+/**
+ * Streams all attachments of a task or project as a ZIP archive built on the fly.
+ * Rows are read in keyset batches and each file is copied straight into the
+ * response, so memory stays flat however large the archive gets and the first
+ * bytes leave before the last file is opened.
+ */
+@Service
+public class AttachmentArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentArchiveService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_NAME_LENGTH = 150;
+
+    // Formats that are already compressed; deflating them again costs CPU for nothing
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+        "jpg", "jpeg", "png", "gif", "webp", "mp3", "mp4", "avi", "mov", "wmv", "flv", "webm",
+        "zip", "gz", "7z", "rar", "docx", "xlsx", "pptx", "pdf"
+    );
+
+    @Autowired
+    private TaskAttachmentRepository taskAttachmentRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private AttachmentBlobStore attachmentBlobStore;
+
+    @Value("${app.attachments.archive.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * Fail before any bytes are written when the task does not exist
+     */
+    public void requireTask(Long taskId) {
+        if (!taskRepository.existsById(taskId)) {
+            throw new ResourceNotFoundException("Task not found with id: " + taskId);
+        }
+    }
+
+    /**
+     * Write every attachment of a task into one flat archive
+     */
+    public void writeTaskArchive(Long taskId, OutputStream out) throws IOException {
+        writeArchive(out, afterId -> taskAttachmentRepository.findByTaskIdAndIdGreaterThanOrderByIdAsc(
+            taskId, afterId, PageRequest.of(0, batchSize)), attachment -> "");
+    }
+
+    /**
+     * Write every attachment of a project, with one folder per task. Access is checked by the caller.
+     */
+    public void writeProjectArchive(Long projectId, OutputStream out) throws IOException {
+        writeArchive(out, afterId -> taskAttachmentRepository.findProjectAttachmentsAfter(
+            projectId, afterId, PageRequest.of(0, batchSize)), attachment -> taskFolder(attachment.getTask()));
+    }
+
+    private void writeArchive(OutputStream out, Function<Long, List<TaskAttachment>> nextBatch,
+                              Function<TaskAttachment, String> folderOf) throws IOException {
+        Set<String> usedNames = new HashSet<>();
+        int written = 0;
+        int skipped = 0;
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        long afterId = 0;
+        List<TaskAttachment> batch;
+        do {
+            batch = nextBatch.apply(afterId);
+            for (TaskAttachment attachment : batch) {
+                if (writeEntry(zip, attachment, folderOf.apply(attachment), usedNames)) {
+                    written++;
+                } else {
+                    skipped++;
+                }
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == batchSize);
+        // Finish rather than close: the servlet container owns the response stream
+        zip.finish();
+        zip.flush();
+        if (skipped > 0) {
+            logger.warn("Archive written with {} files; {} missing files were skipped", written, skipped);
+        }
+    }
+
+    private boolean writeEntry(ZipOutputStream zip, TaskAttachment attachment, String folder,
+                               Set<String> usedNames) throws IOException {
+        InputStream in;
+        try {
+            // Open first, so a missing file is skipped without leaving an empty entry behind
+            in = attachmentBlobStore.open(attachment.getFilePath());
+        } catch (NoSuchFileException e) {
+            logger.warn("Attachment {} is missing at {}; leaving it out of the archive",
+                attachment.getId(), attachment.getFilePath());
+            return false;
+        }
+        try (in) {
+            String name = uniqueName(folder, sanitize(attachment.getOriginalFilename(), "attachment"), usedNames);
+            ZipEntry entry = new ZipEntry(name);
+            if (attachment.getUploadedAt() != null) {
+                entry.setLastModifiedTime(FileTime.from(
+                    attachment.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant()));
+            }
+            // Level 0 still uses DEFLATED entries, so no CRC pre-pass over the file is needed as for STORED
+            zip.setLevel(isCompressed(name) ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+            zip.putNextEntry(entry);
+            in.transferTo(zip);
+            zip.closeEntry();
+        }
+        return true;
+    }
+
+    private static String taskFolder(Task task) {
+        return task.getId() + "-" + sanitize(task.getTitle(), "task") + "/";
+    }
+
+    private static boolean isCompressed(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && COMPRESSED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Append " (2)", " (3)", ... before the extension until the path is unused
+     */
+    private static String uniqueName(String folder, String filename, Set<String> usedNames) {
+        String candidate = folder + filename;
+        if (usedNames.add(candidate.toLowerCase(Locale.ROOT))) {
+            return candidate;
+        }
+        int dot = filename.lastIndexOf('.');
+        String base = dot > 0 ? filename.substring(0, dot) : filename;
+        String extension = dot > 0 ? filename.substring(dot) : "";
+        for (int copy = 2; ; copy++) {
+            candidate = folder + base + " (" + copy + ")" + extension;
+            if (usedNames.add(candidate.toLowerCase(Locale.ROOT))) {
+                return candidate;
+            }
+        }
+    }
+
+    /**
+     * Keep names to a single path segment that every unzip tool accepts
+     */
+    private static String sanitize(String name, String fallback) {
+        if (name == null) {
+            return fallback;
+        }
+        String cleaned = name.replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_").trim();
+        cleaned = cleaned.replaceFirst("^\\.+", "");
+        if (cleaned.length() > MAX_NAME_LENGTH) {
+            cleaned = cleaned.substring(0, MAX_NAME_LENGTH).trim();
+        }
+        return cleaned.isEmpty() ? fallback : cleaned;
+    }
+}
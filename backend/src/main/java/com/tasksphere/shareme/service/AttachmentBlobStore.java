@@ -0,0 +1,259 @@
+package com.tasksphere.shareme.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tasksphere.shareme.repository.AttachmentBlobRepository;
+import com.tasksphere.shareme.storage.StorageBackend;
+
+/**
+ * Content-addressed attachment storage. Each distinct content is stored once
+ * under its SHA-256 and reference-counted by task_attachments rows; the file
+ * is deleted when its last reference goes away.
+ *
+ * Reference changes hold the attachment_blobs row lock until commit, which
+ * serializes an upload and a delete of the same content.
+ *
+ * Blobs are stored under sharded keys (ab/cd/abcd...) in the configured
+ * StorageBackend. Locations that the backend does not own are paths on the
+ * local disk, written before the backend or the layout changed.
+ */
+@Service
+public class AttachmentBlobStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentBlobStore.class);
+
+    private static final String THUMBNAIL_SUFFIX = ".thumb.png";
+
+    @Autowired
+    private AttachmentBlobRepository attachmentBlobRepository;
+
+    @Autowired
+    private StorageBackend storageBackend;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AttachmentContentCache attachmentContentCache;
+
+    @Value("${app.file.upload-dir:uploads}")
+    private String uploadDir;
+
+    /**
+     * New path in the staging directory for a file whose hash is not known yet.
+     * Staging is always on local disk, inside the upload directory, so promoting a
+     * file to the local backend is a rename.
+     */
+    public Path newStagingPath() {
+        try {
+            Path staging = Files.createDirectories(Paths.get(uploadDir, ".staging"));
+            return staging.resolve(UUID.randomUUID().toString()).toAbsolutePath();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create staging directory", e);
+        }
+    }
+
+    /**
+     * Two levels of hash-prefix directories keep every directory small
+     */
+    public static String blobKey(String contentHash) {
+        return contentHash.substring(0, 2) + "/" + contentHash.substring(2, 4) + "/" + contentHash;
+    }
+
+    public static String thumbnailKey(String contentHash) {
+        return blobKey(contentHash) + THUMBNAIL_SUFFIX;
+    }
+
+    public String blobLocation(String contentHash) {
+        return storageBackend.locationOf(blobKey(contentHash));
+    }
+
+    /**
+     * Add a reference to the blob with this hash. The first reference stores the
+     * staged file; for duplicates the staged file is simply dropped.
+     * Returns the location of the stored blob.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String addReference(String contentHash, Path stagedFile, long fileSize) {
+        int affectedRows = attachmentBlobRepository.addReference(contentHash, blobLocation(contentHash), fileSize);
+        try {
+            if (affectedRows == 1) {
+                return storageBackend.put(blobKey(contentHash), stagedFile);
+            }
+            String existing = attachmentBlobRepository.findStoragePath(contentHash);
+            if (exists(existing)) {
+                Files.deleteIfExists(stagedFile);
+                return existing;
+            }
+            // A blob whose file went missing; we hold the row lock
+            String stored = storageBackend.put(blobKey(contentHash), stagedFile);
+            attachmentBlobRepository.updateStoragePath(contentHash, stored);
+            return stored;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store blob " + contentHash, e);
+        }
+    }
+
+    /**
+     * Drop one reference. When it was the last, the file is deleted after commit.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeReference(String contentHash) {
+        attachmentBlobRepository.removeReference(contentHash);
+        deleteAfterCommitIfUnreferenced(contentHash);
+    }
+
+    /**
+     * Overwrite the reference count with the number of rows that really point at the
+     * blob, e.g. after cascading deletes skipped removeReference. The caller holds the row lock.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void setReferenceCount(String contentHash, long refCount) {
+        attachmentBlobRepository.setReferenceCount(contentHash, refCount);
+        deleteAfterCommitIfUnreferenced(contentHash);
+    }
+
+    private void deleteAfterCommitIfUnreferenced(String contentHash) {
+        String location = attachmentBlobRepository.findStoragePath(contentHash);
+        if (attachmentBlobRepository.deleteIfUnreferenced(contentHash) == 0) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteIfUnreferenced(contentHash, location);
+            }
+        });
+    }
+
+    /**
+     * Delete the file unless an upload re-created the blob after our commit. The
+     * locking read blocks concurrent inserts of the same hash while we check.
+     */
+    private void deleteIfUnreferenced(String contentHash, String location) {
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+            transaction.executeWithoutResult(status -> {
+                if (!attachmentBlobRepository.lockByContentHash(contentHash).isEmpty()) {
+                    return;
+                }
+                try {
+                    attachmentContentCache.invalidate(contentHash);
+                    delete(location);
+                    storageBackend.delete(storageBackend.locationOf(thumbnailKey(contentHash)));
+                    Files.deleteIfExists(legacyThumbnailPath(contentHash));
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to delete blob " + contentHash, e);
+                }
+            });
+        } catch (RuntimeException e) {
+            // The row is gone either way; only an unreferenced file is left behind
+            logger.warn("Could not delete unreferenced blob {}", contentHash, e);
+        }
+    }
+
+    /**
+     * Location of a blob from its hash alone, without the database: the sharded
+     * key, or the flat path used before the sharded layout.
+     */
+    public Optional<String> locateBlob(String contentHash) {
+        String location = blobLocation(contentHash);
+        Optional<Path> localFile = storageBackend.localFile(location);
+        if (localFile.isPresent() && Files.exists(localFile.get())) {
+            return Optional.of(location);
+        }
+        Path legacy = Paths.get(uploadDir, contentHash).toAbsolutePath();
+        if (Files.exists(legacy)) {
+            return Optional.of(legacy.toString());
+        }
+        return localFile.isEmpty() ? Optional.of(location) : Optional.empty();
+    }
+
+    /**
+     * Store a rendered thumbnail for the content. The file is consumed.
+     */
+    public String putThumbnail(String contentHash, Path file) throws IOException {
+        return storageBackend.put(thumbnailKey(contentHash), file);
+    }
+
+    /**
+     * Location of the thumbnail for the content, if it has one. On backends without
+     * local files this trusts the caller's has_thumbnail flag instead of asking the store.
+     */
+    public Optional<String> findThumbnail(String contentHash) {
+        String location = storageBackend.locationOf(thumbnailKey(contentHash));
+        Optional<Path> localFile = storageBackend.localFile(location);
+        if (localFile.isEmpty() || Files.exists(localFile.get())) {
+            return Optional.of(location);
+        }
+        Path legacy = legacyThumbnailPath(contentHash);
+        return Files.exists(legacy) ? Optional.of(legacy.toString()) : Optional.empty();
+    }
+
+    public boolean thumbnailExists(String contentHash) throws IOException {
+        return storageBackend.exists(storageBackend.locationOf(thumbnailKey(contentHash)))
+            || Files.exists(legacyThumbnailPath(contentHash));
+    }
+
+    /**
+     * Where thumbnails were written before the sharded layout
+     */
+    public Path legacyThumbnailPath(String contentHash) {
+        return Paths.get(uploadDir, contentHash + THUMBNAIL_SUFFIX).toAbsolutePath();
+    }
+
+    // Access to stored files by location, whether the backend owns it or it is a local path
+
+    public boolean exists(String location) throws IOException {
+        return storageBackend.owns(location) ? storageBackend.exists(location) : Files.exists(Paths.get(location));
+    }
+
+    public InputStream open(String location) throws IOException {
+        return storageBackend.owns(location) ? storageBackend.open(location) : Files.newInputStream(Paths.get(location));
+    }
+
+    public void delete(String location) throws IOException {
+        if (storageBackend.owns(location)) {
+            storageBackend.delete(location);
+        } else {
+            Files.deleteIfExists(Paths.get(location));
+        }
+    }
+
+    public Optional<Path> localFile(String location) {
+        return storageBackend.owns(location) ? storageBackend.localFile(location) : Optional.of(Paths.get(location));
+    }
+
+    public Optional<URI> downloadUrl(String location, String filename, String contentType) {
+        return storageBackend.owns(location)
+            ? storageBackend.downloadUrl(location, filename, contentType)
+            : Optional.empty();
+    }
+
+    /**
+     * Whether the location is already where the current backend and layout would put the blob
+     */
+    public boolean isCurrentLocation(String contentHash, String location) {
+        return blobLocation(contentHash).equals(location);
+    }
+}
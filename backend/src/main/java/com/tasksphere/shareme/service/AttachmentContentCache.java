@@ -0,0 +1,278 @@
+package com.tasksphere.shareme.service;
+
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Keeps the content of small, frequently downloaded blobs in direct memory, so
+ * repeated downloads of the same logo or spec sheet skip the disk.
+ *
+ * Entries are keyed by content hash, so they never go stale. The cache holds at
+ * most max-bytes: when a new entry needs room, the least recently used entries
+ * are evicted, but only if the newcomer has been requested more often than each
+ * of them (TinyLFU admission). A one-off download therefore cannot push out a
+ * file that is fetched all day.
+ *
+ * Hits hand out read-only views of the cached buffer; the bytes are not copied.
+ */
+@Service
+public class AttachmentContentCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentContentCache.class);
+
+    @Value("${app.attachments.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.attachments.cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${app.attachments.cache.max-entry-bytes:262144}")
+    private long maxEntryBytes;
+
+    // Guarded by this; access order, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private FrequencySketch sketch;
+    private long usedBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Cached bytes as a read-only buffer positioned at the start, and the file's modification time
+     */
+    public record CachedContent(ByteBuffer content, long lastModified) {}
+
+    public record CacheStats(long hits, long misses, double hitRate, long loads, long rejections, long evictions,
+                             int entries, long usedBytes, long maxBytes, long directMemoryBytes) {}
+
+    private record Entry(ByteBuffer buffer, long lastModified) {
+        CachedContent view() {
+            return new CachedContent(buffer.asReadOnlyBuffer(), lastModified);
+        }
+    }
+
+    @PostConstruct
+    public void initialize() {
+        // Sized for the number of average (quarter-threshold) entries that fit the budget
+        long expectedEntries = maxBytes / Math.max(1, maxEntryBytes / 4);
+        sketch = new FrequencySketch((int) Math.min(1 << 20, Math.max(1024, expectedEntries)));
+    }
+
+    /**
+     * The content of a blob from memory, loading it from the file when it is small
+     * enough and popular enough to be admitted. Empty means: read the file.
+     */
+    public Optional<CachedContent> get(String contentHash, Path file) {
+        if (!enabled || contentHash == null) {
+            return Optional.empty();
+        }
+        Entry entry;
+        synchronized (this) {
+            sketch.increment(contentHash);
+            entry = entries.get(contentHash);
+        }
+        if (entry != null) {
+            hits.increment();
+            return Optional.of(entry.view());
+        }
+        misses.increment();
+
+        try {
+            long size = Files.size(file);
+            if (size == 0 || size > maxEntryBytes) {
+                return Optional.empty();
+            }
+            synchronized (this) {
+                // Checked before reading, so unpopular files are not loaded just to be turned away
+                if (selectVictims(contentHash, size) == null) {
+                    rejections.increment();
+                    return Optional.empty();
+                }
+            }
+            Entry loaded = load(file, size);
+            loads.increment();
+            synchronized (this) {
+                Entry existing = entries.get(contentHash);
+                if (existing != null) {
+                    // Another request loaded it meanwhile
+                    return Optional.of(existing.view());
+                }
+                if (!admit(contentHash, loaded)) {
+                    rejections.increment();
+                }
+            }
+            return Optional.of(loaded.view());
+        } catch (IOException e) {
+            logger.warn("Could not cache {}; serving it from storage", contentHash, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Drop a blob whose file was deleted
+     */
+    public synchronized void invalidate(String contentHash) {
+        Entry removed = entries.remove(contentHash);
+        if (removed != null) {
+            usedBytes -= removed.buffer().capacity();
+        }
+    }
+
+    public CacheStats getStats() {
+        long hitCount = hits.sum();
+        long requests = hitCount + misses.sum();
+        int entryCount;
+        long used;
+        synchronized (this) {
+            entryCount = entries.size();
+            used = usedBytes;
+        }
+        return new CacheStats(hitCount, requests - hitCount, requests == 0 ? 0 : (double) hitCount / requests,
+            loads.sum(), rejections.sum(), evictions.sum(), entryCount, used, maxBytes, directMemoryBytes());
+    }
+
+    private Entry load(Path file, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+        long lastModified;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("File shrank while it was being cached");
+                }
+            }
+            lastModified = Files.getLastModifiedTime(file).toMillis();
+        }
+        buffer.flip();
+        return new Entry(buffer, lastModified);
+    }
+
+    private boolean admit(String contentHash, Entry entry) {
+        List<String> victims = selectVictims(contentHash, entry.buffer().capacity());
+        if (victims == null) {
+            return false;
+        }
+        for (String victim : victims) {
+            usedBytes -= entries.remove(victim).buffer().capacity();
+            evictions.increment();
+        }
+        entries.put(contentHash, entry);
+        usedBytes += entry.buffer().capacity();
+        return true;
+    }
+
+    /**
+     * The least recently used entries that must go to make room, or null when the
+     * candidate is not requested more often than one of them
+     */
+    private List<String> selectVictims(String contentHash, long size) {
+        long needed = usedBytes + size - maxBytes;
+        List<String> victims = new ArrayList<>();
+        if (needed <= 0) {
+            return victims;
+        }
+        int candidateFrequency = sketch.frequency(contentHash);
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (needed > 0 && iterator.hasNext()) {
+            Map.Entry<String, Entry> victim = iterator.next();
+            if (sketch.frequency(victim.getKey()) >= candidateFrequency) {
+                return null;
+            }
+            victims.add(victim.getKey());
+            needed -= victim.getValue().buffer().capacity();
+        }
+        return needed > 0 ? null : victims;
+    }
+
+    private static long directMemoryBytes() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+            .filter(pool -> "direct".equals(pool.getName()))
+            .mapToLong(BufferPoolMXBean::getMemoryUsed)
+            .sum();
+    }
+
+    /**
+     * Approximate request counts in a count-min sketch of small saturating counters.
+     * All counters are halved after every few thousand requests, so popularity fades
+     * and yesterday's hot file can be replaced. Not thread-safe.
+     */
+    static final class FrequencySketch {
+
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final long[] SEEDS = {
+            0x97cb3127d1e5ae5bL, 0xc2b2ae3d27d4eb4fL, 0x9e3779b97f4a7c15L, 0x165667b19e3779f9L
+        };
+
+        private final byte[][] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int expectedEntries) {
+            int width = Integer.highestOneBit(Math.max(16, expectedEntries) * 2 - 1);
+            counters = new byte[DEPTH][width];
+            mask = width - 1;
+            sampleSize = 10 * width;
+        }
+
+        int frequency(String key) {
+            int hash = key.hashCode();
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < DEPTH; row++) {
+                frequency = Math.min(frequency, counters[row][index(hash, row)]);
+            }
+            return frequency;
+        }
+
+        void increment(String key) {
+            int hash = key.hashCode();
+            for (int row = 0; row < DEPTH; row++) {
+                int index = index(hash, row);
+                if (counters[row][index] < MAX_COUNT) {
+                    counters[row][index]++;
+                }
+            }
+            if (++additions >= sampleSize) {
+                age();
+            }
+        }
+
+        private void age() {
+            for (byte[] row : counters) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>>= 1;
+                }
+            }
+            additions /= 2;
+        }
+
+        private int index(int hash, int row) {
+            long mixed = (hash + SEEDS[row]) * SEEDS[row];
+            mixed ^= mixed >>> 32;
+            return (int) mixed & mask;
+        }
+    }
+}
@@ -0,0 +1,474 @@
+package com.tasksphere.shareme.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tasksphere.shareme.concurrency.DatabaseNamedLock;
+import com.tasksphere.shareme.entity.AttachmentBlob;
+import com.tasksphere.shareme.entity.TaskAttachment;
+import com.tasksphere.shareme.repository.AttachmentBlobRepository;
+import com.tasksphere.shareme.repository.TaskAttachmentRepository;
+import com.tasksphere.shareme.storage.StorageBackend;
+import com.tasksphere.shareme.storage.StoredObject;
+
+/**
+ * Mark-and-sweep for attachment storage. Deleting a task or project cascades
+ * its task_attachments rows without touching blob reference counts or files,
+ * so this job periodically:
+ *
+ * 1. recounts references per blob in keyset batches and deletes blobs nobody
+ *    points at any more;
+ * 2. streams the storage listing (sorted by key, hence by hash) and merges it
+ *    with the blob table read in the same order, deleting files with no row
+ *    once they are older than the grace period and reporting rows whose file
+ *    is missing. Unsharded files other than legacy thumbnails are left alone
+ *    until the migrator has converted every legacy row;
+ * 3. reports legacy rows whose file is missing and clears abandoned staging files.
+ *
+ * Memory stays constant in the number of files. Every delete re-checks under
+ * the blob row lock, and the grace period covers files written by uploads that
+ * have not committed yet. Only one node runs the job at a time.
+ */
+@Service
+public class AttachmentReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentReconciler.class);
+
+    private static final String LOCK_NAME = "tasksphere.attachment-reconciler";
+    private static final Pattern SHARDED_KEY =
+        Pattern.compile("([0-9a-f]{2})/([0-9a-f]{2})/(\\1\\2[0-9a-f]{60})(\\.thumb\\.png)?");
+    private static final Pattern LEGACY_THUMBNAIL = Pattern.compile("([0-9a-f]{64})\\.thumb\\.png");
+    private static final int MAX_LOGGED_PROBLEMS = 100;
+
+    @Autowired
+    private AttachmentBlobStore attachmentBlobStore;
+
+    @Autowired
+    private StorageBackend storageBackend;
+
+    @Autowired
+    private AttachmentBlobRepository attachmentBlobRepository;
+
+    @Autowired
+    private TaskAttachmentRepository taskAttachmentRepository;
+
+    @Autowired
+    private DatabaseNamedLock databaseNamedLock;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.storage.reconcile.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.storage.reconcile.grace-period-hours:24}")
+    private long gracePeriodHours;
+
+    @Value("${app.storage.reconcile.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.file.upload-session-ttl-hours:24}")
+    private long uploadSessionTtlHours;
+
+    @Value("${app.file.upload-dir:uploads}")
+    private String uploadDir;
+
+    private volatile ReconciliationReport lastReport;
+
+    /**
+     * Outcome of one run
+     */
+    public record ReconciliationReport(Instant startedAt, Duration duration, long filesScanned,
+                                       long orphansDeleted, long bytesReclaimed, long referenceCountsRepaired,
+                                       List<String> missingBlobs, List<Long> missingLegacyAttachments,
+                                       long stagingFilesDeleted) {}
+
+    private static class Tally {
+        long filesScanned;
+        long orphansDeleted;
+        long bytesReclaimed;
+        long referenceCountsRepaired;
+        long stagingFilesDeleted;
+        final List<String> missingBlobs = new ArrayList<>();
+        final List<Long> missingLegacyAttachments = new ArrayList<>();
+    }
+
+    @Scheduled(fixedDelayString = "${app.storage.reconcile.interval-ms:3600000}",
+               initialDelayString = "${app.storage.reconcile.initial-delay-ms:600000}")
+    public void scheduledReconcile() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            databaseNamedLock.runExclusively(LOCK_NAME, this::reconcile);
+        } catch (RuntimeException e) {
+            logger.error("Attachment reconciliation failed", e);
+        }
+    }
+
+    public ReconciliationReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Run all passes once
+     */
+    public ReconciliationReport reconcile() {
+        Instant startedAt = Instant.now();
+        Instant cutoff = startedAt.minus(Duration.ofHours(gracePeriodHours));
+        Tally tally = new Tally();
+
+        repairReferenceCounts(tally);
+        sweepStorage(cutoff, tally);
+        findMissingLegacyFiles(tally);
+        sweepStaging(startedAt.minus(Duration.ofHours(uploadSessionTtlHours + gracePeriodHours)), tally);
+
+        ReconciliationReport report = new ReconciliationReport(startedAt, Duration.between(startedAt, Instant.now()),
+            tally.filesScanned, tally.orphansDeleted, tally.bytesReclaimed, tally.referenceCountsRepaired,
+            List.copyOf(tally.missingBlobs), List.copyOf(tally.missingLegacyAttachments), tally.stagingFilesDeleted);
+        lastReport = report;
+        logger.info("Attachment reconciliation scanned {} files in {} ms: deleted {} orphans ({} bytes), "
+                + "repaired {} reference counts, {} missing blobs, {} missing legacy files, {} stale staging files",
+            report.filesScanned(), report.duration().toMillis(), report.orphansDeleted(), report.bytesReclaimed(),
+            report.referenceCountsRepaired(), report.missingBlobs().size(), report.missingLegacyAttachments().size(),
+            report.stagingFilesDeleted());
+        return report;
+    }
+
+    // Pass 1: reference counts
+
+    private void repairReferenceCounts(Tally tally) {
+        String afterHash = "";
+        List<AttachmentBlob> batch;
+        do {
+            batch = attachmentBlobRepository.findBatchAfter(afterHash, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            Map<String, Long> counts = new HashMap<>();
+            List<String> hashes = batch.stream().map(AttachmentBlob::getContentHash).collect(Collectors.toList());
+            for (Object[] row : taskAttachmentRepository.countByContentHashes(hashes)) {
+                counts.put((String) row[0], (Long) row[1]);
+            }
+            for (AttachmentBlob blob : batch) {
+                // Cheap unlocked comparison first; only mismatches are re-counted under the lock
+                if (counts.getOrDefault(blob.getContentHash(), 0L) != blob.getRefCount().longValue()
+                        && repairReferenceCount(blob.getContentHash())) {
+                    tally.referenceCountsRepaired++;
+                }
+            }
+            afterHash = batch.get(batch.size() - 1).getContentHash();
+        } while (batch.size() == batchSize);
+    }
+
+    private boolean repairReferenceCount(String contentHash) {
+        Boolean repaired = newTransaction().execute(status -> {
+            // Uploads hold this lock until their rows commit, so the count below includes them
+            if (attachmentBlobRepository.lockByContentHash(contentHash).isEmpty()) {
+                return false;
+            }
+            long actual = taskAttachmentRepository.countByContentHash(contentHash);
+            attachmentBlobStore.setReferenceCount(contentHash, actual);
+            return true;
+        });
+        return Boolean.TRUE.equals(repaired);
+    }
+
+    // Pass 2: storage listing merged with the blob table
+
+    private void sweepStorage(Instant cutoff, Tally tally) {
+        // Unconverted rows may spell their file_path in ways we cannot match reliably
+        boolean legacyRowsRemain = taskAttachmentRepository.existsByContentHashIsNull();
+        if (legacyRowsRemain) {
+            logger.info("Legacy attachments are still being migrated; unsharded files are not swept this run");
+        }
+        BlobCursor blobs = new BlobCursor();
+        List<StoredObject> unsharded = new ArrayList<>();
+        try (Stream<StoredObject> listing = storageBackend.list()) {
+            Iterator<StoredObject> objects = listing.iterator();
+            while (objects.hasNext()) {
+                StoredObject object = objects.next();
+                tally.filesScanned++;
+                Matcher matcher = SHARDED_KEY.matcher(object.key());
+                if (!matcher.matches()) {
+                    unsharded.add(object);
+                    if (unsharded.size() == batchSize) {
+                        sweepUnsharded(unsharded, cutoff, legacyRowsRemain, tally);
+                        unsharded.clear();
+                    }
+                    continue;
+                }
+
+                String contentHash = matcher.group(3);
+                boolean thumbnail = matcher.group(4) != null;
+                // Blobs sorting before this key never showed up in the listing
+                while (blobs.peek() != null && blobs.peek().getContentHash().compareTo(contentHash) < 0) {
+                    checkMissing(blobs.next(), tally);
+                }
+                AttachmentBlob blob = blobs.peek();
+                if (blob != null && blob.getContentHash().equals(contentHash)) {
+                    if (!thumbnail) {
+                        blobs.markSeen();
+                    }
+                } else if (object.lastModified().isBefore(cutoff)) {
+                    deleteOrphan(object, contentHash, tally);
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Failed to list attachment storage", e);
+        }
+        sweepUnsharded(unsharded, cutoff, legacyRowsRemain, tally);
+        while (blobs.peek() != null) {
+            checkMissing(blobs.next(), tally);
+        }
+    }
+
+    /**
+     * Walks attachment_blobs in hash order, a keyset batch at a time
+     */
+    private class BlobCursor {
+        private List<AttachmentBlob> batch = List.of();
+        private int position;
+        private boolean exhausted;
+        private boolean seen;
+
+        AttachmentBlob peek() {
+            if (position == batch.size() && !exhausted) {
+                String afterHash = batch.isEmpty() ? "" : batch.get(batch.size() - 1).getContentHash();
+                batch = attachmentBlobRepository.findBatchAfter(afterHash, batchSize);
+                position = 0;
+                exhausted = batch.size() < batchSize;
+            }
+            return position < batch.size() ? batch.get(position) : null;
+        }
+
+        void markSeen() {
+            seen = true;
+        }
+
+        /**
+         * Move past the current blob, returning it with whether its file was listed
+         */
+        ListedBlob next() {
+            ListedBlob current = new ListedBlob(peek(), seen);
+            seen = false;
+            position++;
+            return current;
+        }
+    }
+
+    private record ListedBlob(AttachmentBlob blob, boolean listed) {}
+
+    private void checkMissing(ListedBlob listedBlob, Tally tally) {
+        if (listedBlob.listed()) {
+            return;
+        }
+        AttachmentBlob blob = listedBlob.blob();
+        try {
+            // Not listed: stored elsewhere (not migrated yet) or written after the listing passed it
+            if (attachmentBlobStore.exists(blob.getStoragePath())) {
+                return;
+            }
+        } catch (IOException e) {
+            logger.warn("Could not check blob {}", blob.getContentHash(), e);
+            return;
+        }
+        tally.missingBlobs.add(blob.getContentHash());
+        if (tally.missingBlobs.size() <= MAX_LOGGED_PROBLEMS) {
+            logger.warn("Blob {} is missing at {}; {} attachments refer to it", blob.getContentHash(),
+                blob.getStoragePath(), taskAttachmentRepository.countByContentHash(blob.getContentHash()));
+        }
+    }
+
+    private void deleteOrphan(StoredObject object, String contentHash, Tally tally) {
+        Boolean deleted = newTransaction().execute(status -> {
+            // An upload that has not committed yet holds this lock
+            if (!attachmentBlobRepository.lockByContentHash(contentHash).isEmpty()) {
+                return false;
+            }
+            try {
+                storageBackend.delete(storageBackend.locationOf(object.key()));
+            } catch (IOException e) {
+                logger.warn("Could not delete orphaned file {}", object.key(), e);
+                return false;
+            }
+            return true;
+        });
+        if (Boolean.TRUE.equals(deleted)) {
+            tally.orphansDeleted++;
+            tally.bytesReclaimed += object.size();
+        }
+    }
+
+    /**
+     * Files outside the sharded layout: attachments from before content addressing
+     * and blobs or thumbnails the migrator has not moved yet. Checked a batch at a time.
+     */
+    private void sweepUnsharded(List<StoredObject> objects, Instant cutoff, boolean legacyRowsRemain, Tally tally) {
+        Map<String, StoredObject> candidates = new HashMap<>();
+        Set<String> spellings = new HashSet<>();
+        for (StoredObject object : objects) {
+            if (object.lastModified().isBefore(cutoff)) {
+                candidates.put(canonicalLocation(storageBackend.locationOf(object.key())), object);
+                spellings.addAll(spellingsOf(object.key()));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Set<String> referenced = new HashSet<>();
+        for (String path : taskAttachmentRepository.findFilePathsIn(spellings)) {
+            referenced.add(canonicalLocation(path));
+        }
+        for (String path : attachmentBlobRepository.findStoragePathsIn(spellings)) {
+            referenced.add(canonicalLocation(path));
+        }
+        for (Map.Entry<String, StoredObject> candidate : candidates.entrySet()) {
+            if (referenced.contains(candidate.getKey())) {
+                continue;
+            }
+            StoredObject object = candidate.getValue();
+            Matcher thumbnail = LEGACY_THUMBNAIL.matcher(object.key());
+            if (thumbnail.matches()) {
+                deleteOrphan(object, thumbnail.group(1), tally);
+            } else if (!legacyRowsRemain) {
+                deleteUnreferencedLegacyFile(candidate.getKey(), object, tally);
+            }
+        }
+    }
+
+    private void deleteUnreferencedLegacyFile(String location, StoredObject object, Tally tally) {
+        Set<String> spellings = spellingsOf(object.key());
+        Boolean deleted = newTransaction().execute(status -> {
+            if (!taskAttachmentRepository.findFilePathsIn(spellings).isEmpty()
+                    || !attachmentBlobRepository.findStoragePathsIn(spellings).isEmpty()) {
+                return false;
+            }
+            try {
+                storageBackend.delete(location);
+            } catch (IOException e) {
+                logger.warn("Could not delete orphaned file {}", location, e);
+                return false;
+            }
+            return true;
+        });
+        if (Boolean.TRUE.equals(deleted)) {
+            tally.orphansDeleted++;
+            tally.bytesReclaimed += object.size();
+        }
+    }
+
+    /**
+     * Local paths compared as absolute, normalized paths; other locations as they are
+     */
+    private String canonicalLocation(String location) {
+        if (!storageBackend.owns(location) || storageBackend.localFile(location).isPresent()) {
+            return Paths.get(location).toAbsolutePath().normalize().toString();
+        }
+        return location;
+    }
+
+    /**
+     * Every way a row may have recorded the object's location. Rows written before
+     * content addressing hold the path relative to the working directory, as in
+     * "uploads/<uuid>.pdf", while the backend reports absolute locations.
+     */
+    private Set<String> spellingsOf(String key) {
+        String location = storageBackend.locationOf(key);
+        Set<String> spellings = new HashSet<>();
+        spellings.add(location);
+        if (storageBackend.localFile(location).isPresent()) {
+            Path relative = Paths.get(uploadDir).resolve(key);
+            spellings.add(relative.toString());
+            spellings.add(relative.normalize().toString());
+            spellings.add(canonicalLocation(location));
+        }
+        return spellings;
+    }
+
+    // Pass 3: legacy rows and staging
+
+    private void findMissingLegacyFiles(Tally tally) {
+        long afterId = 0;
+        List<TaskAttachment> batch;
+        do {
+            batch = taskAttachmentRepository.findByContentHashIsNullAndIdGreaterThanOrderByIdAsc(
+                afterId, PageRequest.of(0, batchSize));
+            for (TaskAttachment attachment : batch) {
+                try {
+                    if (attachmentBlobStore.exists(attachment.getFilePath())) {
+                        continue;
+                    }
+                } catch (IOException e) {
+                    logger.warn("Could not check attachment {}", attachment.getId(), e);
+                    continue;
+                }
+                tally.missingLegacyAttachments.add(attachment.getId());
+                if (tally.missingLegacyAttachments.size() <= MAX_LOGGED_PROBLEMS) {
+                    logger.warn("Attachment {} is missing its file {}", attachment.getId(), attachment.getFilePath());
+                }
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Staged files are touched by every chunk of a resumable upload, so one older
+     * than the session TTL belongs to an upload that can no longer complete
+     */
+    private void sweepStaging(Instant cutoff, Tally tally) {
+        Path staging = Paths.get(uploadDir, ".staging");
+        if (!Files.isDirectory(staging)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(staging)) {
+            for (Iterator<Path> it = files.iterator(); it.hasNext();) {
+                Path file = it.next();
+                try {
+                    if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff) && Files.deleteIfExists(file)) {
+                        tally.stagingFilesDeleted++;
+                    }
+                } catch (IOException e) {
+                    logger.warn("Could not remove stale staging file {}", file, e);
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Could not list staging directory {}", staging, e);
+        }
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+        return transaction;
+    }
+}
@@ -0,0 +1,266 @@
+package com.tasksphere.shareme.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tasksphere.shareme.concurrency.DatabaseNamedLock;
+import com.tasksphere.shareme.entity.AttachmentBlob;
+import com.tasksphere.shareme.entity.TaskAttachment;
+import com.tasksphere.shareme.repository.AttachmentBlobRepository;
+import com.tasksphere.shareme.repository.TaskAttachmentRepository;
+import com.tasksphere.shareme.storage.StorageBackend;
+import com.tasksphere.shareme.util.FileChecksums;
+
+/**
+ * Moves existing attachments into the current storage backend and layout in
+ * the background after startup:
+ *
+ * - blobs whose storage_path is not their sharded key (the old flat directory,
+ *   or another backend) are copied to it and their rows repointed;
+ * - attachments from before content addressing are hashed and turned into
+ *   blob references.
+ *
+ * Every file is copied before the rows change and the old file is removed only
+ * after commit, so a failure at any point leaves the old row and file intact.
+ * The job works in small keyset batches and is safe to run again.
+ */
+@Service
+public class AttachmentStorageMigrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentStorageMigrator.class);
+
+    private static final String LOCK_NAME = "tasksphere.attachment-storage-migration";
+
+    @Autowired
+    private AttachmentBlobStore attachmentBlobStore;
+
+    @Autowired
+    private StorageBackend storageBackend;
+
+    @Autowired
+    private AttachmentBlobRepository attachmentBlobRepository;
+
+    @Autowired
+    private TaskAttachmentRepository taskAttachmentRepository;
+
+    @Autowired
+    private DatabaseNamedLock databaseNamedLock;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.storage.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.storage.migration.batch-size:100}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startMigration() {
+        if (!enabled) {
+            return;
+        }
+        // One node migrates; the others skip
+        Thread thread = new Thread(() -> databaseNamedLock.runExclusively(LOCK_NAME, this::migrate),
+            "attachment-storage-migrator");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Run both passes to completion. Returns the number of files moved.
+     */
+    public int migrate() {
+        int moved = 0;
+        try {
+            moved += relocateBlobs();
+            moved += convertLegacyAttachments();
+        } catch (RuntimeException e) {
+            logger.error("Attachment storage migration stopped after {} files", moved, e);
+            return moved;
+        }
+        if (moved > 0) {
+            logger.info("Attachment storage migration moved {} files", moved);
+        }
+        return moved;
+    }
+
+    private int relocateBlobs() {
+        int moved = 0;
+        String afterHash = "";
+        List<AttachmentBlob> batch;
+        do {
+            batch = attachmentBlobRepository.findBatchAfter(afterHash, batchSize);
+            for (AttachmentBlob blob : batch) {
+                if (!attachmentBlobStore.isCurrentLocation(blob.getContentHash(), blob.getStoragePath())
+                        && relocateBlob(blob.getContentHash(), blob.getStoragePath())) {
+                    moved++;
+                }
+                relocateLegacyThumbnail(blob.getContentHash());
+            }
+            if (!batch.isEmpty()) {
+                afterHash = batch.get(batch.size() - 1).getContentHash();
+            }
+        } while (batch.size() == batchSize);
+        return moved;
+    }
+
+    /**
+     * Copy one blob to its sharded key and repoint the blob row and every attachment
+     * row. The blob row lock keeps uploads and deletes of the same content out meanwhile.
+     */
+    private boolean relocateBlob(String contentHash, String currentLocation) {
+        Path staged = attachmentBlobStore.newStagingPath();
+        try {
+            copyToStaging(currentLocation, staged);
+            Boolean relocated = newTransaction().execute(status -> {
+                List<String> locked = attachmentBlobRepository.lockStoragePath(contentHash);
+                // Deleted, or moved by another node, since the batch was read
+                if (locked.isEmpty() || !currentLocation.equals(locked.get(0))) {
+                    return false;
+                }
+                try {
+                    String stored = storageBackend.put(AttachmentBlobStore.blobKey(contentHash), staged);
+                    attachmentBlobRepository.updateStoragePath(contentHash, stored);
+                    taskAttachmentRepository.updateFilePathByContentHash(contentHash, stored);
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to store blob " + contentHash, e);
+                }
+                deleteAfterCommit(currentLocation);
+                return true;
+            });
+            return Boolean.TRUE.equals(relocated);
+        } catch (NoSuchFileException e) {
+            logger.warn("Blob {} is missing at {}; leaving it for reconciliation", contentHash, currentLocation);
+            return false;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read blob " + contentHash, e);
+        } finally {
+            deleteQuietly(staged);
+        }
+    }
+
+    /**
+     * Thumbnails are derived data, so they are simply moved without any row changes
+     */
+    private void relocateLegacyThumbnail(String contentHash) {
+        Path legacy = attachmentBlobStore.legacyThumbnailPath(contentHash);
+        if (!Files.exists(legacy)) {
+            return;
+        }
+        Path staged = attachmentBlobStore.newStagingPath();
+        try {
+            Files.copy(legacy, staged, StandardCopyOption.REPLACE_EXISTING);
+            attachmentBlobStore.putThumbnail(contentHash, staged);
+            Files.deleteIfExists(legacy);
+        } catch (IOException e) {
+            logger.warn("Could not move thumbnail of {}", contentHash, e);
+        } finally {
+            deleteQuietly(staged);
+        }
+    }
+
+    private int convertLegacyAttachments() {
+        int moved = 0;
+        long afterId = 0;
+        List<TaskAttachment> batch;
+        do {
+            batch = taskAttachmentRepository.findByContentHashIsNullAndIdGreaterThanOrderByIdAsc(
+                afterId, PageRequest.of(0, batchSize));
+            for (TaskAttachment attachment : batch) {
+                if (convertLegacyAttachment(attachment.getId(), attachment.getFilePath())) {
+                    moved++;
+                }
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == batchSize);
+        return moved;
+    }
+
+    /**
+     * Hash a pre-content-addressing file and make its row a reference to the blob.
+     * Identical legacy files collapse into one blob on the way.
+     */
+    private boolean convertLegacyAttachment(Long attachmentId, String filePath) {
+        Path staged = attachmentBlobStore.newStagingPath();
+        try {
+            copyToStaging(filePath, staged);
+            String contentHash = FileChecksums.sha256Hex(staged);
+            long size = Files.size(staged);
+            Boolean converted = newTransaction().execute(status -> {
+                TaskAttachment locked = taskAttachmentRepository.lockById(attachmentId).orElse(null);
+                if (locked == null || locked.getContentHash() != null || !filePath.equals(locked.getFilePath())) {
+                    return false;
+                }
+                String location = attachmentBlobStore.addReference(contentHash, staged, size);
+                locked.setContentHash(contentHash);
+                locked.setStoredFilename(contentHash);
+                locked.setFilePath(location);
+                taskAttachmentRepository.save(locked);
+                deleteAfterCommit(filePath);
+                return true;
+            });
+            return Boolean.TRUE.equals(converted);
+        } catch (NoSuchFileException e) {
+            logger.warn("Attachment {} is missing at {}; leaving it for reconciliation", attachmentId, filePath);
+            return false;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read attachment " + attachmentId, e);
+        } finally {
+            deleteQuietly(staged);
+        }
+    }
+
+    private void copyToStaging(String location, Path staged) throws IOException {
+        try (InputStream in = attachmentBlobStore.open(location)) {
+            Files.copy(in, staged, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void deleteAfterCommit(String location) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    attachmentBlobStore.delete(location);
+                } catch (IOException e) {
+                    logger.warn("Could not remove migrated file {}", location, e);
+                }
+            }
+        });
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+        return transaction;
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not remove staged file {}", path, e);
+        }
+    }
+}
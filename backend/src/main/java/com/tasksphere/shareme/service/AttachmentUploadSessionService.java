@@ -0,0 +1,403 @@
+package com.tasksphere.shareme.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.tasksphere.shareme.concurrency.DatabaseNamedLock;
+import com.tasksphere.shareme.dto.CreateUploadSessionRequest;
+import com.tasksphere.shareme.dto.TaskAttachmentResponse;
+import com.tasksphere.shareme.dto.UploadSessionResponse;
+import com.tasksphere.shareme.entity.AttachmentUploadSession;
+import com.tasksphere.shareme.entity.Task;
+import com.tasksphere.shareme.entity.User;
+import com.tasksphere.shareme.exception.ResourceNotFoundException;
+import com.tasksphere.shareme.exception.UnauthorizedException;
+import com.tasksphere.shareme.repository.AttachmentUploadSessionRepository;
+import com.tasksphere.shareme.repository.TaskRepository;
+import com.tasksphere.shareme.util.FileChecksums;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Resumable attachment uploads. A session reserves a staged file; chunks are
+ * appended at the offset the server has acknowledged, so a client that loses
+ * its connection asks for the offset and continues from there. Completing the
+ * session verifies the checksum and attaches the file like a normal upload.
+ *
+ * The staged file is on the local disk of the node that created the session,
+ * which is recorded in node_id. Chunks, completion and cancellation must be
+ * routed to that node (sticky sessions on the upload id); any other node
+ * answers 421 Misdirected Request instead of writing to a file it does not
+ * have. Reading the offset works on every node.
+ */
+@Service
+public class AttachmentUploadSessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentUploadSessionService.class);
+
+    private static final int CLEANUP_BATCH_SIZE = 200;
+    private static final String CLEANUP_LOCK_NAME = "tasksphere.upload-session-cleanup";
+    private static final HttpStatusCode MISDIRECTED_REQUEST = HttpStatusCode.valueOf(421);
+
+    @Autowired
+    private AttachmentUploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskAttachmentService taskAttachmentService;
+
+    @Autowired
+    private AttachmentBlobStore attachmentBlobStore;
+
+    @Autowired
+    private AttachmentUsageService attachmentUsageService;
+
+    @Autowired
+    private DatabaseNamedLock databaseNamedLock;
+
+    @Value("${app.file.upload-session-ttl-hours:24}")
+    private long sessionTtlHours;
+
+    @Value("${app.file.upload-session-cleanup-ms:900000}")
+    private long cleanupIntervalMs;
+
+    @Value("${app.file.upload-dir:uploads}")
+    private String uploadDir;
+
+    // Empty uses the host name; must differ between nodes that do not share a disk
+    @Value("${app.node-id:}")
+    private String configuredNodeId;
+
+    private String nodeId;
+
+    // Chunks of one session are written one at a time; staged files are local to this node
+    private final ConcurrentHashMap<String, ReentrantLock> sessionLocks = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void initialize() {
+        if (!configuredNodeId.isBlank()) {
+            nodeId = configuredNodeId;
+            return;
+        }
+        try {
+            nodeId = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot determine the host name; set app.node-id", e);
+        }
+    }
+
+    /**
+     * Start an upload. Name, type, size and quotas are validated before any data is sent.
+     */
+    public UploadSessionResponse createSession(Long taskId, CreateUploadSessionRequest request, User user) {
+        if (user == null) {
+            throw new UnauthorizedException("Authentication required to upload files");
+        }
+        Task task = taskRepository.findById(taskId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
+        taskAttachmentService.validateUpload(request.getOriginalFilename(), request.getFileSize());
+        attachmentUsageService.checkQuota(task, user, request.getFileSize());
+
+        Path stagingPath = attachmentBlobStore.newStagingPath();
+        try {
+            Files.createFile(stagingPath);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create upload file", e);
+        }
+
+        AttachmentUploadSession session = new AttachmentUploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setTaskId(taskId);
+        session.setUserId(user.getId());
+        session.setOriginalFilename(request.getOriginalFilename());
+        session.setContentType(request.getContentType() != null ? request.getContentType() : "application/octet-stream");
+        session.setTotalSize(request.getFileSize());
+        session.setExpectedSha256(request.getSha256() != null ? request.getSha256().toLowerCase() : null);
+        session.setStagingPath(stagingPath.toString());
+        session.setNodeId(nodeId);
+        session.setExpiresAt(LocalDateTime.now().plusHours(sessionTtlHours));
+
+        return convertToResponse(uploadSessionRepository.save(session));
+    }
+
+    /**
+     * Get the current state (and offset) of an upload
+     */
+    public UploadSessionResponse getSession(String uploadId, User user) {
+        return convertToResponse(findOwnedSession(uploadId, user));
+    }
+
+    /**
+     * Append a chunk starting at the given offset, which must equal the bytes received so far.
+     * If the connection drops mid-chunk, whatever arrived is kept and acknowledged.
+     */
+    public UploadSessionResponse appendChunk(String uploadId, long offset, InputStream body, User user) {
+        return withSessionLock(uploadId, () -> {
+            AttachmentUploadSession session = findLocalSession(uploadId, user);
+            requireUnexpired(session);
+            if (offset != session.getReceivedBytes()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Upload offset mismatch: expected " + session.getReceivedBytes() + " but got " + offset);
+            }
+
+            long remaining = session.getTotalSize() - offset;
+            long written = 0;
+            Path stagingPath = Paths.get(session.getStagingPath());
+            try (FileChannel channel = FileChannel.open(stagingPath, StandardOpenOption.WRITE)) {
+                // Drop anything past the acknowledged offset left by an earlier failed chunk
+                channel.truncate(offset);
+                ReadableByteChannel source = Channels.newChannel(body);
+                while (written < remaining) {
+                    long transferred = channel.transferFrom(source, offset + written, remaining - written);
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    written += transferred;
+                }
+                if (written == remaining && body.read() != -1) {
+                    channel.truncate(offset);
+                    written = 0;
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                        "Chunk extends past the declared file size of " + session.getTotalSize() + " bytes");
+                }
+            } catch (IOException e) {
+                logger.debug("Upload {} interrupted after {} bytes of chunk at {}", uploadId, written, offset, e);
+                if (written == 0) {
+                    throw new RuntimeException("Failed to write upload chunk", e);
+                }
+            } finally {
+                if (written > 0) {
+                    session.setReceivedBytes(offset + written);
+                    session.setExpiresAt(LocalDateTime.now().plusHours(sessionTtlHours));
+                    // An update rather than a save, which would re-insert a session cleanup removed meanwhile
+                    if (uploadSessionRepository.recordProgress(uploadId, session.getReceivedBytes(),
+                            session.getExpiresAt()) == 0) {
+                        throw new ResourceNotFoundException("Upload not found with id: " + uploadId);
+                    }
+                }
+            }
+            return convertToResponse(session);
+        });
+    }
+
+    /**
+     * Verify the checksum and attach the completed file to its task
+     */
+    public TaskAttachmentResponse completeSession(String uploadId, User user) {
+        return withSessionLock(uploadId, () -> {
+            AttachmentUploadSession session = findLocalSession(uploadId, user);
+            requireUnexpired(session);
+            if (!session.getReceivedBytes().equals(session.getTotalSize())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Upload incomplete: received " + session.getReceivedBytes() + " of " + session.getTotalSize() + " bytes");
+            }
+
+            Path stagingPath = Paths.get(session.getStagingPath());
+            try {
+                String contentHash = FileChecksums.sha256Hex(stagingPath);
+                if (session.getExpectedSha256() != null && !session.getExpectedSha256().equals(contentHash)) {
+                    throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Checksum mismatch: expected " + session.getExpectedSha256() + " but got " + contentHash);
+                }
+                return taskAttachmentService.attachStagedFile(session.getTaskId(), session.getOriginalFilename(),
+                    session.getContentType(), stagingPath, contentHash, user);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read uploaded file", e);
+            } finally {
+                // A corrupt or attached file is not resumable, so the session ends either way
+                discard(session);
+            }
+        });
+    }
+
+    /**
+     * Abort an upload and delete what was received
+     */
+    public void cancelSession(String uploadId, User user) {
+        withSessionLock(uploadId, () -> {
+            discard(findLocalSession(uploadId, user));
+            return null;
+        });
+    }
+
+    /**
+     * Remove sessions that have not received a chunk within the TTL. One node at a
+     * time removes the expired rows of every node, deleting the staged files it
+     * holds itself; each node then clears staged files of its own that no session
+     * has touched within the TTL, which covers sessions another node removed.
+     */
+    @Scheduled(fixedDelayString = "${app.file.upload-session-cleanup-ms:900000}")
+    public void cleanupExpiredSessions() {
+        try {
+            databaseNamedLock.runExclusively(CLEANUP_LOCK_NAME, this::removeExpiredSessions);
+        } catch (RuntimeException e) {
+            logger.error("Upload session cleanup failed", e);
+        }
+        removeAbandonedStagingFiles();
+    }
+
+    private void removeExpiredSessions() {
+        int removed = 0;
+        String afterId = "";
+        List<AttachmentUploadSession> expired;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            // Keyset paging, so sessions skipped below are not fetched again
+            expired = uploadSessionRepository.findByExpiresAtBeforeAndIdGreaterThanOrderByIdAsc(
+                now, afterId, PageRequest.of(0, CLEANUP_BATCH_SIZE));
+            for (AttachmentUploadSession session : expired) {
+                afterId = session.getId();
+                ReentrantLock lock = sessionLocks.computeIfAbsent(session.getId(), id -> new ReentrantLock());
+                if (!lock.tryLock()) {
+                    continue;
+                }
+                try {
+                    if (uploadSessionRepository.deleteIfExpired(session.getId(), now) == 1) {
+                        if (isLocal(session)) {
+                            deleteStagedFile(session);
+                        }
+                        removed++;
+                    }
+                } finally {
+                    lock.unlock();
+                    sessionLocks.remove(session.getId(), lock);
+                }
+            }
+        } while (expired.size() == CLEANUP_BATCH_SIZE);
+
+        if (removed > 0) {
+            logger.info("Removed {} expired upload sessions", removed);
+        }
+    }
+
+    /**
+     * Every chunk touches the staged file and extends the session by the TTL, so a
+     * file untouched for longer belongs to a session that is gone
+     */
+    private void removeAbandonedStagingFiles() {
+        Path staging = Paths.get(uploadDir, ".staging");
+        if (!Files.isDirectory(staging)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(Duration.ofHours(sessionTtlHours)).minusMillis(cleanupIntervalMs);
+        try (Stream<Path> files = Files.list(staging)) {
+            files.forEach(file -> {
+                try {
+                    if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (IOException e) {
+                    logger.warn("Could not remove abandoned staged upload {}", file, e);
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Could not list staged uploads in {}", staging, e);
+        }
+    }
+
+    private <T> T withSessionLock(String uploadId, Supplier<T> action) {
+        ReentrantLock lock = sessionLocks.computeIfAbsent(uploadId, id -> new ReentrantLock());
+        if (!lock.tryLock()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Another request for this upload is in progress");
+        }
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+            if (!uploadSessionRepository.existsById(uploadId)) {
+                sessionLocks.remove(uploadId, lock);
+            }
+        }
+    }
+
+    private AttachmentUploadSession findOwnedSession(String uploadId, User user) {
+        AttachmentUploadSession session = uploadSessionRepository.findById(uploadId)
+            .orElseThrow(() -> new ResourceNotFoundException("Upload not found with id: " + uploadId));
+        // Someone else's upload is reported as missing rather than forbidden
+        if (user == null || !session.getUserId().equals(user.getId())) {
+            throw new ResourceNotFoundException("Upload not found with id: " + uploadId);
+        }
+        return session;
+    }
+
+    /**
+     * The session, which must be staged on this node
+     */
+    private AttachmentUploadSession findLocalSession(String uploadId, User user) {
+        AttachmentUploadSession session = findOwnedSession(uploadId, user);
+        if (!isLocal(session)) {
+            throw new ResponseStatusException(MISDIRECTED_REQUEST,
+                "Upload " + uploadId + " is staged on another node; route its requests to the node that created it");
+        }
+        return session;
+    }
+
+    /**
+     * An expired session may not have been cleaned up yet, but it cannot be resumed
+     */
+    private void requireUnexpired(AttachmentUploadSession session) {
+        if (session.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Upload " + session.getId() + " has expired");
+        }
+    }
+
+    private boolean isLocal(AttachmentUploadSession session) {
+        return session.getNodeId() == null || session.getNodeId().equals(nodeId);
+    }
+
+    private void discard(AttachmentUploadSession session) {
+        deleteStagedFile(session);
+        uploadSessionRepository.delete(session);
+    }
+
+    private void deleteStagedFile(AttachmentUploadSession session) {
+        try {
+            Files.deleteIfExists(Paths.get(session.getStagingPath()));
+        } catch (IOException e) {
+            logger.warn("Could not remove staged upload {}", session.getStagingPath(), e);
+        }
+    }
+
+    private UploadSessionResponse convertToResponse(AttachmentUploadSession session) {
+        return new UploadSessionResponse(
+            session.getId(),
+            session.getTaskId(),
+            session.getOriginalFilename(),
+            session.getTotalSize(),
+            session.getReceivedBytes(),
+            session.getExpiresAt(),
+            "/api/tasks/attachments/uploads/" + session.getId()
+        );
+    }
+}
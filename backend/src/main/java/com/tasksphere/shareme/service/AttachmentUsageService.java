@@ -0,0 +1,137 @@
+package com.tasksphere.shareme.service;
+
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.tasksphere.shareme.entity.AttachmentUsage;
+import com.tasksphere.shareme.entity.AttachmentUsage.Scope;
+import com.tasksphere.shareme.entity.Task;
+import com.tasksphere.shareme.entity.TaskAttachment;
+import com.tasksphere.shareme.entity.User;
+import com.tasksphere.shareme.repository.AttachmentUsageRepository;
+
+/**
+ * Attachment counters per task, project and uploader, and the storage quotas
+ * checked against them.
+ *
+ * Counters change in the caller's transaction, always in the order project,
+ * task, user, so concurrent uploads lock the rows in the same order. Uploads and
+ * deletes both lock attachment_blobs rows before these counters. Quotas are
+ * checked twice: before any bytes are written, to fail fast, and again after
+ * the counters moved, with the rows locked, so concurrent uploads cannot
+ * overshoot together.
+ */
+@Service
+public class AttachmentUsageService {
+
+    // 0 disables a quota
+    @Value("${app.attachments.quota.task-bytes:0}")
+    private long taskQuotaBytes;
+
+    @Value("${app.attachments.quota.project-bytes:0}")
+    private long projectQuotaBytes;
+
+    @Value("${app.attachments.quota.user-bytes:0}")
+    private long userQuotaBytes;
+
+    @Autowired
+    private AttachmentUsageRepository attachmentUsageRepository;
+
+    /**
+     * Count and size of one task, project or user
+     */
+    public record Usage(long fileCount, long totalBytes) {}
+
+    public Usage getUsage(Scope scope, Long scopeId) {
+        return attachmentUsageRepository.findById(new AttachmentUsage.UsageKey(scope, scopeId))
+            .map(usage -> new Usage(usage.getFileCount(), usage.getTotalBytes()))
+            .orElse(new Usage(0, 0));
+    }
+
+    /**
+     * Reject an upload of this many bytes that would exceed a quota
+     */
+    public void checkQuota(Task task, User uploader, long incomingBytes) {
+        enforce(Scope.PROJECT, task.getProject().getId(), projectQuotaBytes, incomingBytes);
+        enforce(Scope.TASK, task.getId(), taskQuotaBytes, incomingBytes);
+        if (uploader != null) {
+            enforce(Scope.USER, uploader.getId(), userQuotaBytes, incomingBytes);
+        }
+    }
+
+    /**
+     * Count new attachments of one task and uploader, failing the transaction if that exceeds a quota
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUpload(Task task, User uploader, Collection<TaskAttachment> attachments) {
+        long bytes = attachments.stream().mapToLong(TaskAttachment::getFileSize).sum();
+        add(Scope.PROJECT, task.getProject().getId(), attachments.size(), bytes);
+        add(Scope.TASK, task.getId(), attachments.size(), bytes);
+        if (uploader != null) {
+            add(Scope.USER, uploader.getId(), attachments.size(), bytes);
+        }
+        // The rows are locked by the upserts, so this sees every committed upload
+        checkQuota(task, uploader, 0);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDelete(TaskAttachment attachment) {
+        Task task = attachment.getTask();
+        add(Scope.PROJECT, task.getProject().getId(), -1, -attachment.getFileSize());
+        add(Scope.TASK, task.getId(), -1, -attachment.getFileSize());
+        add(Scope.USER, attachment.getUploadedBy().getId(), -1, -attachment.getFileSize());
+    }
+
+    /**
+     * Drop a task's counters; call before its attachments are deleted
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTaskDeleted(Task task) {
+        attachmentUsageRepository.subtractTaskFromProject(task.getId(), task.getProject().getId());
+        attachmentUsageRepository.deleteScope(Scope.TASK.name(), task.getId());
+        attachmentUsageRepository.subtractTaskFromUsers(task.getId());
+    }
+
+    /**
+     * Drop a project's counters and those of its tasks; call before its attachments are deleted
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordProjectDeleted(Long projectId) {
+        attachmentUsageRepository.deleteScope(Scope.PROJECT.name(), projectId);
+        attachmentUsageRepository.deleteProjectTasks(projectId);
+        attachmentUsageRepository.subtractProjectFromUsers(projectId);
+    }
+
+    /**
+     * Recompute every counter from task_attachments, e.g. after a bulk import that bypassed them
+     */
+    @Transactional
+    public void rebuild() {
+        attachmentUsageRepository.deleteAllUsage();
+        attachmentUsageRepository.insertTaskUsageFromAttachments();
+        attachmentUsageRepository.insertProjectUsageFromAttachments();
+        attachmentUsageRepository.insertUserUsageFromAttachments();
+    }
+
+    private void add(Scope scope, Long scopeId, long files, long bytes) {
+        attachmentUsageRepository.addUsage(scope.name(), scopeId, files, bytes);
+    }
+
+    private void enforce(Scope scope, Long scopeId, long quotaBytes, long incomingBytes) {
+        if (quotaBytes <= 0) {
+            return;
+        }
+        Long used = attachmentUsageRepository.findTotalBytes(scope.name(), scopeId);
+        if ((used != null ? used : 0) + incomingBytes > quotaBytes) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "Storage quota of " + quotaBytes + " bytes exceeded for " + scope.name().toLowerCase() + " " + scopeId);
+        }
+    }
+}
@@ -8,16 +8,19 @@ import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.Optional;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.tasksphere.shareme.dto.AuthResponse;
 import com.tasksphere.shareme.dto.ForgotPasswordRequest;
 import com.tasksphere.shareme.dto.LoginRequest;
+import com.tasksphere.shareme.dto.RefreshTokenRequest;
 import com.tasksphere.shareme.dto.ResetPasswordRequest;
 import com.tasksphere.shareme.dto.SignupRequest;
 import com.tasksphere.shareme.dto.UserInfo;
@@ -25,12 +28,16 @@ import com.tasksphere.shareme.entity.PasswordReset;
 import com.tasksphere.shareme.entity.User;
 import com.tasksphere.shareme.repository.PasswordResetRepository;
 import com.tasksphere.shareme.repository.UserRepository;
+import com.tasksphere.shareme.security.AuthenticatedUser;
 import com.tasksphere.shareme.security.JwtTokenProvider;
+import com.tasksphere.shareme.security.TokenRevocationManager;
 
 @Service
 @Transactional
 public class AuthService {
     
+    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+    
     @Autowired
     private UserRepository userRepository;
     
@@ -38,7 +45,16 @@ public class AuthService {
     private PasswordResetRepository passwordResetRepository;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+    
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
+    @Autowired
+    private TokenRevocationManager revocationManager;
     
     @Autowired
     private JwtTokenProvider tokenProvider;
@@ -54,7 +70,7 @@ public class AuthService {
             request.getFirstName(),
             request.getLastName(),
             request.getEmail(),
-            passwordEncoder.encode(request.getPassword())
+            passwordHashingService.encode(request.getPassword())
         );
         
         userRepository.save(user);
@@ -63,15 +79,73 @@ public class AuthService {
         // This is a more professional approach than auto-login
     }
     
-    public AuthResponse login(LoginRequest request) {
+    /**
+     * Runs without a transaction, so no connection is held while the password is hashed
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AuthResponse login(LoginRequest request, String clientAddress) {
+        loginRateLimiter.acquire(clientAddress, request.getEmail());
+        
         Optional<User> userOpt = userRepository.findByEmail(request.getEmail());
         
-        if (userOpt.isEmpty() || !passwordEncoder.matches(request.getPassword(), userOpt.get().getPasswordHash())) {
+        if (userOpt.isEmpty()) {
+            // Hash anyway, so response times do not reveal which emails have accounts
+            passwordHashingService.matchesDummy(request.getPassword());
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
+        }
+        if (!passwordHashingService.matches(request.getPassword(), userOpt.get().getPasswordHash())) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
         }
         
         User user = userOpt.get();
+        if (passwordHashingService.needsRehash(user.getPasswordHash())) {
+            rehashPassword(user, request.getPassword());
+        }
         
+        return authResponse(user, refreshTokenService.issue(user));
+    }
+    
+    /**
+     * New access and refresh tokens for a valid refresh token, without any password hashing
+     */
+    @Transactional(noRollbackFor = ResponseStatusException.class)
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        return authResponse(rotation.user(), rotation.refreshToken());
+    }
+    
+    /**
+     * Revoke the presented access token and, when given, the session of the refresh token
+     */
+    public void logout(AuthenticatedUser caller, RefreshTokenRequest request) {
+        revocationManager.revokeToken(caller);
+        if (request != null && request.getRefreshToken() != null) {
+            refreshTokenService.revoke(request.getRefreshToken(), caller.id());
+        }
+    }
+    
+    /**
+     * End every session of a user on every device
+     */
+    public void revokeAllSessions(Long userId) {
+        revocationManager.revokeAllSessions(userId);
+        refreshTokenService.revokeAll(userId);
+    }
+    
+    /**
+     * Let an admin end every session of a possibly compromised account
+     */
+    public void revokeUserSessions(AuthenticatedUser caller, Long userId) {
+        if (!User.UserRole.ADMIN.name().equals(caller.role())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Admin role required");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        revokeAllSessions(userId);
+    }
+    
+    private AuthResponse authResponse(User user, String refreshToken) {
         String accessToken = tokenProvider.generateAccessToken(
             user.getId(),
             user.getEmail(),
@@ -88,7 +162,7 @@ public class AuthService {
             user.getRole().name()
         );
         
-        return new AuthResponse(accessToken, userInfo);
+        return new AuthResponse(accessToken, refreshToken, userInfo);
     }
     
     public UserInfo getCurrentUser(String email) {
@@ -166,11 +240,29 @@ public class AuthService {
         }
         
         User user = userOpt.get();
-        user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
+        user.setPasswordHash(passwordHashingService.encode(request.getNewPassword()));
         userRepository.save(user);
         
         // Mark token as used
         passwordResetRepository.markTokenAsUsed(tokenHash);
+        
+        // Sessions opened with the old password end
+        revokeAllSessions(user.getId());
+    }
+    
+    /**
+     * Bring a hash to the current cost while the plain password is at hand.
+     * Best effort: a busy hashing pool leaves the old hash for the next login.
+     */
+    private void rehashPassword(User user, String rawPassword) {
+        try {
+            String newHash = passwordHashingService.encode(rawPassword);
+            if (userRepository.replacePasswordHash(user.getId(), user.getPasswordHash(), newHash) == 1) {
+                logger.info("Upgraded password hash of user {} to the current BCrypt cost", user.getId());
+            }
+        } catch (ResponseStatusException e) {
+            logger.debug("Hashing pool busy; keeping the old hash of user {}", user.getId());
+        }
     }
     
     private String hashToken(String token) {
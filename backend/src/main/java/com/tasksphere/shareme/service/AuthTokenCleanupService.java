@@ -0,0 +1,115 @@
+package com.tasksphere.shareme.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.tasksphere.shareme.concurrency.DatabaseNamedLock;
+import com.tasksphere.shareme.repository.PasswordResetRepository;
+import com.tasksphere.shareme.repository.RefreshTokenRepository;
+import com.tasksphere.shareme.repository.RevokedTokenRepository;
+
+/**
+ * Deletes password reset tokens that are expired or used, expired refresh
+ * tokens, and revocations of access tokens that have expired. Rows go in small
+ * batches, each committed on its own, so the job never holds locks on many rows
+ * and logins and resets carry on while it runs. One node purges at a time; the
+ * others skip the run.
+ */
+@Service
+public class AuthTokenCleanupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthTokenCleanupService.class);
+
+    private static final String LOCK_NAME = "tasksphere.auth-token-cleanup";
+
+    @Autowired
+    private PasswordResetRepository passwordResetRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private DatabaseNamedLock databaseNamedLock;
+
+    @Value("${app.auth.token-cleanup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.auth.token-cleanup.batch-size:1000}")
+    private int batchSize;
+
+    // Caps one run; whatever is left goes in the next
+    @Value("${app.auth.token-cleanup.max-batches:100}")
+    private int maxBatches;
+
+    private volatile CleanupReport lastReport;
+
+    /**
+     * Rows removed by one run
+     */
+    public record CleanupReport(Instant startedAt, Duration duration, long expiredPasswordResets,
+                                long usedPasswordResets, long expiredRefreshTokens, long expiredRevocations) {}
+
+    @Scheduled(fixedDelayString = "${app.auth.token-cleanup.interval-ms:3600000}",
+               initialDelayString = "${app.auth.token-cleanup.initial-delay-ms:300000}")
+    public void scheduledCleanup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            databaseNamedLock.runExclusively(LOCK_NAME, this::cleanup);
+        } catch (RuntimeException e) {
+            logger.error("Auth token cleanup failed", e);
+        }
+    }
+
+    public CleanupReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Run every purge once
+     */
+    public CleanupReport cleanup() {
+        Instant startedAt = Instant.now();
+        LocalDateTime now = LocalDateTime.now();
+        long expiredResets = deleteInBatches(() -> passwordResetRepository.deleteExpiredBatch(now, batchSize));
+        long usedResets = deleteInBatches(() -> passwordResetRepository.deleteUsedBatch(batchSize));
+        long expiredRefreshTokens = deleteInBatches(() -> refreshTokenRepository.deleteExpiredBatch(now, batchSize));
+        // A revoked token past its exp is rejected anyway
+        long expiredRevocations = deleteInBatches(() -> revokedTokenRepository.deleteExpiredBatch(now, batchSize));
+
+        CleanupReport report = new CleanupReport(startedAt, Duration.between(startedAt, Instant.now()),
+            expiredResets, usedResets, expiredRefreshTokens, expiredRevocations);
+        lastReport = report;
+        if (expiredResets + usedResets + expiredRefreshTokens + expiredRevocations > 0) {
+            logger.info("Auth token cleanup removed {} expired and {} used password resets, {} expired "
+                    + "refresh tokens and {} expired revocations in {} ms", expiredResets, usedResets,
+                expiredRefreshTokens, expiredRevocations, report.duration().toMillis());
+        }
+        return report;
+    }
+
+    private long deleteInBatches(IntSupplier deleteBatch) {
+        long deleted = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int count = deleteBatch.getAsInt();
+            deleted += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,68 @@
+package com.tasksphere.shareme.service;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.tasksphere.shareme.concurrency.TokenBucketLimiter;
+import com.tasksphere.shareme.exception.TooManyRequestsException;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Per client address and per email limits on login attempts, checked before any
+ * password is hashed, so guessing and credential stuffing are turned away for
+ * the price of a map lookup.
+ */
+@Service
+public class LoginRateLimiter {
+
+    @Value("${app.auth.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.auth.rate-limit.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${app.auth.rate-limit.ip.refill-per-minute:10}")
+    private int ipRefillPerMinute;
+
+    @Value("${app.auth.rate-limit.email.capacity:5}")
+    private int emailCapacity;
+
+    @Value("${app.auth.rate-limit.email.refill-per-minute:2}")
+    private int emailRefillPerMinute;
+
+    @Value("${app.auth.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    private TokenBucketLimiter ipLimiter;
+    private TokenBucketLimiter emailLimiter;
+
+    @PostConstruct
+    public void initialize() {
+        ipLimiter = new TokenBucketLimiter("login-ip", ipCapacity, ipRefillPerMinute, maxKeys);
+        emailLimiter = new TokenBucketLimiter("login-email", emailCapacity, emailRefillPerMinute, maxKeys);
+    }
+
+    /**
+     * Take one attempt for the address and the email, or throw 429
+     */
+    public void acquire(String clientAddress, String email) {
+        if (!enabled) {
+            return;
+        }
+        if (clientAddress != null) {
+            check(ipLimiter.tryAcquire(clientAddress));
+        }
+        if (email != null) {
+            check(emailLimiter.tryAcquire(email.trim().toLowerCase(Locale.ROOT)));
+        }
+    }
+
+    private static void check(long retryAfterSeconds) {
+        if (retryAfterSeconds > 0) {
+            throw new TooManyRequestsException("Too many login attempts, please retry later", retryAfterSeconds);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.tasksphere.shareme.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.tasksphere.shareme.entity.TaskNote;
+import com.tasksphere.shareme.repository.TaskNoteRepository;
+
+/**
+ * In-memory inverted index over the name and content of each user's notes.
+ *
+ * A user's index is built from the database on their first search and then
+ * kept current as notes are saved and deleted on this node. Notes are never
+ * edited in place (saving creates a new note), so the note count and highest id
+ * identify a user's notes; every search compares them with the database in one
+ * index-only query and rebuilds the index when another node changed the notes.
+ * Only term sets and tags are kept, not content. Indexes of the least recently
+ * searching users are dropped beyond max-users.
+ */
+@Service
+public class NoteSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(NoteSearchIndex.class);
+
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MAX_TERM_LENGTH = 40;
+
+    @Autowired
+    private TaskNoteRepository taskNoteRepository;
+
+    @Value("${app.notes.search.max-users:1000}")
+    private int maxUsers;
+
+    // Guarded by this; access order, so the eldest entry is the least recently searched
+    private final LinkedHashMap<Long, UserIndex> indexes = new LinkedHashMap<>(64, 0.75f, true);
+
+    /**
+     * Ids of all matching notes, best first, and how many of them carry each tag
+     */
+    public record SearchResult(List<Long> noteIds, Map<String, Integer> tagCounts) {}
+
+    private record Signature(long noteCount, long maxNoteId) {}
+
+    private record Document(Long id, Set<String> nameTerms, Set<String> terms, List<String> tags,
+                            LocalDateTime updatedAt) {}
+
+    /**
+     * Notes whose name or content has a word starting with each query word. Tag
+     * counts cover every match; the tag filter, when given, then narrows the ids.
+     */
+    public SearchResult search(Long userId, String query, String tag) {
+        List<String> queryTerms = new ArrayList<>(tokenize(query, 1));
+        if (queryTerms.isEmpty()) {
+            return new SearchResult(List.of(), Map.of());
+        }
+        return current(userId).search(queryTerms, tag);
+    }
+
+    /**
+     * Add a saved note to its user's index once the transaction commits
+     */
+    public void indexAfterCommit(TaskNote note) {
+        Long userId = note.getUser().getId();
+        Document document = toDocument(note);
+        afterCommit(() -> {
+            UserIndex index = loadedIndex(userId);
+            if (index != null) {
+                index.add(document);
+            }
+        });
+    }
+
+    /**
+     * Remove a deleted note from its user's index once the transaction commits
+     */
+    public void removeAfterCommit(Long userId, Long noteId) {
+        afterCommit(() -> {
+            UserIndex index = loadedIndex(userId);
+            if (index != null) {
+                index.remove(noteId);
+            }
+        });
+    }
+
+    private UserIndex current(Long userId) {
+        Signature signature = signature(userId);
+        UserIndex index = loadedIndex(userId);
+        if (index != null && index.signature().equals(signature)) {
+            return index;
+        }
+        UserIndex built = build(userId);
+        synchronized (this) {
+            indexes.put(userId, built);
+            if (indexes.size() > maxUsers) {
+                indexes.remove(indexes.keySet().iterator().next());
+            }
+        }
+        return built;
+    }
+
+    private synchronized UserIndex loadedIndex(Long userId) {
+        return indexes.get(userId);
+    }
+
+    private UserIndex build(Long userId) {
+        long start = System.nanoTime();
+        UserIndex index = new UserIndex();
+        for (TaskNote note : taskNoteRepository.findByUserIdWithTags(userId)) {
+            index.add(toDocument(note));
+        }
+        logger.debug("Built note search index for user {} with {} notes in {} ms",
+            userId, index.signature().noteCount(), (System.nanoTime() - start) / 1_000_000);
+        return index;
+    }
+
+    private Signature signature(Long userId) {
+        List<Object[]> rows = taskNoteRepository.findIndexSignature(userId);
+        Object[] row = rows.isEmpty() ? new Object[] {0L, null} : rows.get(0);
+        long count = row[0] != null ? ((Number) row[0]).longValue() : 0;
+        long maxId = row[1] != null ? ((Number) row[1]).longValue() : 0;
+        return new Signature(count, maxId);
+    }
+
+    private static Document toDocument(TaskNote note) {
+        Set<String> nameTerms = tokenize(note.getNoteName(), MIN_TERM_LENGTH);
+        Set<String> terms = new HashSet<>(nameTerms);
+        terms.addAll(tokenize(note.getNoteContent(), MIN_TERM_LENGTH));
+        List<String> tags = note.getReminderTags() != null ? List.copyOf(note.getReminderTags()) : List.of();
+        return new Document(note.getId(), nameTerms, terms, tags, note.getUpdatedAt());
+    }
+
+    /**
+     * Lower-cased runs of letters and digits, in order of first appearance
+     */
+    static Set<String> tokenize(String text, int minLength) {
+        if (text == null || text.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+            .filter(term -> term.length() >= minLength)
+            .map(term -> term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * One user's postings. Terms are sorted, so all terms with a prefix are one range.
+     */
+    private static final class UserIndex {
+
+        private final TreeMap<String, Set<Long>> postings = new TreeMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private long maxNoteId;
+
+        Signature signature() {
+            lock.readLock().lock();
+            try {
+                return new Signature(documents.size(), maxNoteId);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void add(Document document) {
+            lock.writeLock().lock();
+            try {
+                if (documents.put(document.id(), document) != null) {
+                    return;
+                }
+                for (String term : document.terms()) {
+                    postings.computeIfAbsent(term, t -> new HashSet<>()).add(document.id());
+                }
+                maxNoteId = Math.max(maxNoteId, document.id());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long noteId) {
+            lock.writeLock().lock();
+            try {
+                Document document = documents.remove(noteId);
+                if (document == null) {
+                    return;
+                }
+                for (String term : document.terms()) {
+                    Set<Long> ids = postings.get(term);
+                    if (ids != null && ids.remove(noteId) && ids.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+                // maxNoteId stays; if this was the newest note the signature no longer matches and the index is rebuilt
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        SearchResult search(List<String> queryTerms, String tag) {
+            lock.readLock().lock();
+            try {
+                Set<Long> matches = null;
+                for (String term : queryTerms) {
+                    Set<Long> termMatches = new HashSet<>();
+                    for (Set<Long> ids : postings.subMap(term, true, term + Character.MAX_VALUE, true).values()) {
+                        termMatches.addAll(ids);
+                    }
+                    if (matches == null) {
+                        matches = termMatches;
+                    } else {
+                        matches.retainAll(termMatches);
+                    }
+                    if (matches.isEmpty()) {
+                        return new SearchResult(List.of(), Map.of());
+                    }
+                }
+
+                Map<String, Integer> tagCounts = new HashMap<>();
+                List<Document> hits = new ArrayList<>(matches.size());
+                for (Long id : matches) {
+                    Document document = documents.get(id);
+                    document.tags().forEach(t -> tagCounts.merge(t, 1, Integer::sum));
+                    if (tag == null || document.tags().contains(tag)) {
+                        hits.add(document);
+                    }
+                }
+
+                // Name matches first, then the most recently updated
+                Map<Long, Integer> nameScores = new HashMap<>();
+                for (Document document : hits) {
+                    nameScores.put(document.id(), (int) queryTerms.stream()
+                        .filter(term -> document.nameTerms().stream().anyMatch(n -> n.startsWith(term)))
+                        .count());
+                }
+                hits.sort(Comparator.<Document>comparingInt(d -> nameScores.get(d.id())).reversed()
+                    .thenComparing(Document::updatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(Document::id, Comparator.reverseOrder()));
+
+                Map<String, Integer> sortedCounts = new LinkedHashMap<>();
+                tagCounts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .forEach(entry -> sortedCounts.put(entry.getKey(), entry.getValue()));
+                return new SearchResult(hits.stream().map(Document::id).collect(Collectors.toList()), sortedCounts);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.tasksphere.shareme.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.tasksphere.shareme.security.CalibratedPasswordEncoder;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs BCrypt on a small dedicated pool, so a burst of logins occupies at most
+ * a few cores and never the request threads that serve the rest of the API.
+ * When the queue is full or a hash waits too long the caller gets a 503 right
+ * away instead of piling up behind the burst.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    @Autowired
+    private CalibratedPasswordEncoder passwordEncoder;
+
+    // 0 uses half the available cores
+    @Value("${app.auth.hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.auth.hashing.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${app.auth.hashing.max-wait-ms:5000}")
+    private long maxWaitMs;
+
+    private ThreadPoolExecutor executor;
+    private String dummyHash;
+
+    @PostConstruct
+    public void initialize() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new CustomizableThreadFactory("password-hashing-"),
+            new ThreadPoolExecutor.AbortPolicy());
+        // Same cost as real hashes, so checking an unknown email takes as long as a known one
+        dummyHash = passwordEncoder.encode("dummy-password-for-unknown-accounts");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public boolean matches(String rawPassword, String passwordHash) {
+        return run(() -> passwordEncoder.matches(rawPassword, passwordHash));
+    }
+
+    /**
+     * Check a password for an email that has no account, taking the same time as a real check
+     */
+    public void matchesDummy(String rawPassword) {
+        matches(rawPassword, dummyHash);
+    }
+
+    /**
+     * Whether a stored hash was made at a lower cost than new hashes get
+     */
+    public boolean needsRehash(String passwordHash) {
+        return passwordEncoder.upgradeEncoding(passwordHash);
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    private <T> T run(Callable<T> work) {
+        Future<T> future;
+        try {
+            future = executor.submit(work);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Password hashing queue is full; rejecting request");
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server busy, please retry");
+        }
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server busy, please retry");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server busy, please retry");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -31,6 +31,9 @@ public class ProjectService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AttachmentUsageService attachmentUsageService;
+
     public List<ProjectResponse> getUserProjects(Long userId) {
         List<Project> projects = projectRepository.findAllUserProjects(userId);
         return projects.stream()
@@ -53,6 +56,13 @@ public class ProjectService {
     }
 
     public ProjectResponse getProjectById(Long projectId, Long userId) {
+        return convertToProjectResponse(getAccessibleProject(projectId, userId));
+    }
+
+    /**
+     * Load a project the user owns or is a member of
+     */
+    public Project getAccessibleProject(Long projectId, Long userId) {
         Optional<Project> projectOpt = projectRepository.findById(projectId);
         if (projectOpt.isEmpty()) {
             throw new RuntimeException("Project not found");
@@ -68,7 +78,7 @@ public class ProjectService {
             throw new RuntimeException("Access denied");
         }
 
-        return convertToProjectResponse(project);
+        return project;
     }
 
     public ProjectResponse updateProject(Long projectId, CreateProjectRequest request, Long userId) {
@@ -105,6 +115,7 @@ public class ProjectService {
             throw new RuntimeException("Only project owner can delete the project");
         }
 
+        attachmentUsageService.recordProjectDeleted(projectId);
         projectRepository.delete(project);
     }
 
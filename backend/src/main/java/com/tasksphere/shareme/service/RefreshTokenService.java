@@ -0,0 +1,159 @@
+package com.tasksphere.shareme.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.tasksphere.shareme.entity.RefreshToken;
+import com.tasksphere.shareme.entity.User;
+import com.tasksphere.shareme.repository.RefreshTokenRepository;
+
+/**
+ * Opaque refresh tokens that are replaced on every use.
+ *
+ * A login starts a family; each refresh marks the presented token used and
+ * issues its successor in the same family, with an expiry that slides forward
+ * up to the session limit. A used token coming back means two parties hold the
+ * family, so the whole family is revoked and the user has to log in again.
+ *
+ * The exception is a retry within a few seconds of the first use while its
+ * successor is still unused: a lost response or two tabs refreshing at once.
+ * Only the successor's hash is stored, so the retry gets a new token in the
+ * same family instead of the one issued first, which stays valid as well.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    // Idle limit: a session unused for this long ends
+    @Value("${app.jwt.refresh-token-days:14}")
+    private long refreshTokenDays;
+
+    // Absolute limit from login, however active the session is
+    @Value("${app.jwt.refresh-session-max-days:90}")
+    private long sessionMaxDays;
+
+    // How long after its first use a token may be presented again; 0 treats every repeat as reuse
+    @Value("${app.jwt.refresh-reuse-grace-seconds:10}")
+    private long reuseGraceSeconds;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private record IssuedToken(RefreshToken token, String rawToken) {}
+
+    /**
+     * A new refresh token and the user it belongs to
+     */
+    public record Rotation(User user, String refreshToken) {}
+
+    /**
+     * Start a new family for a login. Returns the raw token; only its hash is stored.
+     */
+    @Transactional
+    public String issue(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        return store(user, UUID.randomUUID().toString(), now.plusDays(sessionMaxDays), now).rawToken();
+    }
+
+    /**
+     * Exchange a refresh token for its successor. The reuse revocation must survive
+     * the 401, hence no rollback for ResponseStatusException.
+     */
+    @Transactional(noRollbackFor = ResponseStatusException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken token = refreshTokenRepository.lockByTokenHash(hashToken(rawToken))
+            .orElseThrow(RefreshTokenService::invalidToken);
+        if (token.getRevoked() || token.isExpired()) {
+            throw invalidToken();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (token.getUsedAt() != null) {
+            if (isRetry(token, now)) {
+                logger.debug("Refresh token of user {} presented again within the grace period", token.getUser().getId());
+                String sibling = store(token.getUser(), token.getFamilyId(), token.getSessionExpiresAt(), now).rawToken();
+                return new Rotation(token.getUser(), sibling);
+            }
+            int revoked = refreshTokenRepository.revokeFamily(token.getFamilyId());
+            logger.warn("Refresh token reuse for user {}; revoked {} tokens of the session",
+                token.getUser().getId(), revoked);
+            throw invalidToken();
+        }
+        token.setUsedAt(now);
+        IssuedToken successor = store(token.getUser(), token.getFamilyId(), token.getSessionExpiresAt(), now);
+        token.setReplacedById(successor.token().getId());
+        return new Rotation(token.getUser(), successor.rawToken());
+    }
+
+    /**
+     * A used token presented again shortly after, while its successor has not been used
+     */
+    private boolean isRetry(RefreshToken token, LocalDateTime now) {
+        if (reuseGraceSeconds <= 0 || token.getReplacedById() == null
+                || token.getUsedAt().plusSeconds(reuseGraceSeconds).isBefore(now)) {
+            return false;
+        }
+        return refreshTokenRepository.findById(token.getReplacedById())
+            .filter(successor -> successor.getUsedAt() == null && !successor.getRevoked())
+            .isPresent();
+    }
+
+    /**
+     * End the session a refresh token belongs to, if it is the user's
+     */
+    @Transactional
+    public void revoke(String rawToken, Long userId) {
+        refreshTokenRepository.lockByTokenHash(hashToken(rawToken))
+            .filter(token -> token.getUser().getId().equals(userId))
+            .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    /**
+     * End every session of a user, e.g. after a password change
+     */
+    @Transactional
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId);
+    }
+
+    private IssuedToken store(User user, String familyId, LocalDateTime sessionExpiresAt, LocalDateTime now) {
+        byte[] tokenBytes = new byte[32];
+        secureRandom.nextBytes(tokenBytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(tokenBytes);
+        LocalDateTime idleExpiry = now.plusDays(refreshTokenDays);
+        LocalDateTime expiresAt = idleExpiry.isBefore(sessionExpiresAt) ? idleExpiry : sessionExpiresAt;
+        RefreshToken token = refreshTokenRepository.save(
+            new RefreshToken(user, familyId, hashToken(rawToken), expiresAt, sessionExpiresAt));
+        return new IssuedToken(token, rawToken);
+    }
+
+    private static ResponseStatusException invalidToken() {
+        return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired refresh token");
+    }
+
+    private static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 algorithm not available", e);
+        }
+    }
+}
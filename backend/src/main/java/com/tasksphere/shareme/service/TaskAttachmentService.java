@@ -1,42 +1,86 @@
 package com.tasksphere.shareme.service;
 
 import java.io.IOException;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.tasksphere.shareme.dto.SignedUrlResponse;
 import com.tasksphere.shareme.dto.TaskAttachmentResponse;
 import com.tasksphere.shareme.dto.UserInfo;
+import com.tasksphere.shareme.entity.AttachmentUsage;
 import com.tasksphere.shareme.entity.Task;
 import com.tasksphere.shareme.entity.TaskAttachment;
 import com.tasksphere.shareme.entity.User;
 import com.tasksphere.shareme.exception.ResourceNotFoundException;
 import com.tasksphere.shareme.repository.TaskAttachmentRepository;
 import com.tasksphere.shareme.repository.TaskRepository;
+import com.tasksphere.shareme.security.DownloadUrlSigner;
+import com.tasksphere.shareme.util.FileChecksums;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 @Service
 public class TaskAttachmentService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TaskAttachmentService.class);
+
     @Autowired
     private TaskAttachmentRepository taskAttachmentRepository;
 
     @Autowired
     private TaskRepository taskRepository;
 
-    @Value("${app.file.upload-dir:uploads}")
-    private String uploadDir;
+    @Autowired
+    private AttachmentBlobStore attachmentBlobStore;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private AttachmentUsageService attachmentUsageService;
+
+    @Autowired
+    private AttachmentContentCache attachmentContentCache;
+
+    @Autowired
+    private DownloadUrlSigner downloadUrlSigner;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.file.upload-threads:4}")
+    private int uploadThreads;
+
+    private ExecutorService uploadExecutor;
+
+    private TransactionTemplate transactionTemplate;
 
     private static final long MAX_FILE_SIZE = 50 * 1024 * 1024; // 50MB
     private static final String[] ALLOWED_EXTENSIONS = {
@@ -45,63 +89,167 @@ public class TaskAttachmentService {
         "mp4", "avi", "mov", "wmv", "flv", "webm"
     };
 
+    @PostConstruct
+    public void initialize() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // Bounded queue; when full the request thread stores the file itself, which
+        // throttles uploads instead of buffering an unbounded amount of work
+        uploadExecutor = new ThreadPoolExecutor(uploadThreads, uploadThreads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(uploadThreads * 16),
+            new CustomizableThreadFactory("attachment-upload-"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdown();
+    }
+
     /**
-     * Upload multiple files for a task
+     * Upload multiple files for a task. Files are stored concurrently and all rows are
+     * inserted in one transaction; if anything fails, files already stored are removed.
      */
     public List<TaskAttachmentResponse> uploadFiles(Long taskId, List<MultipartFile> files, User uploader) {
         Task task = taskRepository.findById(taskId)
             .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
 
-        return files.stream()
-            .map(file -> uploadSingleFile(task, file, uploader))
-            .collect(Collectors.toList());
+        // Reject the whole request before writing anything
+        validateFiles(task, files, uploader);
+
+        List<StoredFile> storedFiles;
+        if (files.size() == 1) {
+            storedFiles = List.of(storeFile(files.get(0)));
+        } else {
+            List<CompletableFuture<StoredFile>> pending = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> storeFile(file), uploadExecutor))
+                .collect(Collectors.toList());
+            storedFiles = awaitStoredFiles(pending);
+        }
+
+        return saveAttachments(task, storedFiles, uploader);
     }
 
     /**
      * Upload a single file
      */
     public TaskAttachmentResponse uploadSingleFile(Task task, MultipartFile file, User uploader) {
-        validateFile(file);
+        validateFiles(task, List.of(file), uploader);
+        return saveAttachments(task, List.of(storeFile(file)), uploader).get(0);
+    }
+
+    /**
+     * Attach a file that was already written to staging, e.g. by a resumable upload
+     */
+    public TaskAttachmentResponse attachStagedFile(Long taskId, String originalFilename, String contentType,
+                                                   Path stagedPath, String contentHash, User uploader) {
+        Task task = taskRepository.findById(taskId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
+        try {
+            StoredFile storedFile = new StoredFile(originalFilename, stagedPath, Files.size(stagedPath),
+                contentType, contentHash);
+            return saveAttachments(task, List.of(storedFile), uploader).get(0);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store file: " + originalFilename, e);
+        }
+    }
+
+    /**
+     * Move the spooled multipart file into staging and checksum it
+     */
+    private StoredFile storeFile(MultipartFile file) {
+        String originalFilename = file.getOriginalFilename();
+        Path stagedPath = attachmentBlobStore.newStagingPath();
 
         try {
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
+            // With an absolute target Tomcat renames its temp file instead of copying it
+            // when both are on the same file system
+            file.transferTo(stagedPath.toFile());
+            // The file was just written, so this read is served from the page cache
+            String contentHash = FileChecksums.sha256Hex(stagedPath);
+            return new StoredFile(originalFilename, stagedPath, Files.size(stagedPath),
+                file.getContentType(), contentHash);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(stagedPath);
+            throw new RuntimeException("Failed to store file: " + originalFilename, e);
+        }
+    }
+
+    /**
+     * Wait for every file, removing the ones that were stored if any of them failed
+     */
+    private List<StoredFile> awaitStoredFiles(List<CompletableFuture<StoredFile>> pending) {
+        try {
+            // allOf completes only once every file has finished, successfully or not
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            pending.stream()
+                .filter(future -> !future.isCompletedExceptionally())
+                .forEach(future -> deleteQuietly(future.join().stagedPath()));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
+            throw new RuntimeException("Failed to store files", e.getCause());
+        }
+        return pending.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
 
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = getFileExtension(originalFilename);
-            String storedFilename = UUID.randomUUID().toString() + "." + fileExtension;
-            
-            // Create file path
-            Path filePath = uploadPath.resolve(storedFilename);
-            
-            // Save file
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-            // Create attachment entity
-            TaskAttachment attachment = new TaskAttachment();
-            attachment.setTask(task);
-            attachment.setOriginalFilename(originalFilename);
-            attachment.setStoredFilename(storedFilename);
-            attachment.setFilePath(filePath.toString());
-            attachment.setFileSize(file.getSize());
-            attachment.setContentType(file.getContentType());
-            attachment.setUploadedBy(uploader);
-            attachment.setUploadedAt(LocalDateTime.now());
-
-            // Save to database
-            TaskAttachment savedAttachment = taskAttachmentRepository.save(attachment);
-
-            return convertToResponse(savedAttachment);
+    /**
+     * Promote staged files to blobs and insert all rows in one transaction.
+     * Duplicate content only adds a reference; its staged copy is dropped.
+     */
+    private List<TaskAttachmentResponse> saveAttachments(Task task, List<StoredFile> storedFiles, User uploader) {
+        List<TaskAttachment> saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                List<TaskAttachment> attachments = new ArrayList<>();
+                // Lock blob rows in hash order so concurrent uploads cannot deadlock
+                storedFiles.stream()
+                    .sorted(Comparator.comparing(StoredFile::contentHash))
+                    .forEach(storedFile -> {
+                        String location = attachmentBlobStore.addReference(
+                            storedFile.contentHash(), storedFile.stagedPath(), storedFile.size());
+                        attachments.add(createAttachment(task, storedFile, location, uploader));
+                    });
+                attachmentUsageService.recordUpload(task, uploader, attachments);
+                return taskAttachmentRepository.saveAll(attachments);
+            });
+        } finally {
+            // Staged files have been moved or dropped unless something failed
+            storedFiles.forEach(storedFile -> deleteQuietly(storedFile.stagedPath()));
+        }
+
+        // Queued only after commit so the worker sees the rows and the blob files
+        saved.forEach(thumbnailService::submit);
+        return saved.stream()
+            .map(this::convertToResponse)
+            .collect(Collectors.toList());
+    }
+
+    private TaskAttachment createAttachment(Task task, StoredFile storedFile, String location, User uploader) {
+        TaskAttachment attachment = new TaskAttachment();
+        attachment.setTask(task);
+        attachment.setOriginalFilename(storedFile.originalFilename());
+        attachment.setStoredFilename(storedFile.contentHash());
+        attachment.setFilePath(location);
+        attachment.setFileSize(storedFile.size());
+        attachment.setContentType(storedFile.contentType());
+        attachment.setContentHash(storedFile.contentHash());
+        attachment.setUploadedBy(uploader);
+        attachment.setUploadedAt(LocalDateTime.now());
+        return attachment;
+    }
 
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
         } catch (IOException e) {
-            throw new RuntimeException("Failed to store file: " + file.getOriginalFilename(), e);
+            logger.warn("Could not remove stored file {}", path, e);
         }
     }
 
+    private record StoredFile(String originalFilename, Path stagedPath, long size,
+                              String contentType, String contentHash) {}
+
     /**
      * Get all attachments for a task
      */
@@ -113,31 +261,106 @@ public class TaskAttachmentService {
     }
 
     /**
-     * Download a file
+     * Get an attachment for download
      */
-    public Resource downloadFile(Long attachmentId) {
-        TaskAttachment attachment = taskAttachmentRepository.findById(attachmentId)
+    public TaskAttachment getAttachment(Long attachmentId) {
+        return taskAttachmentRepository.findById(attachmentId)
             .orElseThrow(() -> new ResourceNotFoundException("Attachment not found with id: " + attachmentId));
+    }
 
-        try {
-            Path filePath = Paths.get(attachment.getFilePath());
-            Resource resource = new UrlResource(filePath.toUri());
-            
-            if (resource.exists() && resource.isReadable()) {
-                return resource;
-            } else {
-                throw new ResourceNotFoundException("File not found or not readable: " + attachment.getOriginalFilename());
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Error downloading file: " + attachment.getOriginalFilename(), e);
+    /**
+     * Short-lived signed /files/ URL that serves the attachment without a JWT or a
+     * database lookup. Attachments stored before content addressing have none.
+     */
+    public SignedUrlResponse getSignedDownloadUrl(TaskAttachment attachment) {
+        if (attachment.getContentHash() == null) {
+            throw new ResourceNotFoundException("Signed download not available for attachment: " + attachment.getId());
+        }
+        String contentType = attachment.getContentType() != null ? attachment.getContentType() : "application/octet-stream";
+        DownloadUrlSigner.SignedUrl signedUrl = downloadUrlSigner.sign(attachment.getContentHash(),
+            attachment.getOriginalFilename(), contentType);
+        return new SignedUrlResponse(signedUrl.url(), signedUrl.expiresAt());
+    }
+
+    /**
+     * URL the client can download the attachment from directly, when the storage
+     * backend serves files itself (e.g. a presigned object-store URL)
+     */
+    public Optional<URI> getDirectDownloadUrl(TaskAttachment attachment) {
+        return attachmentBlobStore.downloadUrl(attachment.getFilePath(),
+            attachment.getOriginalFilename(), attachment.getContentType());
+    }
+
+    /**
+     * Get the stored file of an attachment, checking that it can be read
+     */
+    public Path getStoredFile(TaskAttachment attachment) {
+        return attachmentBlobStore.localFile(attachment.getFilePath())
+            .filter(Files::isReadable)
+            .orElseThrow(() -> new ResourceNotFoundException(
+                "File not found or not readable: " + attachment.getOriginalFilename()));
+    }
+
+    /**
+     * The content of a small, frequently downloaded attachment from memory. Empty means: serve the file.
+     */
+    public Optional<AttachmentContentCache.CachedContent> getCachedContent(TaskAttachment attachment, Path file) {
+        return attachmentContentCache.get(attachment.getContentHash(), file);
+    }
+
+    /**
+     * Download cache statistics; they describe every user's traffic, so admins only
+     */
+    public AttachmentContentCache.CacheStats getContentCacheStats(User caller) {
+        if (caller == null || caller.getRole() != User.UserRole.ADMIN) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Admin role required");
+        }
+        return attachmentContentCache.getStats();
+    }
+
+    /**
+     * URL the client can fetch the thumbnail from directly, when the storage backend serves files itself
+     */
+    public Optional<URI> getDirectThumbnailUrl(TaskAttachment attachment) {
+        return attachmentBlobStore.downloadUrl(getThumbnailLocation(attachment),
+            "thumbnail-" + attachment.getId() + ".png", "image/png");
+    }
+
+    /**
+     * Get the thumbnail of an image attachment, if one has been generated
+     */
+    public Path getThumbnailFile(TaskAttachment attachment) {
+        return attachmentBlobStore.localFile(getThumbnailLocation(attachment))
+            .filter(Files::isReadable)
+            .orElseThrow(() -> new ResourceNotFoundException("No thumbnail for attachment: " + attachment.getId()));
+    }
+
+    private String getThumbnailLocation(TaskAttachment attachment) {
+        if (!Boolean.TRUE.equals(attachment.getHasThumbnail())) {
+            throw new ResourceNotFoundException("No thumbnail for attachment: " + attachment.getId());
         }
+        return attachmentBlobStore.findThumbnail(attachment.getContentHash())
+            .orElseThrow(() -> new ResourceNotFoundException("No thumbnail for attachment: " + attachment.getId()));
     }
 
     /**
-     * Delete an attachment
+     * Strong ETag of an attachment. Stored files never change, so the content hash
+     * (or, for files stored before hashing, id and size) identifies the bytes.
      */
+    public String getEntityTag(TaskAttachment attachment) {
+        if (attachment.getContentHash() != null) {
+            return "\"" + attachment.getContentHash() + "\"";
+        }
+        return "\"" + attachment.getId() + "-" + attachment.getFileSize() + "\"";
+    }
+
+    /**
+     * Delete an attachment. The stored file is removed with its last reference.
+     */
+    @Transactional
     public void deleteAttachment(Long attachmentId, User user) {
-        TaskAttachment attachment = taskAttachmentRepository.findById(attachmentId)
+        // Locked so the storage migrator cannot convert the row underneath us
+        TaskAttachment attachment = taskAttachmentRepository.lockById(attachmentId)
             .orElseThrow(() -> new ResourceNotFoundException("Attachment not found with id: " + attachmentId));
 
         // Check if user has permission to delete (task creator, assignee, or file uploader)
@@ -150,16 +373,18 @@ public class TaskAttachmentService {
             throw new RuntimeException("You don't have permission to delete this attachment");
         }
 
-        try {
-            // Delete file from storage
-            Path filePath = Paths.get(attachment.getFilePath());
-            if (Files.exists(filePath)) {
-                Files.delete(filePath);
-            }
-
-            // Delete from database
-            taskAttachmentRepository.delete(attachment);
+        // Delete from database. Blob row before usage counters, the order uploads lock them in.
+        taskAttachmentRepository.delete(attachment);
+        if (attachment.getContentHash() != null) {
+            attachmentBlobStore.removeReference(attachment.getContentHash());
+            attachmentUsageService.recordDelete(attachment);
+            return;
+        }
+        attachmentUsageService.recordDelete(attachment);
 
+        // Attachments stored before content addressing own their file
+        try {
+            attachmentBlobStore.delete(attachment.getFilePath());
         } catch (IOException e) {
             throw new RuntimeException("Failed to delete file: " + attachment.getOriginalFilename(), e);
         }
@@ -169,14 +394,22 @@ public class TaskAttachmentService {
      * Get attachment count for a task
      */
     public long getAttachmentCount(Long taskId) {
-        return taskAttachmentRepository.countByTaskId(taskId);
+        return attachmentUsageService.getUsage(AttachmentUsage.Scope.TASK, taskId).fileCount();
     }
 
     /**
      * Get total file size for a task
      */
     public long getTotalFileSize(Long taskId) {
-        return taskAttachmentRepository.getTotalFileSizeByTaskId(taskId);
+        return attachmentUsageService.getUsage(AttachmentUsage.Scope.TASK, taskId).totalBytes();
+    }
+
+    /**
+     * Validate every file and check the quotas for their combined size
+     */
+    private void validateFiles(Task task, List<MultipartFile> files, User uploader) {
+        files.forEach(this::validateFile);
+        attachmentUsageService.checkQuota(task, uploader, files.stream().mapToLong(MultipartFile::getSize).sum());
     }
 
     /**
@@ -187,11 +420,17 @@ public class TaskAttachmentService {
             throw new RuntimeException("File is empty");
         }
 
-        if (file.getSize() > MAX_FILE_SIZE) {
+        validateUpload(file.getOriginalFilename(), file.getSize());
+    }
+
+    /**
+     * Validate the name and size of a file before any of it is stored
+     */
+    public void validateUpload(String filename, long size) {
+        if (size > MAX_FILE_SIZE) {
             throw new RuntimeException("File size exceeds maximum limit of 50MB");
         }
 
-        String filename = file.getOriginalFilename();
         if (filename == null || filename.trim().isEmpty()) {
             throw new RuntimeException("Invalid filename");
         }
@@ -234,7 +473,7 @@ public class TaskAttachmentService {
 
         String downloadUrl = "/api/tasks/attachments/" + attachment.getId() + "/download";
 
-        return new TaskAttachmentResponse(
+        TaskAttachmentResponse response = new TaskAttachmentResponse(
             attachment.getId(),
             attachment.getOriginalFilename(),
             attachment.getFileSize(),
@@ -243,5 +482,11 @@ public class TaskAttachmentService {
             attachment.getUploadedAt(),
             downloadUrl
         );
+        if (Boolean.TRUE.equals(attachment.getHasThumbnail())) {
+            // Signed, so it works as an <img> src without an Authorization header
+            response.setThumbnailUrl(downloadUrlSigner.sign(attachment.getContentHash() + "/thumbnail",
+                "thumbnail-" + attachment.getId() + ".png", "image/png").url());
+        }
+        return response;
     }
 }
\ No newline at end of file
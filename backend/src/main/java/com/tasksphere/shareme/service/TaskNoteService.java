@@ -1,7 +1,10 @@
 package com.tasksphere.shareme.service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -10,6 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.tasksphere.shareme.dto.NoteSearchResponse;
 import com.tasksphere.shareme.dto.TaskNoteRequest;
 import com.tasksphere.shareme.dto.TaskNoteResponse;
 import com.tasksphere.shareme.entity.Task;
@@ -35,6 +39,9 @@ public class TaskNoteService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private NoteSearchIndex noteSearchIndex;
+    
     /**
      * Get or create a task note for a user and task
      */
@@ -99,6 +106,7 @@ public class TaskNoteService {
         TaskNote taskNote = new TaskNote(user, task, request.getNoteName(), request.getNoteContent(), request.getReminderTags());
         
         TaskNote savedNote = taskNoteRepository.save(taskNote);
+        noteSearchIndex.indexAfterCommit(savedNote);
         logger.info("Task note saved successfully for user {} and task {}", userId, request.getTaskId());
         
         return convertToResponse(savedNote);
@@ -115,6 +123,7 @@ public class TaskNoteService {
             .orElseThrow(() -> new ResourceNotFoundException("Task note not found for user " + userId + " and task " + taskId));
         
         taskNoteRepository.delete(taskNote);
+        noteSearchIndex.removeAfterCommit(userId, taskNote.getId());
         logger.info("Task note deleted successfully for user {} and task {}", userId, taskId);
     }
     
@@ -144,6 +153,28 @@ public class TaskNoteService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Search the name and content of a user's notes by word prefixes, with tag counts over all matches
+     */
+    @Transactional(readOnly = true)
+    public NoteSearchResponse searchTaskNotes(Long userId, String query, String tag, int limit) {
+        logger.debug("Searching task notes for user {} with query '{}' and tag {}", userId, query, tag);
+        
+        NoteSearchIndex.SearchResult result = noteSearchIndex.search(userId, query, tag);
+        List<Long> pageIds = result.noteIds().subList(0, Math.min(limit, result.noteIds().size()));
+        Map<Long, TaskNote> notesById = pageIds.isEmpty() ? Map.of()
+            : taskNoteRepository.findWithTaskAndTagsByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(TaskNote::getId, Function.identity()));
+        
+        // Keep the index's ranking; notes deleted since the index was read drop out
+        List<TaskNoteResponse> notes = pageIds.stream()
+                .map(notesById::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+        return new NoteSearchResponse(notes, result.noteIds().size(), result.tagCounts());
+    }
+    
     /**
      * Get all unique tags used by a user
      */
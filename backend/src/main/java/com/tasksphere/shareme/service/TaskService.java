@@ -36,6 +36,9 @@ public class TaskService {
     
     @Autowired
     private TaskAttachmentService taskAttachmentService;
+
+    @Autowired
+    private AttachmentUsageService attachmentUsageService;
     
     /**
      * Get all tasks accessible by the user with search and filtering
@@ -161,6 +164,7 @@ public class TaskService {
             throw new UnauthorizedException("You don't have permission to delete this task");
         }
         
+        attachmentUsageService.recordTaskDeleted(task);
         taskRepository.delete(task);
     }
     
@@ -0,0 +1,215 @@
+package com.tasksphere.shareme.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.tasksphere.shareme.entity.TaskAttachment;
+import com.tasksphere.shareme.repository.TaskAttachmentRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Renders PNG thumbnails of image attachments in the background. Thumbnails are
+ * stored next to the blob and shared by every attachment with the same content.
+ *
+ * Work runs on a small bounded pool; when its queue is full the thumbnail is
+ * skipped, so a burst of uploads never waits on image decoding.
+ */
+@Service
+public class ThumbnailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailService.class);
+
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp");
+    // Refuse pathological dimensions before decoding anything
+    private static final long MAX_SOURCE_PIXELS = 100_000_000L;
+
+    @Autowired
+    private AttachmentBlobStore attachmentBlobStore;
+
+    @Autowired
+    private TaskAttachmentRepository taskAttachmentRepository;
+
+    @Value("${app.thumbnails.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.thumbnails.size:256}")
+    private int thumbnailSize;
+
+    @Value("${app.thumbnails.threads:2}")
+    private int threads;
+
+    @Value("${app.thumbnails.queue-capacity:100}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor thumbnailExecutor;
+
+    // Hashes queued or rendering, so duplicate uploads don't render the same image twice
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void initialize() {
+        thumbnailExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new CustomizableThreadFactory("thumbnail-"),
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        thumbnailExecutor.shutdownNow();
+    }
+
+    /**
+     * Queue a thumbnail for a saved attachment. Call after the row is committed.
+     */
+    public void submit(TaskAttachment attachment) {
+        String contentHash = attachment.getContentHash();
+        if (!enabled || contentHash == null || !isImage(attachment.getOriginalFilename())) {
+            return;
+        }
+        if (!inFlight.add(contentHash)) {
+            // The running job marks every row with this hash, including this one
+            return;
+        }
+        try {
+            String sourceLocation = attachment.getFilePath();
+            thumbnailExecutor.execute(() -> generate(contentHash, sourceLocation));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(contentHash);
+            logger.debug("Thumbnail queue full, skipping thumbnail for {}", contentHash);
+        }
+    }
+
+    private void generate(String contentHash, String sourceLocation) {
+        Path downloaded = null;
+        Path rendered = attachmentBlobStore.newStagingPath();
+        try {
+            if (!attachmentBlobStore.thumbnailExists(contentHash)) {
+                // Remote blobs are fetched once so the reader can seek while subsampling
+                Path source = attachmentBlobStore.localFile(sourceLocation).orElse(null);
+                if (source == null) {
+                    downloaded = attachmentBlobStore.newStagingPath();
+                    try (InputStream in = attachmentBlobStore.open(sourceLocation)) {
+                        Files.copy(in, downloaded);
+                    }
+                    source = downloaded;
+                }
+                render(source, rendered);
+                attachmentBlobStore.putThumbnail(contentHash, rendered);
+            }
+        } catch (IOException | RuntimeException e) {
+            inFlight.remove(contentHash);
+            logger.warn("Could not render thumbnail for {}", contentHash, e);
+            return;
+        } finally {
+            deleteQuietly(downloaded);
+            deleteQuietly(rendered);
+        }
+
+        // Removed before the update so rows committed meanwhile are either covered
+        // by this update or submit a job of their own
+        inFlight.remove(contentHash);
+        try {
+            taskAttachmentRepository.markThumbnailAvailable(contentHash);
+        } catch (RuntimeException e) {
+            logger.warn("Could not record thumbnail for {}", contentHash, e);
+        }
+    }
+
+    /**
+     * Decode the image subsampled to roughly twice the thumbnail size, scale it to
+     * fit the box and write it as PNG.
+     */
+    private void render(Path source, Path target) throws IOException {
+        BufferedImage image;
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                throw new IOException("Cannot open image " + source);
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    throw new IOException("Image too large: " + width + "x" + height);
+                }
+                // Subsampling skips pixels while decoding, so large photos never
+                // need a full-resolution buffer
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / (thumbnailSize * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                image = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        double scale = Math.min(1.0, (double) thumbnailSize / Math.max(image.getWidth(), image.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage thumbnail = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        if (!ImageIO.write(thumbnail, "png", target.toFile())) {
+            throw new IOException("No PNG writer available");
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not remove temporary file {}", path, e);
+        }
+    }
+
+    private boolean isImage(String filename) {
+        if (filename == null || filename.lastIndexOf('.') == -1) {
+            return false;
+        }
+        return IMAGE_EXTENSIONS.contains(filename.substring(filename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,111 @@
+package com.tasksphere.shareme.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Files on the local disk below the upload directory. Keys are relative paths
+ * and locations are absolute paths, which also covers rows written before the
+ * sharded layout existed.
+ */
+public class LocalStorageBackend implements StorageBackend {
+
+    private final Path root;
+
+    public LocalStorageBackend(Path root) {
+        this.root = root.toAbsolutePath();
+    }
+
+    @Override
+    public String locationOf(String key) {
+        return root.resolve(key).toString();
+    }
+
+    @Override
+    public boolean owns(String location) {
+        return !location.contains("://");
+    }
+
+    @Override
+    public String put(String key, Path file) throws IOException {
+        Path target = root.resolve(key);
+        Files.createDirectories(target.getParent());
+        Files.move(file, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return target.toString();
+    }
+
+    @Override
+    public boolean exists(String location) {
+        return Files.exists(Paths.get(location));
+    }
+
+    @Override
+    public InputStream open(String location) throws IOException {
+        return Files.newInputStream(Paths.get(location));
+    }
+
+    @Override
+    public void delete(String location) throws IOException {
+        Files.deleteIfExists(Paths.get(location));
+    }
+
+    /**
+     * Walks the tree one sorted directory at a time. Directories starting with a
+     * dot (such as .staging) are not part of the store.
+     */
+    @Override
+    public Stream<StoredObject> list() throws IOException {
+        if (!Files.isDirectory(root)) {
+            return Stream.empty();
+        }
+        return listSorted(root, "");
+    }
+
+    private Stream<StoredObject> listSorted(Path directory, String prefix) throws IOException {
+        List<Path> entries;
+        try (Stream<Path> children = Files.list(directory)) {
+            entries = children.sorted(Comparator.comparing(path -> path.getFileName().toString())).toList();
+        }
+        return entries.stream().flatMap(entry -> {
+            String name = entry.getFileName().toString();
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                if (attributes.isDirectory()) {
+                    return name.startsWith(".") ? Stream.empty() : listSorted(entry, prefix + name + "/");
+                }
+                if (!attributes.isRegularFile()) {
+                    return Stream.empty();
+                }
+                return Stream.of(new StoredObject(prefix + name, attributes.size(),
+                    attributes.lastModifiedTime().toInstant()));
+            } catch (NoSuchFileException e) {
+                // Deleted while we were listing
+                return Stream.empty();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public Optional<Path> localFile(String location) {
+        return Optional.of(Paths.get(location));
+    }
+
+    @Override
+    public Optional<URI> downloadUrl(String location, String filename, String contentType) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,138 @@
+package com.tasksphere.shareme.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.http.ContentDisposition;
+
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+/**
+ * Objects in an S3 bucket (or an S3-compatible store such as MinIO). Locations
+ * are s3://bucket/key. Downloads are served by the store through presigned
+ * URLs, so no application node has to hold the file.
+ */
+public class S3StorageBackend implements StorageBackend {
+
+    private final S3Client s3Client;
+    private final S3Presigner presigner;
+    private final String bucket;
+    private final String prefix;
+    private final Duration presignTtl;
+
+    public S3StorageBackend(S3Client s3Client, S3Presigner presigner, String bucket, Duration presignTtl) {
+        this.s3Client = s3Client;
+        this.presigner = presigner;
+        this.bucket = bucket;
+        this.prefix = "s3://" + bucket + "/";
+        this.presignTtl = presignTtl;
+    }
+
+    @Override
+    public String locationOf(String key) {
+        return prefix + key;
+    }
+
+    @Override
+    public boolean owns(String location) {
+        return location.startsWith(prefix);
+    }
+
+    @Override
+    public String put(String key, Path file) throws IOException {
+        try {
+            s3Client.putObject(request -> request.bucket(bucket).key(key), RequestBody.fromFile(file));
+        } catch (SdkException e) {
+            throw new IOException("Failed to upload " + key, e);
+        }
+        return locationOf(key);
+    }
+
+    @Override
+    public boolean exists(String location) throws IOException {
+        try {
+            s3Client.headObject(request -> request.bucket(bucket).key(keyOf(location)));
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (SdkException e) {
+            throw new IOException("Failed to look up " + location, e);
+        }
+    }
+
+    @Override
+    public InputStream open(String location) throws IOException {
+        try {
+            return s3Client.getObject(request -> request.bucket(bucket).key(keyOf(location)));
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(location);
+        } catch (SdkException e) {
+            throw new IOException("Failed to read " + location, e);
+        }
+    }
+
+    @Override
+    public void delete(String location) throws IOException {
+        try {
+            s3Client.deleteObject(request -> request.bucket(bucket).key(keyOf(location)));
+        } catch (SdkException e) {
+            throw new IOException("Failed to delete " + location, e);
+        }
+    }
+
+    /**
+     * S3 lists keys in UTF-8 binary order, one page of up to 1000 at a time
+     */
+    @Override
+    public Stream<StoredObject> list() throws IOException {
+        try {
+            return s3Client.listObjectsV2Paginator(request -> request.bucket(bucket))
+                .contents().stream()
+                .map(object -> new StoredObject(object.key(), object.size(), object.lastModified()));
+        } catch (SdkException e) {
+            throw new IOException("Failed to list bucket " + bucket, e);
+        }
+    }
+
+    @Override
+    public Optional<Path> localFile(String location) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<URI> downloadUrl(String location, String filename, String contentType) {
+        String disposition = ContentDisposition.attachment()
+            .filename(filename, StandardCharsets.UTF_8).build().toString();
+        try {
+            return Optional.of(presigner.presignGetObject(presign -> presign
+                .signatureDuration(presignTtl)
+                .getObjectRequest(request -> request
+                    .bucket(bucket)
+                    .key(keyOf(location))
+                    .responseContentType(contentType)
+                    .responseContentDisposition(disposition)))
+                .url().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Presigned URL is not a valid URI", e);
+        }
+    }
+
+    private String keyOf(String location) {
+        if (!owns(location)) {
+            throw new IllegalArgumentException("Not a location in bucket " + bucket + ": " + location);
+        }
+        return location.substring(prefix.length());
+    }
+}
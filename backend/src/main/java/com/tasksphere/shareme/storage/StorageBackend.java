@@ -0,0 +1,54 @@
+package com.tasksphere.shareme.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Where attachment bytes live. Objects are addressed by key when written and
+ * by location afterwards; the location is what gets recorded in the database
+ * (file_path, storage_path), so rows stay readable when the layout changes.
+ */
+public interface StorageBackend {
+
+    /**
+     * Location an object stored under this key has
+     */
+    String locationOf(String key);
+
+    /**
+     * Whether the location refers to an object held by this backend
+     */
+    boolean owns(String location);
+
+    /**
+     * Store a local file under the key and return its location. The file is moved
+     * or uploaded; the caller removes it if it is still there afterwards.
+     */
+    String put(String key, Path file) throws IOException;
+
+    boolean exists(String location) throws IOException;
+
+    InputStream open(String location) throws IOException;
+
+    void delete(String location) throws IOException;
+
+    /**
+     * Every object in key order, read lazily. Keys compare as plain strings, so
+     * sharded keys come out in content-hash order. The stream must be closed.
+     */
+    Stream<StoredObject> list() throws IOException;
+
+    /**
+     * The file on this node's disk, for backends that keep files locally
+     */
+    Optional<Path> localFile(String location);
+
+    /**
+     * A short-lived URL clients can download from directly, for backends that offer one
+     */
+    Optional<URI> downloadUrl(String location, String filename, String contentType);
+}
@@ -0,0 +1,8 @@
+package com.tasksphere.shareme.storage;
+
+import java.time.Instant;
+
+/**
+ * An object found when listing a storage backend
+ */
+public record StoredObject(String key, long size, Instant lastModified) {}
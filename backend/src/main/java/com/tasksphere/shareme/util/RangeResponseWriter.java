@@ -0,0 +1,350 @@
+package com.tasksphere.shareme.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.catalina.connector.CoyoteOutputStream;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes a stored file as an HTTP response with byte-range support (RFC 9110):
+ * single ranges as 206, multiple ranges as multipart/byteranges, unsatisfiable
+ * ranges as 416, and If-Range to fall back to the full file when it changed.
+ *
+ * Large single-part bodies use Tomcat's sendfile when the connector supports
+ * it and FileChannel.transferTo otherwise, so the file is never copied through
+ * a heap buffer. Content already in memory (see AttachmentContentCache) is
+ * handed to Tomcat's output buffer as is.
+ *
+ * Stored files never change, so responses are cacheable for a year and
+ * revalidation (If-None-Match, If-Modified-Since) is answered with 304.
+ */
+public final class RangeResponseWriter {
+
+    // Below this, sendfile setup costs more than it saves
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+    // More parts than this is almost always a scanner, not a media player
+    private static final int MAX_RANGES = 16;
+    // Private: downloads are per-user even when the bytes are shared
+    private static final String CACHE_CONTROL = "private, max-age=31536000, immutable";
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private RangeResponseWriter() {}
+
+    private record Range(long start, long end) {
+        long length() {
+            return end - start + 1;
+        }
+    }
+
+    private sealed interface Content permits FileContent, BufferContent {
+        long length();
+
+        long lastModified();
+    }
+
+    private record FileContent(Path file, long length, long lastModified) implements Content {}
+
+    private record BufferContent(ByteBuffer buffer, long lastModified) implements Content {
+        @Override
+        public long length() {
+            return buffer.remaining();
+        }
+    }
+
+    /**
+     * Write the file (or the requested ranges of it) to the response.
+     *
+     * @param etag strong entity tag including quotes, used for If-Range
+     */
+    public static void write(HttpServletRequest request, HttpServletResponse response, Path file,
+                             String contentType, String filename, String etag) throws IOException {
+        write(request, response, new FileContent(file, Files.size(file), Files.getLastModifiedTime(file).toMillis()),
+            contentType, filename, etag);
+    }
+
+    /**
+     * Write in-memory content (or the requested ranges of it) to the response.
+     * The buffer's position and limit are left untouched.
+     */
+    public static void write(HttpServletRequest request, HttpServletResponse response, ByteBuffer content,
+                             long lastModified, String contentType, String filename, String etag) throws IOException {
+        write(request, response, new BufferContent(content, lastModified), contentType, filename, etag);
+    }
+
+    private static void write(HttpServletRequest request, HttpServletResponse response, Content content,
+                              String contentType, String filename, String etag) throws IOException {
+        long length = content.length();
+        long lastModified = content.lastModified();
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (notModified(request, etag, lastModified)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(filename, StandardCharsets.UTF_8).build().toString());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+
+        List<Range> ranges = null;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request, etag, lastModified)) {
+            ranges = parseRanges(rangeHeader, length);
+            if (ranges != null && ranges.isEmpty()) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+        }
+
+        boolean head = "HEAD".equalsIgnoreCase(request.getMethod());
+        if (ranges == null) {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(contentType);
+            response.setContentLengthLong(length);
+            if (!head) {
+                sendRange(request, response, content, new Range(0, length - 1));
+            }
+        } else if (ranges.size() == 1) {
+            Range range = ranges.get(0);
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range.start() + "-" + range.end() + "/" + length);
+            response.setContentLengthLong(range.length());
+            if (!head) {
+                sendRange(request, response, content, range);
+            }
+        } else {
+            writeMultipart(response, content, ranges, length, contentType, head);
+        }
+    }
+
+    /**
+     * If-None-Match takes precedence over If-Modified-Since (RFC 9110 13.2.2)
+     */
+    private static boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                // Weak comparison: W/"x" matches "x"
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            return ifModifiedSince != -1 && lastModified / 1000 <= ifModifiedSince / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * If-Range: serve ranges only when the validator still matches, else the whole file
+     */
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            // HTTP dates have second precision
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Parse a "bytes=" range header. Returns null when the header should be ignored
+     * (malformed or too many parts), an empty list when nothing is satisfiable, and
+     * otherwise the ranges sorted with overlapping or adjacent ones merged.
+     */
+    private static List<Range> parseRanges(String header, long length) {
+        if (!header.startsWith("bytes=")) {
+            return null;
+        }
+        String[] specs = header.substring("bytes=".length()).split(",");
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+
+        List<Range> ranges = new ArrayList<>();
+        for (String rawSpec : specs) {
+            String spec = rawSpec.trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            try {
+                String first = spec.substring(0, dash).trim();
+                String last = spec.substring(dash + 1).trim();
+                long start;
+                long end;
+                if (first.isEmpty()) {
+                    // Suffix range: the last N bytes
+                    long suffix = Long.parseLong(last);
+                    if (suffix <= 0) {
+                        continue;
+                    }
+                    start = Math.max(0, length - suffix);
+                    end = length - 1;
+                } else {
+                    start = Long.parseLong(first);
+                    if (last.isEmpty()) {
+                        end = length - 1;
+                    } else {
+                        long requestedEnd = Long.parseLong(last);
+                        if (requestedEnd < start) {
+                            return null;
+                        }
+                        end = Math.min(requestedEnd, length - 1);
+                    }
+                }
+                if (start < length && start <= end) {
+                    ranges.add(new Range(start, end));
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        ranges.sort(Comparator.comparingLong(Range::start));
+        List<Range> merged = new ArrayList<>();
+        for (Range range : ranges) {
+            Range previous = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (previous != null && range.start() <= previous.end() + 1) {
+                merged.set(merged.size() - 1, new Range(previous.start(), Math.max(previous.end(), range.end())));
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged;
+    }
+
+    private static void sendRange(HttpServletRequest request, HttpServletResponse response, Content content,
+                                  Range range) throws IOException {
+        OutputStream out = response.getOutputStream();
+        if (content instanceof BufferContent bufferContent) {
+            writeBuffer(bufferContent.buffer(), range, out);
+            out.flush();
+            return;
+        }
+        Path file = ((FileContent) content).file();
+        if (range.length() >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the file straight from the page cache to the socket after we return
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.end() + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            transfer(channel, range, Channels.newChannel(out));
+        }
+        out.flush();
+    }
+
+    private static void writeMultipart(HttpServletResponse response, Content content, List<Range> ranges, long length,
+                                       String contentType, boolean head) throws IOException {
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        List<byte[]> partHeaders = new ArrayList<>();
+        long contentLength = 0;
+        for (Range range : ranges) {
+            byte[] header = ("\r\n--" + boundary + "\r\n"
+                + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                + HttpHeaders.CONTENT_RANGE + ": bytes " + range.start() + "-" + range.end() + "/" + length + "\r\n\r\n")
+                .getBytes(StandardCharsets.ISO_8859_1);
+            partHeaders.add(header);
+            contentLength += header.length + range.length();
+        }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.ISO_8859_1);
+        contentLength += closing.length;
+
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (head) {
+            return;
+        }
+
+        OutputStream out = response.getOutputStream();
+        if (content instanceof BufferContent bufferContent) {
+            for (int i = 0; i < ranges.size(); i++) {
+                out.write(partHeaders.get(i));
+                writeBuffer(bufferContent.buffer(), ranges.get(i), out);
+            }
+        } else {
+            WritableByteChannel target = Channels.newChannel(out);
+            try (FileChannel channel = FileChannel.open(((FileContent) content).file(), StandardOpenOption.READ)) {
+                for (int i = 0; i < ranges.size(); i++) {
+                    out.write(partHeaders.get(i));
+                    transfer(channel, ranges.get(i), target);
+                }
+            }
+        }
+        out.write(closing);
+        out.flush();
+    }
+
+    private static void writeBuffer(ByteBuffer buffer, Range range, OutputStream out) throws IOException {
+        ByteBuffer slice = buffer.duplicate();
+        int base = buffer.position();
+        slice.limit(base + (int) range.end() + 1);
+        slice.position(base + (int) range.start());
+        if (out instanceof CoyoteOutputStream coyote) {
+            // Straight into the connector's buffer, without a heap copy in between
+            coyote.write(slice);
+            return;
+        }
+        WritableByteChannel target = Channels.newChannel(out);
+        while (slice.hasRemaining()) {
+            target.write(slice);
+        }
+    }
+
+    private static void transfer(FileChannel channel, Range range, WritableByteChannel target) throws IOException {
+        long position = range.start();
+        long remaining = range.length();
+        while (remaining > 0) {
+            long written = channel.transferTo(position, remaining, target);
+            if (written <= 0) {
+                throw new IOException("File shrank while it was being sent");
+            }
+            position += written;
+            remaining -= written;
+        }
+    }
+}
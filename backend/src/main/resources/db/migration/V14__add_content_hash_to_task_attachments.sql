@@ -0,0 +1,4 @@
+-- V14: Store the SHA-256 of each attachment, computed during upload
+-- Existing rows keep NULL; their files were stored before checksums existed.
+
+ALTER TABLE task_attachments ADD COLUMN content_hash VARCHAR(64) NULL AFTER content_type;
@@ -0,0 +1,13 @@
+-- V15: Content-addressed attachment storage
+-- Each distinct file content is stored once, keyed by its SHA-256, and counted
+-- by the task_attachments rows that reference it.
+
+CREATE TABLE attachment_blobs (
+    content_hash VARCHAR(64) PRIMARY KEY,
+    storage_path VARCHAR(1000) NOT NULL,
+    file_size BIGINT NOT NULL,
+    ref_count INT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_task_attachments_content_hash ON task_attachments(content_hash);
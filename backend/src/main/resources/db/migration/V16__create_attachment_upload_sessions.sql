@@ -0,0 +1,20 @@
+-- V16: Resumable chunked attachment uploads
+-- A session tracks how many bytes of a staged file have been received so a
+-- client can resume after a dropped connection.
+
+CREATE TABLE attachment_upload_sessions (
+    id VARCHAR(36) PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    original_filename VARCHAR(500) NOT NULL,
+    content_type VARCHAR(255) NOT NULL,
+    total_size BIGINT NOT NULL,
+    received_bytes BIGINT NOT NULL DEFAULT 0,
+    expected_sha256 VARCHAR(64) NULL,
+    staging_path VARCHAR(1000) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    INDEX idx_upload_sessions_expires_at (expires_at)
+);
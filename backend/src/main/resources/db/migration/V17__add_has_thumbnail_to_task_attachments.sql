@@ -0,0 +1,4 @@
+-- V17: Track which image attachments have a generated thumbnail
+-- Thumbnails are stored next to the blob as <content_hash>.thumb.png.
+
+ALTER TABLE task_attachments ADD COLUMN has_thumbnail BIT(1) NOT NULL DEFAULT 0 AFTER content_hash;
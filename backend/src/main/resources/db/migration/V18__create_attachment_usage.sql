@@ -0,0 +1,28 @@
+-- V18: Attachment usage counters per task, project and uploader
+-- Kept up to date in the same transaction as uploads and deletes, so stats and
+-- quota checks read one row instead of aggregating task_attachments.
+-- Bytes are counted per attachment, before de-duplication.
+
+CREATE TABLE attachment_usage (
+    scope_type VARCHAR(10) NOT NULL,
+    scope_id BIGINT NOT NULL,
+    file_count BIGINT NOT NULL DEFAULT 0,
+    total_bytes BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (scope_type, scope_id)
+);
+
+INSERT INTO attachment_usage (scope_type, scope_id, file_count, total_bytes)
+SELECT 'TASK', task_id, COUNT(*), SUM(file_size)
+FROM task_attachments
+GROUP BY task_id;
+
+INSERT INTO attachment_usage (scope_type, scope_id, file_count, total_bytes)
+SELECT 'PROJECT', t.project_id, COUNT(*), SUM(ta.file_size)
+FROM task_attachments ta
+JOIN tasks t ON t.id = ta.task_id
+GROUP BY t.project_id;
+
+INSERT INTO attachment_usage (scope_type, scope_id, file_count, total_bytes)
+SELECT 'USER', uploaded_by, COUNT(*), SUM(file_size)
+FROM task_attachments
+GROUP BY uploaded_by;
@@ -0,0 +1,21 @@
+-- V19: Rotating refresh tokens
+-- Only the SHA-256 of a token is stored. Every refresh replaces the token with a
+-- new one in the same family; presenting a replaced token again revokes the
+-- whole family, since either the client or an attacker holds a stolen copy.
+
+CREATE TABLE refresh_tokens (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    family_id VARCHAR(36) NOT NULL,
+    token_hash VARCHAR(64) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    session_expires_at TIMESTAMP NOT NULL,
+    used_at TIMESTAMP NULL,
+    revoked BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_refresh_tokens_hash (token_hash),
+    INDEX idx_refresh_tokens_family (family_id),
+    INDEX idx_refresh_tokens_user (user_id),
+    INDEX idx_refresh_tokens_expires_at (expires_at)
+);
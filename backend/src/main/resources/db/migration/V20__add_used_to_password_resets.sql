@@ -0,0 +1,14 @@
+-- V20: password_resets.used, which the entity maps but no migration created
+-- Guarded, since databases where the column was added by hand already have it.
+-- The index lets the cleanup job find used tokens without a table scan.
+
+SET @has_used = (SELECT COUNT(*) FROM information_schema.columns
+                 WHERE table_schema = DATABASE() AND table_name = 'password_resets' AND column_name = 'used');
+SET @ddl = IF(@has_used = 0,
+              'ALTER TABLE password_resets ADD COLUMN used BOOLEAN NOT NULL DEFAULT FALSE',
+              'SELECT 1');
+PREPARE statement FROM @ddl;
+EXECUTE statement;
+DEALLOCATE PREPARE statement;
+
+CREATE INDEX idx_password_resets_used ON password_resets (used, id);
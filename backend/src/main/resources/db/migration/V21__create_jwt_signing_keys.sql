@@ -0,0 +1,17 @@
+-- V21: Asymmetric JWT signing keys
+-- The newest key whose active_from has passed signs new tokens; every key that
+-- has not expired verifies them and is published at /.well-known/jwks.json.
+-- A key is published before it starts signing, and keeps verifying after it
+-- was superseded until the last token it signed has expired. Private keys are
+-- stored encrypted (AES-GCM).
+
+CREATE TABLE jwt_signing_keys (
+    kid VARCHAR(36) PRIMARY KEY,
+    algorithm VARCHAR(10) NOT NULL,
+    public_key TEXT NOT NULL,
+    private_key TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    active_from TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NULL,
+    INDEX idx_jwt_signing_keys_expires_at (expires_at)
+);
@@ -0,0 +1,23 @@
+-- V22: Access token revocation
+-- revoked_tokens holds single tokens (by jti) until they would have expired
+-- anyway; user_session_watermarks revokes every token of a user issued at or
+-- before revoked_before. Nodes copy both into memory and fetch new rows by
+-- revoked_at / updated_at, so checks on the request path never touch the database.
+
+CREATE TABLE revoked_tokens (
+    jti VARCHAR(36) PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP(3) NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    INDEX idx_revoked_tokens_revoked_at (revoked_at),
+    INDEX idx_revoked_tokens_expires_at (expires_at)
+);
+
+CREATE TABLE user_session_watermarks (
+    user_id BIGINT PRIMARY KEY,
+    revoked_before TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP(3) NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    INDEX idx_user_session_watermarks_updated_at (updated_at)
+);
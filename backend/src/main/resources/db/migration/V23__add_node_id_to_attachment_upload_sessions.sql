@@ -0,0 +1,5 @@
+-- V23: Node holding the staged file of a resumable upload
+-- Staged files live on the local disk of the node that created the session, so
+-- chunks and completion must reach that node. NULL for sessions created before.
+
+ALTER TABLE attachment_upload_sessions ADD COLUMN node_id VARCHAR(255) NULL AFTER staging_path;
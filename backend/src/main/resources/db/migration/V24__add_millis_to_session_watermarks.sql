@@ -0,0 +1,6 @@
+-- V24: Millisecond session watermarks
+-- With second precision, "logout everywhere" also revoked tokens issued later in
+-- the same second, such as the login that followed it. Access tokens now carry
+-- their issue time in milliseconds (iat_ms) and watermarks keep milliseconds too.
+
+ALTER TABLE user_session_watermarks MODIFY revoked_before TIMESTAMP(3) NOT NULL;
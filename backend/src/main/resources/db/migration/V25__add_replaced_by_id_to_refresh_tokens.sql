@@ -0,0 +1,6 @@
+-- V25: Successor of a rotated refresh token
+-- Lets a refresh that is retried within a few seconds (the response to the first
+-- attempt was lost, or two tabs refreshed at once) be told apart from reuse of a
+-- stolen token: the retry is allowed while the successor has not been used yet.
+
+ALTER TABLE refresh_tokens ADD COLUMN replaced_by_id BIGINT NULL AFTER used_at;
@@ -0,0 +1,61 @@
+package com.tasksphere.shareme.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketLimiterTest {
+
+    @Test
+    void allowsBurstUpToCapacity() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("login", 3, 1, 100);
+
+        assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isPositive();
+    }
+
+    @Test
+    void retryAfterMatchesRefillRate() {
+        TokenBucketLimiter slow = new TokenBucketLimiter("slow", 1, 1, 100);
+        slow.tryAcquire("key");
+        // One token a minute: the next one is just under 60 seconds away
+        assertThat(slow.tryAcquire("key")).isBetween(59L, 60L);
+
+        TokenBucketLimiter fast = new TokenBucketLimiter("fast", 1, 600, 100);
+        fast.tryAcquire("key");
+        // A token every 100 ms still reports at least one second
+        assertThat(fast.tryAcquire("key")).isEqualTo(1);
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("login", 1, 1, 100);
+
+        assertThat(limiter.tryAcquire("alice@example.com")).isZero();
+        assertThat(limiter.tryAcquire("alice@example.com")).isPositive();
+        assertThat(limiter.tryAcquire("bob@example.com")).isZero();
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        // 6000 a minute is one token every 10 ms
+        TokenBucketLimiter limiter = new TokenBucketLimiter("refill", 1, 6000, 100);
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isPositive();
+
+        Thread.sleep(50);
+
+        assertThat(limiter.tryAcquire("key")).isZero();
+    }
+
+    @Test
+    void rejectsNonPositiveSettings() {
+        assertThatThrownBy(() -> new TokenBucketLimiter("bad", 0, 10, 100))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucketLimiter("bad", 10, 0, 100))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,86 @@
+package com.tasksphere.shareme.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.tasksphere.shareme.exception.SqlBudgetExceededException;
+
+class SqlStatementBudgetFilterTest {
+
+    private static final int BUDGET = 5;
+
+    /**
+     * Loads a list and then each row on its own, the way a lazy association does
+     */
+    @RestController
+    static class NPlusOneController {
+
+        private final SqlStatementCountingInspector inspector = new SqlStatementCountingInspector();
+
+        @GetMapping("/tasks")
+        String tasks(@RequestParam int rows) {
+            inspector.inspect("select t.id from tasks t");
+            for (int i = 0; i < rows; i++) {
+                inspector.inspect("select a.* from task_attachments a where a.task_id=?");
+            }
+            return "rows=" + rows;
+        }
+    }
+
+    private MockMvc mockMvc(boolean failOnExceed) {
+        return MockMvcBuilders.standaloneSetup(new NPlusOneController())
+            .addFilters(new SqlStatementBudgetFilter(BUDGET, 0.0, failOnExceed))
+            .build();
+    }
+
+    @Test
+    void nPlusOneFailsTheRequest() {
+        assertThatThrownBy(() -> mockMvc(true).perform(get("/tasks").param("rows", "20")))
+            .isInstanceOf(SqlBudgetExceededException.class)
+            .hasMessageContaining("GET /tasks executed 21")
+            .hasMessageContaining("task_attachments");
+    }
+
+    @Test
+    void overBudgetBodyIsNotCommitted() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+        SqlStatementBudgetFilter filter = new SqlStatementBudgetFilter(BUDGET, 0.0, true);
+
+        assertThatThrownBy(() -> filter.doFilter(request, response, (req, res) -> {
+            new NPlusOneController().tasks(BUDGET);
+            res.getWriter().write("partial");
+            res.flushBuffer();
+        })).isInstanceOf(SqlBudgetExceededException.class);
+
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getContentAsString()).isEmpty();
+    }
+
+    @Test
+    void requestWithinBudgetIsServed() throws Exception {
+        mockMvc(true).perform(get("/tasks").param("rows", String.valueOf(BUDGET - 1)))
+            .andExpect(status().isOk())
+            .andExpect(content().string("rows=" + (BUDGET - 1)));
+    }
+
+    @Test
+    void overBudgetOnlyLogsWhenNotFailing() throws Exception {
+        // Sample rate 0 leaves the request untracked; the body goes out unchanged
+        mockMvc(false).perform(get("/tasks").param("rows", "20"))
+            .andExpect(status().isOk())
+            .andExpect(content().string("rows=20"));
+    }
+}
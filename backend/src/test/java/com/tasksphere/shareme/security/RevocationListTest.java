@@ -0,0 +1,115 @@
+package com.tasksphere.shareme.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class RevocationListTest {
+
+    private static final long NOW_MILLIS = 1_700_000_000_123L;
+    private static final long LIFETIME_MILLIS = TimeUnit.MINUTES.toMillis(15);
+
+    private static AuthenticatedUser token(long userId, String tokenId, long issuedAtMillis) {
+        long expiresAt = (issuedAtMillis + LIFETIME_MILLIS) / 1000;
+        return new AuthenticatedUser(userId, "user" + userId + "@example.com", "USER", tokenId, issuedAtMillis, expiresAt);
+    }
+
+    @Test
+    void revokedTokenIdIsRejected() {
+        RevocationList list = new RevocationList();
+        list.revokeToken("jti-1", NOW_MILLIS / 1000 + 60);
+
+        assertThat(list.isRevoked(token(1, "jti-1", NOW_MILLIS))).isTrue();
+        assertThat(list.isRevoked(token(1, "jti-2", NOW_MILLIS))).isFalse();
+        assertThat(list.isRevoked(token(1, null, NOW_MILLIS))).isFalse();
+    }
+
+    @Test
+    void watermarkRevokesTokensIssuedAtOrBefore() {
+        RevocationList list = new RevocationList();
+        list.raiseWatermark(1L, NOW_MILLIS);
+
+        assertThat(list.isRevoked(token(1, "a", NOW_MILLIS - 1))).isTrue();
+        assertThat(list.isRevoked(token(1, "b", NOW_MILLIS))).isTrue();
+        // A login in the same second but a later millisecond survives
+        assertThat(list.isRevoked(token(1, "c", NOW_MILLIS + 1))).isFalse();
+        assertThat(list.isRevoked(token(2, "d", NOW_MILLIS - 1))).isFalse();
+    }
+
+    @Test
+    void watermarkOnlyMovesForward() {
+        RevocationList list = new RevocationList();
+        list.raiseWatermark(1L, NOW_MILLIS);
+        list.raiseWatermark(1L, NOW_MILLIS - 10_000);
+
+        assertThat(list.isRevoked(token(1, "a", NOW_MILLIS))).isTrue();
+        assertThat(list.watermarkCount()).isEqualTo(1);
+    }
+
+    @Test
+    void pruneDropsExpiredEntriesOnly() {
+        RevocationList list = new RevocationList();
+        list.revokeToken("expired", NOW_MILLIS / 1000 - 1);
+        list.revokeToken("live", NOW_MILLIS / 1000 + 60);
+        list.raiseWatermark(1L, NOW_MILLIS - LIFETIME_MILLIS - 1);
+        list.raiseWatermark(2L, NOW_MILLIS - 1000);
+
+        list.prune(NOW_MILLIS, LIFETIME_MILLIS);
+
+        assertThat(list.revokedTokenCount()).isEqualTo(1);
+        assertThat(list.watermarkCount()).isEqualTo(1);
+        assertThat(list.isRevoked(token(1, "live", NOW_MILLIS))).isTrue();
+        assertThat(list.isRevoked(token(1, "expired", NOW_MILLIS))).isFalse();
+        assertThat(list.isRevoked(token(2, "other", NOW_MILLIS - 2000))).isTrue();
+    }
+
+    @Test
+    void survivesFilterRebuildsPastExpectedSize() {
+        RevocationList list = new RevocationList();
+        long exp = NOW_MILLIS / 1000 + 60;
+        for (int i = 0; i < 25_000; i++) {
+            list.revokeToken("jti-" + i, exp);
+        }
+
+        assertThat(list.revokedTokenCount()).isEqualTo(25_000);
+        for (int i = 0; i < 25_000; i += 997) {
+            assertThat(list.isRevoked(token(1, "jti-" + i, NOW_MILLIS))).isTrue();
+        }
+        assertThat(list.isRevoked(token(1, "never-revoked", NOW_MILLIS))).isFalse();
+    }
+
+    @Test
+    void growthRebuildsDoubleTheFilter() {
+        RevocationList list = new RevocationList();
+        long exp = NOW_MILLIS / 1000 + 60;
+        for (int i = 0; i < 25_000; i++) {
+            list.revokeToken("jti-" + i, exp);
+        }
+
+        // 10k -> 20k -> 40k expected entries
+        assertThat(list.filterRebuilds()).isEqualTo(2);
+
+        for (int i = 25_000; i < 35_000; i++) {
+            list.revokeToken("jti-" + i, exp);
+        }
+        assertThat(list.filterRebuilds()).isEqualTo(2);
+    }
+
+    @Test
+    void pruneRebuildLeavesRoomForNewIds() {
+        RevocationList list = new RevocationList();
+        for (int i = 0; i < 12_000; i++) {
+            list.revokeToken("old-" + i, NOW_MILLIS / 1000 - 1);
+        }
+        list.prune(NOW_MILLIS, LIFETIME_MILLIS);
+        int afterPrune = list.filterRebuilds();
+
+        for (int i = 0; i < 9_000; i++) {
+            list.revokeToken("new-" + i, NOW_MILLIS / 1000 + 60);
+        }
+
+        assertThat(list.filterRebuilds()).isEqualTo(afterPrune);
+    }
+}
@@ -0,0 +1,60 @@
+package com.tasksphere.shareme.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.tasksphere.shareme.service.AttachmentContentCache.FrequencySketch;
+
+class FrequencySketchTest {
+
+    @Test
+    void countsIncrements() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("hot");
+        }
+        sketch.increment("cold");
+
+        assertThat(sketch.frequency("hot")).isEqualTo(5);
+        assertThat(sketch.frequency("cold")).isEqualTo(1);
+        assertThat(sketch.frequency("unseen")).isZero();
+    }
+
+    @Test
+    void neverUnderestimates() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("key-" + i);
+        }
+        sketch.increment("key-7");
+        sketch.increment("key-7");
+
+        // Collisions can only add to a count
+        assertThat(sketch.frequency("key-7")).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void saturatesAtFifteen() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("hot");
+        }
+
+        assertThat(sketch.frequency("hot")).isEqualTo(15);
+    }
+
+    @Test
+    void agingHalvesCounts() {
+        // 16 expected entries: 16 counters per row, aged every 160 additions
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 159; i++) {
+            sketch.increment("hot");
+        }
+        assertThat(sketch.frequency("hot")).isEqualTo(15);
+
+        sketch.increment("hot");
+
+        assertThat(sketch.frequency("hot")).isEqualTo(7);
+    }
+}
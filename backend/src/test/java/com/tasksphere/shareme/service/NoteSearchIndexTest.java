@@ -0,0 +1,47 @@
+package com.tasksphere.shareme.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class NoteSearchIndexTest {
+
+    @Test
+    void splitsOnNonAlphanumericsAndLowerCases() {
+        assertThat(NoteSearchIndex.tokenize("Sprint-42 Review: API_Gateway, v2.1!", 1))
+            .containsExactly("sprint", "42", "review", "api", "gateway", "v2", "1");
+    }
+
+    @Test
+    void keepsFirstAppearanceOrderWithoutDuplicates() {
+        assertThat(NoteSearchIndex.tokenize("deploy Deploy DEPLOY rollback deploy", 1))
+            .containsExactly("deploy", "rollback");
+    }
+
+    @Test
+    void dropsTermsShorterThanMinimum() {
+        assertThat(NoteSearchIndex.tokenize("a to do list", 2)).containsExactly("to", "do", "list");
+        assertThat(NoteSearchIndex.tokenize("a to do list", 1)).containsExactly("a", "to", "do", "list");
+    }
+
+    @Test
+    void keepsNonAsciiLettersAndDigits() {
+        // Cafe, Strasse, Tokyo and Arabic-Indic 123
+        assertThat(NoteSearchIndex.tokenize("Caf\u00e9 Stra\u00dfe \u6771\u4eac \u0661\u0662\u0663", 1))
+            .containsExactly("caf\u00e9", "stra\u00dfe", "\u6771\u4eac", "\u0661\u0662\u0663");
+    }
+
+    @Test
+    void truncatesLongTerms() {
+        String longTerm = "x".repeat(60);
+
+        assertThat(NoteSearchIndex.tokenize(longTerm, 1)).containsExactly("x".repeat(40));
+    }
+
+    @Test
+    void blankTextHasNoTerms() {
+        assertThat(NoteSearchIndex.tokenize(null, 1)).isEmpty();
+        assertThat(NoteSearchIndex.tokenize("   ", 1)).isEmpty();
+        assertThat(NoteSearchIndex.tokenize("--- !!!", 1)).isEmpty();
+    }
+}
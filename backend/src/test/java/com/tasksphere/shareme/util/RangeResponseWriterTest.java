@@ -0,0 +1,152 @@
+package com.tasksphere.shareme.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RangeResponseWriterTest {
+
+    private static final String BODY = "0123456789abcdefghij";
+    private static final String ETAG = "\"v1\"";
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+
+    private static MockHttpServletResponse get(String range) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        return write(request);
+    }
+
+    private static MockHttpServletResponse write(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ByteBuffer content = ByteBuffer.wrap(BODY.getBytes(StandardCharsets.US_ASCII));
+        RangeResponseWriter.write(request, response, content, LAST_MODIFIED, "text/plain", "body.txt", ETAG);
+        return response;
+    }
+
+    @Test
+    void noRangeServesWholeBody() throws Exception {
+        MockHttpServletResponse response = get(null);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+    }
+
+    @Test
+    void closedRange() throws Exception {
+        MockHttpServletResponse response = get("bytes=2-5");
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("2345");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/20");
+    }
+
+    @Test
+    void openEndedRange() throws Exception {
+        MockHttpServletResponse response = get("bytes=15-");
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("fghij");
+    }
+
+    @Test
+    void suffixRange() throws Exception {
+        MockHttpServletResponse response = get("bytes=-3");
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("hij");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 17-19/20");
+    }
+
+    @Test
+    void endPastLengthIsClamped() throws Exception {
+        MockHttpServletResponse response = get("bytes=18-100");
+
+        assertThat(response.getContentAsString()).isEqualTo("ij");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 18-19/20");
+    }
+
+    @Test
+    void overlappingAndAdjacentRangesAreMerged() throws Exception {
+        MockHttpServletResponse response = get("bytes=4-6, 0-2, 5-8, 3-3");
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("012345678");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-8/20");
+    }
+
+    @Test
+    void disjointRangesAreMultipart() throws Exception {
+        MockHttpServletResponse response = get("bytes=0-1,10-11");
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentType()).startsWith("multipart/byteranges; boundary=");
+        String boundary = response.getContentType().substring(response.getContentType().indexOf('=') + 1);
+        String body = response.getContentAsString();
+        assertThat(body)
+            .contains("Content-Range: bytes 0-1/20\r\n\r\n01")
+            .contains("Content-Range: bytes 10-11/20\r\n\r\nab")
+            .endsWith("\r\n--" + boundary + "--\r\n");
+        assertThat(response.getContentLengthLong()).isEqualTo(body.length());
+    }
+
+    @Test
+    void unsatisfiableRangeIs416() throws Exception {
+        MockHttpServletResponse response = get("bytes=20-30");
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */20");
+        assertThat(response.getContentAsString()).isEmpty();
+    }
+
+    @Test
+    void malformedRangesAreIgnored() throws Exception {
+        for (String header : new String[] {"items=0-1", "bytes=abc", "bytes=5", "bytes=5-2"}) {
+            MockHttpServletResponse response = get(header);
+
+            assertThat(response.getStatus()).as(header).isEqualTo(200);
+            assertThat(response.getContentAsString()).as(header).isEqualTo(BODY);
+        }
+    }
+
+    @Test
+    void tooManyRangesAreIgnored() throws Exception {
+        StringBuilder header = new StringBuilder("bytes=0-0");
+        for (int i = 2; i <= 34; i += 2) {
+            header.append(',').append(i).append('-').append(i);
+        }
+
+        assertThat(get(header.toString()).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void staleIfRangeServesWholeBody() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-1");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"v0\"");
+
+        MockHttpServletResponse response = write(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+    }
+
+    @Test
+    void matchingIfNoneMatchIs304() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "W/" + ETAG);
+
+        MockHttpServletResponse response = write(request);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsString()).isEmpty();
+    }
+}
@@ -0,0 +1,151 @@
+package com.tasksphere.shareme.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+import com.tasksphere.shareme.entity.Project;
+import com.tasksphere.shareme.entity.Task;
+import com.tasksphere.shareme.entity.TaskAttachment;
+import com.tasksphere.shareme.entity.User;
+
+/**
+ * Builds realistic entity graphs and reaches into Spring-managed beans
+ * without starting an application context.
+ */
+final class BenchmarkFixtures {
+
+    private static final String[] WORDS = {
+        "design", "review", "deploy", "database", "migration", "frontend", "backend",
+        "release", "customer", "invoice", "report", "dashboard", "payment", "search",
+        "mobile", "notification", "security", "performance", "onboarding", "analytics"
+    };
+
+    private static final String[] CONTENT_TYPES = {
+        "application/pdf", "image/png", "image/jpeg", "text/plain", "video/mp4"
+    };
+
+    private BenchmarkFixtures() {}
+
+    /**
+     * Assign a private field, walking up the class hierarchy (for @Autowired / @Value fields)
+     */
+    static void setField(Object target, String name, Object value) {
+        Class<?> type = target.getClass();
+        while (type != null) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                type = type.getSuperclass();
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot set field " + name, e);
+            }
+        }
+        throw new IllegalArgumentException("No field " + name + " on " + target.getClass().getName());
+    }
+
+    /**
+     * Resolve a private method as a MethodHandle so the call overhead matches a direct invocation
+     */
+    static MethodHandle privateMethod(Class<?> owner, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = owner.getDeclaredMethod(name, parameterTypes);
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot access " + owner.getSimpleName() + "." + name, e);
+        }
+    }
+
+    /**
+     * Implement a Spring Data repository interface with a single canned answer
+     */
+    static <T> T stubRepository(Class<T> repositoryType, String methodName, Object result) {
+        return stubRepository(repositoryType, Map.of(methodName, args -> result));
+    }
+
+    /**
+     * Implement a Spring Data repository interface with an answer per method name
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stubRepository(Class<T> repositoryType, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(
+            repositoryType.getClassLoader(),
+            new Class<?>[] { repositoryType },
+            (proxy, method, args) -> {
+                Function<Object[], Object> answer = answers.get(method.getName());
+                if (answer != null) {
+                    return answer.apply(args);
+                }
+                if (method.getName().equals("toString")) {
+                    return "Stub" + repositoryType.getSimpleName();
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    static User user(long id) {
+        User user = new User("First" + id, "Last" + id, "user" + id + "@example.com", "$2a$10$hash");
+        user.setId(id);
+        user.setCreatedAt(LocalDateTime.now().minusDays(id));
+        return user;
+    }
+
+    static Project project(long id, User owner) {
+        Project project = new Project("Project " + id, sentence(new SplittableRandom(id), 40), owner);
+        project.setId(id);
+        project.setMembers(new ArrayList<>());
+        return project;
+    }
+
+    static Task task(long id, Project project, User creator, User assignee, SplittableRandom random) {
+        Task task = new Task(sentence(random, 6), sentence(random, 120), project, creator);
+        task.setId(id);
+        task.setAssignee(assignee);
+        task.setStatus(Task.TaskStatus.values()[random.nextInt(Task.TaskStatus.values().length)]);
+        task.setPriority(Task.TaskPriority.values()[random.nextInt(Task.TaskPriority.values().length)]);
+        task.setUpdatedAt(LocalDateTime.now());
+        task.setDueDate(LocalDateTime.now().plusDays(random.nextInt(30)));
+        return task;
+    }
+
+    static List<TaskAttachment> attachments(Task task, int count, User uploader, SplittableRandom random) {
+        List<TaskAttachment> attachments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TaskAttachment attachment = new TaskAttachment(
+                task,
+                WORDS[random.nextInt(WORDS.length)] + "-" + i + ".pdf",
+                "stored-" + task.getId() + "-" + i + ".pdf",
+                "uploads/stored-" + task.getId() + "-" + i + ".pdf",
+                (long) random.nextInt(50 * 1024 * 1024),
+                CONTENT_TYPES[random.nextInt(CONTENT_TYPES.length)],
+                uploader
+            );
+            attachment.setId(task.getId() * 1000 + i);
+            attachments.add(attachment);
+        }
+        return attachments;
+    }
+
+    static String sentence(SplittableRandom random, int words) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.tasksphere.shareme.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Entry point of benchmarks.jar.
+ *
+ * Accepts the usual JMH command line, always writes JSON results (to
+ * target/jmh-results.json unless -rff is given) and, when
+ * -Djmh.baseline=path/to/baseline.json is set, prints the change of every
+ * benchmark score against that baseline.
+ */
+public final class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT_FILE = "target/jmh-results.json";
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+        String resultFile = commandLine.getResult().hasValue() ? commandLine.getResult().get() : DEFAULT_RESULT_FILE;
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            new File(resultFile).getAbsoluteFile().getParentFile().mkdirs();
+            options.result(resultFile);
+        }
+
+        new Runner(options.build()).run();
+
+        String baseline = System.getProperty("jmh.baseline");
+        if (baseline != null) {
+            compare(new File(baseline), new File(resultFile));
+        }
+    }
+
+    /**
+     * Print score deltas between two JMH JSON result files
+     */
+    static void compare(File baselineFile, File currentFile) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(mapper.readTree(baselineFile));
+        Map<String, JsonNode> current = index(mapper.readTree(currentFile));
+
+        System.out.println();
+        System.out.println("Comparison against " + baselineFile);
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue().path("primaryMetric");
+            JsonNode before = baseline.containsKey(entry.getKey())
+                ? baseline.get(entry.getKey()).path("primaryMetric") : null;
+            String unit = now.path("scoreUnit").asText();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s  %s%n", entry.getKey(), "-", now.path("score").asDouble(), "new", unit);
+                continue;
+            }
+            double change = (now.path("score").asDouble() / before.path("score").asDouble() - 1.0) * 100.0;
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%  %s%n", entry.getKey(),
+                before.path("score").asDouble(), now.path("score").asDouble(), change, unit);
+        }
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            JsonNode params = result.path("params");
+            params.fieldNames().forEachRemaining(name -> key.append(' ').append(name).append('=').append(params.path(name).asText()));
+            byKey.put(key.toString(), result);
+        }
+        return byKey;
+    }
+}
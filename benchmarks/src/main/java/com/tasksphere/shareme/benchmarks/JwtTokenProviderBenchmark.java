@@ -0,0 +1,119 @@
+package com.tasksphere.shareme.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tasksphere.shareme.entity.JwtSigningKey;
+import com.tasksphere.shareme.repository.JwtSigningKeyRepository;
+import com.tasksphere.shareme.security.AuthenticatedUser;
+import com.tasksphere.shareme.security.JwtKeyManager;
+import com.tasksphere.shareme.security.JwtTokenProvider;
+import com.tasksphere.shareme.security.TokenRevocationManager;
+
+/**
+ * Cost of verifying and reading the access token presented on every authenticated request,
+ * for shared-secret (HS256) and key-pair (RS256, the default) signing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String JWT_SECRET = "MySecretKeyForJWTTokenGenerationThatShouldBeLongAndSecure123456789";
+
+    @Param({"HS256", "RS256"})
+    public String algorithm;
+
+    private JwtTokenProvider tokenProvider;
+    private JwtTokenProvider cachingTokenProvider;
+    private JwtKeyManager keyManager;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        keyManager = newKeyManager();
+        tokenProvider = newTokenProvider(0);
+        cachingTokenProvider = newTokenProvider(10_000);
+        token = tokenProvider.generateAccessToken(42L, "john.doe@example.com", "John", "Doe", "MEMBER");
+        cachingTokenProvider.parseAccessToken(token);
+    }
+
+    private JwtTokenProvider newTokenProvider(int verifiedCacheMaxEntries) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        BenchmarkFixtures.setField(provider, "jwtSecret", JWT_SECRET);
+        BenchmarkFixtures.setField(provider, "signingAlgorithm", algorithm);
+        BenchmarkFixtures.setField(provider, "keyManager", keyManager);
+        // Empty revocation list: measures the per-request revocation check
+        BenchmarkFixtures.setField(provider, "revocationManager", new TokenRevocationManager());
+        BenchmarkFixtures.setField(provider, "accessTokenMinutes", 15);
+        BenchmarkFixtures.setField(provider, "verifiedCacheMaxEntries", verifiedCacheMaxEntries);
+        provider.initialize();
+        return provider;
+    }
+
+    /**
+     * A key manager holding one freshly generated key pair, kept in a list instead of jwt_signing_keys
+     */
+    private JwtKeyManager newKeyManager() {
+        List<JwtSigningKey> stored = new ArrayList<>();
+        JwtKeyManager manager = new JwtKeyManager();
+        BenchmarkFixtures.setField(manager, "jwtSigningKeyRepository", BenchmarkFixtures.stubRepository(
+            JwtSigningKeyRepository.class, Map.<String, Function<Object[], Object>>of(
+                "findUnexpired", args -> List.copyOf(stored),
+                "save", args -> {
+                    stored.add((JwtSigningKey) args[0]);
+                    return args[0];
+                })));
+        BenchmarkFixtures.setField(manager, "signingAlgorithm", algorithm);
+        BenchmarkFixtures.setField(manager, "encryptionSecret", "");
+        BenchmarkFixtures.setField(manager, "jwtSecret", JWT_SECRET);
+        BenchmarkFixtures.setField(manager, "accessTokenMinutes", 15);
+        manager.initialize();
+        return manager;
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Long getUserIdFromToken() {
+        return tokenProvider.getUserIdFromToken(token);
+    }
+
+    /**
+     * What JwtAuthenticationFilter does per request: one parse for validation and claims
+     */
+    @Benchmark
+    public Optional<AuthenticatedUser> parseAccessToken() {
+        return tokenProvider.parseAccessToken(token);
+    }
+
+    /**
+     * The same for a token already in the verified-token cache: the steady state of an active session
+     */
+    @Benchmark
+    public Optional<AuthenticatedUser> parseAccessTokenCached() {
+        return cachingTokenProvider.parseAccessToken(token);
+    }
+}
@@ -0,0 +1,64 @@
+package com.tasksphere.shareme.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tasksphere.shareme.security.CalibratedPasswordEncoder;
+import com.tasksphere.shareme.service.AuthService;
+
+/**
+ * Password and reset-token hashing used by the authentication endpoints.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    // 0 calibrates like SecurityConfig with the default app.auth.bcrypt settings; pass -p cost=N for a fixed cost
+    @Param({"0"})
+    public int cost;
+
+    private CalibratedPasswordEncoder encoder;
+    private String passwordHash;
+    private AuthService authService;
+    private MethodHandle hashToken;
+    private String resetToken;
+
+    @Setup
+    public void setUp() {
+        encoder = cost > 0 ? new CalibratedPasswordEncoder(cost) : CalibratedPasswordEncoder.calibrate(250, 10, 14);
+        passwordHash = encoder.encode("password123");
+        authService = new AuthService();
+        hashToken = BenchmarkFixtures.privateMethod(AuthService.class, "hashToken", String.class);
+        resetToken = "q4N1x3b6cZ0yWmJ2pV8sT5rK7hLdF9gA_eUoYiE-RwQ";
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2, time = 5)
+    @Measurement(iterations = 5, time = 5)
+    public boolean bcryptMatches() {
+        return encoder.matches("password123", passwordHash);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public String hashToken() throws Throwable {
+        return (String) hashToken.invoke(authService, resetToken);
+    }
+}
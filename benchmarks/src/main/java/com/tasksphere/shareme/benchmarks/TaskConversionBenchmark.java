@@ -0,0 +1,70 @@
+package com.tasksphere.shareme.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tasksphere.shareme.dto.TaskResponse;
+import com.tasksphere.shareme.entity.Project;
+import com.tasksphere.shareme.entity.Task;
+import com.tasksphere.shareme.entity.TaskAttachment;
+import com.tasksphere.shareme.entity.User;
+import com.tasksphere.shareme.repository.TaskAttachmentRepository;
+import com.tasksphere.shareme.service.TaskAttachmentService;
+import com.tasksphere.shareme.service.TaskService;
+
+/**
+ * Entity-to-DTO conversion for a single task, with the attachment lookup answered in memory
+ * so only the mapping work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskConversionBenchmark {
+
+    @Param({"0", "5", "20"})
+    public int attachmentsPerTask;
+
+    private TaskService taskService;
+    private MethodHandle convertToTaskResponse;
+    private Task task;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(27);
+        User owner = BenchmarkFixtures.user(1);
+        User assignee = BenchmarkFixtures.user(2);
+        Project project = BenchmarkFixtures.project(1, owner);
+        task = BenchmarkFixtures.task(1, project, owner, assignee, random);
+        List<TaskAttachment> attachments = BenchmarkFixtures.attachments(task, attachmentsPerTask, assignee, random);
+
+        TaskAttachmentService attachmentService = new TaskAttachmentService();
+        BenchmarkFixtures.setField(attachmentService, "taskAttachmentRepository",
+            BenchmarkFixtures.stubRepository(TaskAttachmentRepository.class, "findByTaskIdOrderByUploadedAtDesc", attachments));
+
+        taskService = new TaskService();
+        BenchmarkFixtures.setField(taskService, "taskAttachmentService", attachmentService);
+        convertToTaskResponse = BenchmarkFixtures.privateMethod(TaskService.class, "convertToTaskResponse", Task.class);
+    }
+
+    @Benchmark
+    public TaskResponse convertToTaskResponse() throws Throwable {
+        return (TaskResponse) convertToTaskResponse.invoke(taskService, task);
+    }
+}
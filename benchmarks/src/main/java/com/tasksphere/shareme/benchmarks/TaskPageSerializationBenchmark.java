@@ -0,0 +1,81 @@
+package com.tasksphere.shareme.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tasksphere.shareme.dto.TaskAttachmentResponse;
+import com.tasksphere.shareme.dto.TaskResponse;
+import com.tasksphere.shareme.dto.UserInfo;
+
+/**
+ * JSON rendering of a task list page as returned by GET /api/tasks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskPageSerializationBenchmark {
+
+    @Param({"100"})
+    public int pageSize;
+
+    @Param({"3"})
+    public int attachmentsPerTask;
+
+    private ObjectMapper objectMapper;
+    private Page<TaskResponse> page;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring Boot applies to the MVC ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        SplittableRandom random = new SplittableRandom(27);
+        UserInfo creator = new UserInfo(1L, "John", "Doe", "john.doe@example.com", "MEMBER");
+        UserInfo assignee = new UserInfo(2L, "Jane", "Roe", "jane.roe@example.com", "MEMBER");
+        TaskResponse.ProjectInfo project = new TaskResponse.ProjectInfo(1L, "Mobile App Development", "ACTIVE");
+
+        List<TaskResponse> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            List<TaskAttachmentResponse> attachments = new ArrayList<>(attachmentsPerTask);
+            for (int a = 0; a < attachmentsPerTask; a++) {
+                long attachmentId = i * 100L + a;
+                attachments.add(new TaskAttachmentResponse(attachmentId, "spec-" + a + ".pdf",
+                    (long) random.nextInt(10_000_000), "application/pdf", assignee,
+                    LocalDateTime.now(), "/api/tasks/attachments/" + attachmentId + "/download"));
+            }
+            content.add(new TaskResponse((long) i, BenchmarkFixtures.sentence(random, 6),
+                BenchmarkFixtures.sentence(random, 120), "IN_PROGRESS", "HIGH", project, assignee, creator,
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now().plusDays(7),
+                attachments));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
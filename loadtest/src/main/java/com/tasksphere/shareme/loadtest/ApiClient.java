@@ -0,0 +1,122 @@
+package com.tasksphere.shareme.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Thin JSON/multipart client for the ShareMe REST API.
+ */
+final class ApiClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    ApiClient(String baseUrl, int concurrency) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .executor(Executors.newFixedThreadPool(Math.max(4, concurrency / 4), runnable -> {
+                Thread thread = new Thread(runnable, "loadtest-http");
+                thread.setDaemon(true);
+                return thread;
+            }))
+            .build();
+    }
+
+    record Response(int status, byte[] body) {
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    void signup(String firstName, String lastName, String email, String password) throws IOException, InterruptedException {
+        Response response = postJson("/api/auth/signup", null,
+            Map.of("firstName", firstName, "lastName", lastName, "email", email, "password", password));
+        // 409 means the user survived from an earlier run against the same schema
+        if (!response.ok() && response.status() != 409) {
+            throw new IOException("Signup failed for " + email + ": HTTP " + response.status());
+        }
+    }
+
+    Response login(String email, String password) throws IOException, InterruptedException {
+        return postJson("/api/auth/login", null, Map.of("email", email, "password", password));
+    }
+
+    Response getJson(String path, String token) throws IOException, InterruptedException {
+        return send(request(path, token).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    Response postJson(String path, String token, Object body) throws IOException, InterruptedException {
+        return send(request(path, token)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+            .build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    Response patchJson(String path, String token, Object body) throws IOException, InterruptedException {
+        return send(request(path, token)
+            .header("Content-Type", "application/json")
+            .method("PATCH", HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+            .build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    Response uploadFile(String path, String token, String filename, byte[] content) throws IOException, InterruptedException {
+        String boundary = "----shareme-loadtest-" + System.nanoTime();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(content.length + 512);
+        body.write(("--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"files\"; filename=\"" + filename + "\"\r\n"
+            + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(content);
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        return send(request(path, token)
+            .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+            .build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Download and discard the body; only status and timing matter
+     */
+    Response download(String path, String token) throws IOException, InterruptedException {
+        HttpResponse<Void> response = httpClient.send(request(path, token).GET().build(), HttpResponse.BodyHandlers.discarding());
+        return new Response(response.statusCode(), new byte[0]);
+    }
+
+    JsonNode readTree(Response response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+
+    static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private Response send(HttpRequest request, HttpResponse.BodyHandler<byte[]> handler) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request, handler);
+        return new Response(response.statusCode(), response.body());
+    }
+}
@@ -0,0 +1,156 @@
+package com.tasksphere.shareme.loadtest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Creates a synthetic dataset through the public API, so seeding exercises the
+ * same code paths as real clients. Every user is seeded from its own random
+ * stream derived from the run seed, which keeps the dataset reproducible.
+ */
+final class DatasetSeeder {
+
+    static final String PASSWORD = "LoadTest@123";
+
+    private static final String[] WORDS = {
+        "design", "review", "deploy", "database", "migration", "frontend", "backend",
+        "release", "customer", "invoice", "report", "dashboard", "payment", "search",
+        "mobile", "notification", "security", "performance", "onboarding", "analytics"
+    };
+
+    private static final String[] STATUSES = {"TODO", "IN_PROGRESS", "COMPLETED"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "URGENT"};
+
+    private final ApiClient client;
+    private final LoadTestOptions options;
+
+    DatasetSeeder(ApiClient client, LoadTestOptions options) {
+        this.client = client;
+        this.options = options;
+    }
+
+    SeededDataset seed() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(options.users, 8));
+        try {
+            List<Future<SeededDataset.SeededUser>> futures = new ArrayList<>();
+            for (int i = 0; i < options.users; i++) {
+                final int userIndex = i;
+                futures.add(executor.submit(() -> seedUser(userIndex)));
+            }
+            List<SeededDataset.SeededUser> users = new ArrayList<>();
+            for (Future<SeededDataset.SeededUser> future : futures) {
+                users.add(future.get());
+            }
+            return new SeededDataset(users);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private SeededDataset.SeededUser seedUser(int userIndex) throws IOException, InterruptedException {
+        SplittableRandom random = new SplittableRandom(options.seed * 1_000_003L + userIndex);
+        String email = "loadtest-user-" + userIndex + "@example.com";
+
+        client.signup("Load", "User" + userIndex, email, PASSWORD);
+        ApiClient.Response login = client.login(email, PASSWORD);
+        if (!login.ok()) {
+            throw new IOException("Login failed for " + email + ": HTTP " + login.status());
+        }
+        JsonNode auth = client.readTree(login);
+        SeededDataset.SeededUser user = new SeededDataset.SeededUser(
+            email, auth.path("user").path("id").asLong(), auth.path("accessToken").asText());
+
+        for (int p = 0; p < options.projectsPerUser; p++) {
+            Map<String, Object> project = new LinkedHashMap<>();
+            project.put("name", "Load project " + userIndex + "-" + p);
+            project.put("description", sentence(random, 30));
+            long projectId = expectId(client.postJson("/api/projects", user.token, project), "create project");
+
+            for (int t = 0; t < options.tasksPerProject; t++) {
+                Map<String, Object> task = new LinkedHashMap<>();
+                task.put("title", sentence(random, 5));
+                task.put("description", sentence(random, 10 + random.nextInt(200)));
+                task.put("status", STATUSES[random.nextInt(STATUSES.length)]);
+                task.put("priority", PRIORITIES[random.nextInt(PRIORITIES.length)]);
+                task.put("projectId", projectId);
+                task.put("assigneeId", user.userId);
+                user.taskIds.add(expectId(client.postJson("/api/tasks", user.token, task), "create task"));
+            }
+        }
+
+        if (user.taskIds.isEmpty()) {
+            return user;
+        }
+
+        for (int n = 0; n < options.notesPerUser; n++) {
+            ApiClient.Response note = client.postJson("/api/task-notes", user.token, noteBody(user, random));
+            if (!note.ok()) {
+                throw new IOException("Saving note failed: HTTP " + note.status());
+            }
+        }
+
+        for (int a = 0; a < options.attachmentsPerUser; a++) {
+            long taskId = user.taskIds.get(random.nextInt(user.taskIds.size()));
+            ApiClient.Response upload = client.uploadFile("/api/tasks/" + taskId + "/attachments", user.token,
+                "seed-" + userIndex + "-" + a + ".pdf", payload(random, options.attachmentBytes));
+            // Upload failures are reported by the workload; seeding carries on without the attachment
+            if (upload.ok()) {
+                for (JsonNode attachment : client.readTree(upload)) {
+                    user.attachmentIds.add(attachment.path("id").asLong());
+                }
+            }
+        }
+        return user;
+    }
+
+    Map<String, Object> noteBody(SeededDataset.SeededUser user, SplittableRandom random) {
+        Map<String, Object> note = new LinkedHashMap<>();
+        note.put("taskId", user.taskIds.get(random.nextInt(user.taskIds.size())));
+        note.put("noteName", sentence(random, 3));
+        note.put("noteContent", sentence(random, 20 + random.nextInt(300)));
+        note.put("reminderTags", List.of(WORDS[random.nextInt(WORDS.length)], WORDS[random.nextInt(WORDS.length)]));
+        return note;
+    }
+
+    static String word(SplittableRandom random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    static byte[] payload(SplittableRandom random, int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i += 8) {
+            long value = random.nextLong();
+            for (int b = 0; b < 8 && i + b < size; b++) {
+                bytes[i + b] = (byte) (value >>> (b * 8));
+            }
+        }
+        return bytes;
+    }
+
+    private long expectId(ApiClient.Response response, String action) throws IOException {
+        if (!response.ok()) {
+            throw new IOException(action + " failed: HTTP " + response.status());
+        }
+        return client.readTree(response).path("id").asLong();
+    }
+
+    private static String sentence(SplittableRandom random, int words) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+}
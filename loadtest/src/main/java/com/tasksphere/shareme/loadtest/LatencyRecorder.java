@@ -0,0 +1,115 @@
+package com.tasksphere.shareme.loadtest;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Per-operation latency histograms (microsecond resolution) and error counts.
+ */
+final class LatencyRecorder {
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    LatencyRecorder() {
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long latencyNanos, boolean success) {
+        recorders.get(operation).recordValue(Math.max(1, latencyNanos / 1_000));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    /**
+     * Discard everything recorded so far (end of warmup)
+     */
+    void reset() {
+        recorders.values().forEach(Recorder::getIntervalHistogram);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    /**
+     * Collect the histograms recorded since the last reset, print a summary and write .hgrm files.
+     * Returns the histogram over all operations, or null when nothing was recorded.
+     */
+    Histogram report(double measuredSeconds, File outputDir, PrintStream out) throws FileNotFoundException {
+        outputDir.mkdirs();
+        String header = String.format(Locale.ROOT, "%-42s %9s %7s %9s %9s %9s %9s %9s",
+            "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+
+        try (PrintStream summary = new PrintStream(new File(outputDir, "summary.txt"))) {
+            for (PrintStream stream : new PrintStream[] { out, summary }) {
+                stream.printf(Locale.ROOT, "Measured %.1f s%n", measuredSeconds);
+                stream.println(header);
+            }
+
+            Histogram total = null;
+            long totalErrors = 0;
+            for (Operation operation : Operation.values()) {
+                Histogram histogram = recorders.get(operation).getIntervalHistogram();
+                long errorCount = errors.get(operation).sum();
+                if (histogram.getTotalCount() == 0) {
+                    continue;
+                }
+                String line = summaryLine(operation.endpoint(), histogram, errorCount, measuredSeconds);
+                out.println(line);
+                summary.println(line);
+                writeHgrm(histogram, new File(outputDir, operation.name().toLowerCase(Locale.ROOT) + ".hgrm"));
+
+                if (total == null) {
+                    total = histogram.copy();
+                } else {
+                    total.add(histogram);
+                }
+                totalErrors += errorCount;
+            }
+
+            if (total != null) {
+                String line = summaryLine("TOTAL", total, totalErrors, measuredSeconds);
+                out.println(line);
+                summary.println(line);
+                writeHgrm(total, new File(outputDir, "total.hgrm"));
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Failed requests across all operations since the last reset
+     */
+    long errorCount() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    private static String summaryLine(String name, Histogram histogram, long errorCount, double seconds) {
+        return String.format(Locale.ROOT, "%-42s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f",
+            name,
+            histogram.getTotalCount(),
+            errorCount,
+            histogram.getTotalCount() / seconds,
+            histogram.getValueAtPercentile(50.0) / 1000.0,
+            histogram.getValueAtPercentile(99.0) / 1000.0,
+            histogram.getValueAtPercentile(99.9) / 1000.0,
+            histogram.getMaxValue() / 1000.0);
+    }
+
+    private static void writeHgrm(Histogram histogram, File file) throws FileNotFoundException {
+        try (PrintStream stream = new PrintStream(file)) {
+            // Values are recorded in microseconds; scale the output to milliseconds
+            histogram.outputPercentileDistribution(stream, 1000.0);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.tasksphere.shareme.loadtest;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.HdrHistogram.Histogram;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.tasksphere.shareme.ShareMeApplication;
+
+/**
+ * End-to-end load test: boots the backend against a local MySQL schema (or
+ * targets a running instance), seeds a synthetic dataset through the API,
+ * runs the mixed workload and reports per-endpoint latency percentiles and
+ * throughput as HdrHistogram output.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.target;
+
+        try {
+            if (baseUrl.isEmpty()) {
+                if (options.fresh) {
+                    recreateSchema(options);
+                }
+                context = startBackend(options);
+                baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            }
+
+            System.out.println("Load testing " + baseUrl);
+            List<Integer> levels = options.concurrencySweep.isEmpty()
+                ? List.of(options.concurrency)
+                : options.concurrencySweep;
+            ApiClient client = new ApiClient(baseUrl, Collections.max(levels));
+            DatasetSeeder seeder = new DatasetSeeder(client, options);
+
+            long seedStart = System.nanoTime();
+            SeededDataset dataset = seeder.seed();
+            System.out.printf("Seeded %d users, %d tasks, %d attachments in %.1f s%n",
+                dataset.users.size(), dataset.taskCount(), dataset.attachmentCount(),
+                (System.nanoTime() - seedStart) / 1e9);
+
+            if (options.concurrencySweep.isEmpty()) {
+                File outputDir = new File(options.outputDir);
+                runLevel(client, seeder, dataset, options, outputDir);
+                System.out.println("Histograms written to " + outputDir.getAbsolutePath());
+            } else {
+                List<LevelResult> results = new ArrayList<>();
+                for (int level : levels) {
+                    options.concurrency = level;
+                    results.add(runLevel(client, seeder, dataset, options, new File(options.outputDir, "c" + level)));
+                }
+                reportSweep(results, new File(options.outputDir, "sweep.csv"));
+            }
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private record LevelResult(int concurrency, Histogram total, long errors, double seconds) {}
+
+    private static LevelResult runLevel(ApiClient client, DatasetSeeder seeder, SeededDataset dataset,
+                                        LoadTestOptions options, File outputDir) throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        WorkloadRunner runner = new WorkloadRunner(client, seeder, dataset, options, recorder);
+        System.out.printf("Running %d workers for %d s after %d s warmup (%s)%n",
+            options.concurrency, options.duration.getSeconds(), options.warmup.getSeconds(),
+            options.rate > 0 ? "open loop at " + options.rate + " req/s" : "closed loop");
+
+        double measuredSeconds = runner.run();
+        Histogram total = recorder.report(measuredSeconds, outputDir, System.out);
+        return new LevelResult(options.concurrency, total, recorder.errorCount(), measuredSeconds);
+    }
+
+    /**
+     * Throughput, tail latency and error rate per concurrency level. Running the sweep
+     * with and without --profiles=virtual shows where each threading mode saturates.
+     */
+    private static void reportSweep(List<LevelResult> results, File csv) throws FileNotFoundException {
+        csv.getParentFile().mkdirs();
+        try (PrintStream out = new PrintStream(csv)) {
+            out.println("concurrency,requests,errors,req_per_s,p50_ms,p99_ms,p999_ms");
+            System.out.printf(Locale.ROOT, "%n%12s %10s %8s %10s %9s %9s %9s%n",
+                "Concurrency", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "p999 ms");
+            for (LevelResult result : results) {
+                Histogram total = result.total() != null ? result.total() : new Histogram(3);
+                Object[] row = {
+                    result.concurrency(),
+                    total.getTotalCount(),
+                    result.errors(),
+                    total.getTotalCount() / result.seconds(),
+                    total.getValueAtPercentile(50.0) / 1000.0,
+                    total.getValueAtPercentile(99.0) / 1000.0,
+                    total.getValueAtPercentile(99.9) / 1000.0
+                };
+                System.out.printf(Locale.ROOT, "%12d %10d %8d %10.1f %9.2f %9.2f %9.2f%n", row);
+                out.printf(Locale.ROOT, "%d,%d,%d,%.1f,%.2f,%.2f,%.2f%n", row);
+            }
+        }
+        System.out.println("Sweep written to " + csv.getAbsolutePath());
+    }
+
+    static ConfigurableApplicationContext startBackend(LoadTestOptions options) {
+        List<String> profiles = new ArrayList<>();
+        profiles.add("loadtest");
+        for (String profile : options.profiles.split(",")) {
+            if (!profile.isBlank()) {
+                profiles.add(profile.trim());
+            }
+        }
+
+        return new SpringApplicationBuilder(ShareMeApplication.class)
+            .profiles(profiles.toArray(new String[0]))
+            .properties(
+                "spring.datasource.url=" + options.jdbcUrl,
+                "spring.datasource.username=" + options.jdbcUser,
+                "spring.datasource.password=" + options.jdbcPassword)
+            .run();
+    }
+
+    /**
+     * Drop and recreate the schema named in the JDBC URL so each run starts from the same state
+     */
+    static void recreateSchema(LoadTestOptions options) throws SQLException {
+        String url = options.jdbcUrl;
+        int query = url.indexOf('?');
+        String withoutQuery = query >= 0 ? url.substring(0, query) : url;
+        int slash = withoutQuery.lastIndexOf('/');
+        String schema = withoutQuery.substring(slash + 1);
+        String serverUrl = withoutQuery.substring(0, slash + 1) + (query >= 0 ? url.substring(query) : "");
+
+        if (!schema.matches("[A-Za-z0-9_]+")) {
+            throw new IllegalArgumentException("Refusing to drop suspicious schema name: " + schema);
+        }
+
+        try (Connection connection = DriverManager.getConnection(serverUrl, options.jdbcUser, options.jdbcPassword);
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS `" + schema + "`");
+            statement.execute("CREATE DATABASE `" + schema + "` CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.tasksphere.shareme.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options of the load generator, given as --name=value pairs.
+ */
+final class LoadTestOptions {
+
+    /** Base URL of an already running backend; when empty the backend is started in-process */
+    String target = "";
+    /** Extra Spring profiles for the in-process backend, e.g. "virtual" */
+    String profiles = "";
+    /** Drop and recreate the load test schema before starting */
+    boolean fresh = true;
+    String jdbcUrl = "jdbc:mysql://localhost:3306/shareme_loadtest?createDatabaseIfNotExist=true";
+    String jdbcUser = "shareme";
+    String jdbcPassword = "ShareMe@123";
+
+    int users = 20;
+    int projectsPerUser = 3;
+    int tasksPerProject = 30;
+    int notesPerUser = 20;
+    int attachmentsPerUser = 5;
+    int attachmentBytes = 256 * 1024;
+
+    int concurrency = 32;
+    /** Concurrency levels to run one after another, e.g. "32,128,512"; overrides --concurrency */
+    List<Integer> concurrencySweep = List.of();
+    Duration warmup = Duration.ofSeconds(10);
+    Duration duration = Duration.ofSeconds(60);
+    /** Total request rate for open-loop mode; 0 runs closed-loop as fast as possible */
+    int rate = 0;
+    long seed = 42;
+    String outputDir = "target/loadtest";
+    Map<Operation, Integer> mix = defaultMix();
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+
+        LoadTestOptions options = new LoadTestOptions();
+        options.target = values.getOrDefault("target", options.target);
+        options.profiles = values.getOrDefault("profiles", options.profiles);
+        options.fresh = Boolean.parseBoolean(values.getOrDefault("fresh", String.valueOf(options.fresh)));
+        options.jdbcUrl = values.getOrDefault("jdbc-url", options.jdbcUrl);
+        options.jdbcUser = values.getOrDefault("jdbc-user", options.jdbcUser);
+        options.jdbcPassword = values.getOrDefault("jdbc-password", options.jdbcPassword);
+        options.users = intValue(values, "users", options.users);
+        options.projectsPerUser = intValue(values, "projects-per-user", options.projectsPerUser);
+        options.tasksPerProject = intValue(values, "tasks-per-project", options.tasksPerProject);
+        options.notesPerUser = intValue(values, "notes-per-user", options.notesPerUser);
+        options.attachmentsPerUser = intValue(values, "attachments-per-user", options.attachmentsPerUser);
+        options.attachmentBytes = intValue(values, "attachment-bytes", options.attachmentBytes);
+        options.concurrency = intValue(values, "concurrency", options.concurrency);
+        if (values.containsKey("concurrency-sweep")) {
+            options.concurrencySweep = Arrays.stream(values.get("concurrency-sweep").split(","))
+                .map(String::trim)
+                .map(Integer::parseInt)
+                .toList();
+        }
+        options.warmup = Duration.ofSeconds(intValue(values, "warmup-seconds", (int) options.warmup.getSeconds()));
+        options.duration = Duration.ofSeconds(intValue(values, "duration-seconds", (int) options.duration.getSeconds()));
+        options.rate = intValue(values, "rate", options.rate);
+        options.seed = Long.parseLong(values.getOrDefault("seed", String.valueOf(options.seed)));
+        options.outputDir = values.getOrDefault("output-dir", options.outputDir);
+        if (values.containsKey("mix")) {
+            options.mix = parseMix(values.get("mix"));
+        }
+        return options;
+    }
+
+    private static int intValue(Map<String, String> values, String name, int defaultValue) {
+        return values.containsKey(name) ? Integer.parseInt(values.get(name)) : defaultValue;
+    }
+
+    private static Map<Operation, Integer> defaultMix() {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        mix.put(Operation.LOGIN, 5);
+        mix.put(Operation.LIST_TASKS, 30);
+        mix.put(Operation.SEARCH_TASKS, 15);
+        mix.put(Operation.UPDATE_STATUS, 15);
+        mix.put(Operation.SAVE_NOTE, 15);
+        mix.put(Operation.UPLOAD_ATTACHMENT, 5);
+        mix.put(Operation.DOWNLOAD_ATTACHMENT, 15);
+        return mix;
+    }
+
+    /**
+     * Parse a weight list such as "list_tasks:50,login:10"
+     */
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.split(":");
+            mix.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+}
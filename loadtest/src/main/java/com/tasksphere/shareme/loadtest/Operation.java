@@ -0,0 +1,24 @@
+package com.tasksphere.shareme.loadtest;
+
+/**
+ * Endpoint groups driven by the workload; each gets its own latency histogram.
+ */
+enum Operation {
+    LOGIN("POST /api/auth/login"),
+    LIST_TASKS("GET /api/tasks"),
+    SEARCH_TASKS("GET /api/tasks?query="),
+    UPDATE_STATUS("PATCH /api/tasks/{id}/status"),
+    SAVE_NOTE("POST /api/task-notes"),
+    UPLOAD_ATTACHMENT("POST /api/tasks/{id}/attachments"),
+    DOWNLOAD_ATTACHMENT("GET /api/tasks/attachments/{id}/download");
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+}
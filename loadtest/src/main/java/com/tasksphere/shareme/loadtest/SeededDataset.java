@@ -0,0 +1,38 @@
+package com.tasksphere.shareme.loadtest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Users created by {@link DatasetSeeder}, with the ids the workload operates on.
+ */
+final class SeededDataset {
+
+    static final class SeededUser {
+        final String email;
+        final long userId;
+        final List<Long> taskIds = new CopyOnWriteArrayList<>();
+        final List<Long> attachmentIds = new CopyOnWriteArrayList<>();
+        volatile String token;
+
+        SeededUser(String email, long userId, String token) {
+            this.email = email;
+            this.userId = userId;
+            this.token = token;
+        }
+    }
+
+    final List<SeededUser> users;
+
+    SeededDataset(List<SeededUser> users) {
+        this.users = users;
+    }
+
+    long taskCount() {
+        return users.stream().mapToLong(user -> user.taskIds.size()).sum();
+    }
+
+    long attachmentCount() {
+        return users.stream().mapToLong(user -> user.attachmentIds.size()).sum();
+    }
+}
@@ -0,0 +1,173 @@
+package com.tasksphere.shareme.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Drives the weighted operation mix from a fixed number of worker threads.
+ *
+ * In open-loop mode (--rate &gt; 0) every worker follows a fixed schedule and
+ * latency is measured from the intended start time, so a stalled server shows
+ * up as queueing delay instead of being hidden by coordinated omission.
+ */
+final class WorkloadRunner {
+
+    private static final String[] STATUSES = {"TODO", "IN_PROGRESS", "COMPLETED"};
+
+    private final ApiClient client;
+    private final DatasetSeeder seeder;
+    private final SeededDataset dataset;
+    private final LoadTestOptions options;
+    private final LatencyRecorder recorder;
+    private final Operation[] weightedOperations;
+    private final AtomicLong uploadSequence = new AtomicLong();
+
+    WorkloadRunner(ApiClient client, DatasetSeeder seeder, SeededDataset dataset, LoadTestOptions options, LatencyRecorder recorder) {
+        this.client = client;
+        this.seeder = seeder;
+        this.dataset = dataset;
+        this.options = options;
+        this.recorder = recorder;
+        this.weightedOperations = expandMix(options.mix);
+    }
+
+    /**
+     * Run warmup plus measurement and return the measured wall-clock seconds
+     */
+    double run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup.toNanos();
+        long end = measureFrom + options.duration.toNanos();
+
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < options.concurrency; i++) {
+            final int workerIndex = i;
+            Thread worker = new Thread(() -> work(workerIndex, start, end), "loadtest-worker-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+
+        sleepUntil(measureFrom);
+        recorder.reset();
+        long measuredStart = System.nanoTime();
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return (System.nanoTime() - measuredStart) / 1e9;
+    }
+
+    private void work(int workerIndex, long start, long end) {
+        SplittableRandom random = new SplittableRandom(options.seed * 31 + workerIndex);
+        SeededDataset.SeededUser user = dataset.users.get(workerIndex % dataset.users.size());
+        long intervalNanos = options.rate > 0
+            ? TimeUnit.SECONDS.toNanos(options.concurrency) / options.rate
+            : 0;
+        // Spread workers across the first interval so they don't fire in lockstep
+        long intended = start + (intervalNanos > 0 ? random.nextLong(intervalNanos) : 0);
+
+        while (true) {
+            long now = System.nanoTime();
+            if (intervalNanos > 0) {
+                if (intended >= end) {
+                    return;
+                }
+                sleepUntil(intended);
+            } else {
+                if (now >= end) {
+                    return;
+                }
+                intended = now;
+            }
+
+            Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+            boolean success;
+            try {
+                success = execute(operation, user, random);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                success = false;
+            }
+            recorder.record(operation, System.nanoTime() - intended, success);
+
+            if (intervalNanos > 0) {
+                intended += intervalNanos;
+            }
+        }
+    }
+
+    private boolean execute(Operation operation, SeededDataset.SeededUser user, SplittableRandom random) throws Exception {
+        switch (operation) {
+            case LOGIN: {
+                ApiClient.Response response = client.login(user.email, DatasetSeeder.PASSWORD);
+                if (response.ok()) {
+                    JsonNode auth = client.readTree(response);
+                    user.token = auth.path("accessToken").asText();
+                }
+                return response.ok();
+            }
+            case LIST_TASKS:
+                return client.getJson("/api/tasks?page=" + random.nextInt(3) + "&size=20", user.token).ok();
+            case SEARCH_TASKS:
+                return client.getJson("/api/tasks?query=" + ApiClient.encode(DatasetSeeder.word(random))
+                    + "&status=" + STATUSES[random.nextInt(STATUSES.length)] + "&size=20", user.token).ok();
+            case UPDATE_STATUS: {
+                long taskId = user.taskIds.get(random.nextInt(user.taskIds.size()));
+                return client.patchJson("/api/tasks/" + taskId + "/status", user.token,
+                    Map.of("status", STATUSES[random.nextInt(STATUSES.length)])).ok();
+            }
+            case SAVE_NOTE:
+                return client.postJson("/api/task-notes", user.token, seeder.noteBody(user, random)).ok();
+            case UPLOAD_ATTACHMENT: {
+                long taskId = user.taskIds.get(random.nextInt(user.taskIds.size()));
+                ApiClient.Response response = client.uploadFile("/api/tasks/" + taskId + "/attachments", user.token,
+                    "load-" + uploadSequence.incrementAndGet() + ".pdf", DatasetSeeder.payload(random, options.attachmentBytes));
+                if (response.ok()) {
+                    for (JsonNode attachment : client.readTree(response)) {
+                        user.attachmentIds.add(attachment.path("id").asLong());
+                    }
+                }
+                return response.ok();
+            }
+            case DOWNLOAD_ATTACHMENT: {
+                if (user.attachmentIds.isEmpty()) {
+                    return false;
+                }
+                long attachmentId = user.attachmentIds.get(random.nextInt(user.attachmentIds.size()));
+                return client.download("/api/tasks/attachments/" + attachmentId + "/download", user.token).ok();
+            }
+            default:
+                throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+
+    private static Operation[] expandMix(Map<Operation, Integer> mix) {
+        List<Operation> operations = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                operations.add(operation);
+            }
+        });
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix is empty");
+        }
+        return operations.toArray(new Operation[0]);
+    }
+
+    private static void sleepUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}